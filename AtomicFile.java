@@ -0,0 +1,107 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces files atomically. The new contents are written to a temporary file next to the
+ * target, forced to disk, and then renamed over the target, so a crash part way through a
+ * save leaves either the old file or the new one, never a truncated mix.
+ * <p>
+ * Each write gets a temporary file of its own, so saves of the same file on different
+ * threads, such as an interactive save and a log compaction, never write into each
+ * other's; whichever is renamed last wins. The temporary file is created like any other
+ * file, so the saved file gets the usual permissions.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class AtomicFile {
+	/**
+	 * Writes the contents of a file.
+	 */
+	public interface Body {
+		/**
+		 * Writes the new contents to the temporary file.
+		 *
+		 * @param channel - the temporary file, positioned at its start
+		 * @throws IOException if the contents can't be written
+		 */
+		void writeTo(FileChannel channel) throws IOException;
+	}
+
+	private AtomicFile() {
+	}
+
+	/**
+	 * Replaces a file with new contents. The directory of the file must already exist.
+	 *
+	 * @param filePath - the file to replace or create
+	 * @param body     - writes the new contents
+	 * @throws IOException if the file can't be written; the original file is untouched
+	 */
+	public static void write(String filePath, Body body) throws IOException {
+		Path target = Paths.get(filePath).toAbsolutePath();
+		Path temp = createTemp(target);
+
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				body.writeTo(channel);
+				channel.force(true);
+			}
+
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+
+		syncDirectory(target.getParent());
+	}
+
+	/**
+	 * Creates an empty temporary file next to a target, with a name no other write is
+	 * using.
+	 *
+	 * @param target - the file that will be replaced
+	 * @return - the temporary file
+	 * @throws IOException if it can't be created
+	 */
+	private static Path createTemp(Path target) throws IOException {
+		while (true) {
+			Path temp = target.resolveSibling(
+					target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			try {
+				return Files.createFile(temp);
+			} catch (FileAlreadyExistsException e) {
+				// Another write picked the same name; pick again.
+			}
+		}
+	}
+
+	/**
+	 * Forces a directory entry to disk so that a rename survives a crash. Not every
+	 * platform can open a directory, in which case this does nothing.
+	 *
+	 * @param directory - the directory to sync
+	 */
+	private static void syncDirectory(Path directory) {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Best effort: the rename itself has already happened.
+		}
+	}
+}
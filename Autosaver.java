@@ -0,0 +1,173 @@
+package comprehensive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Saves a Glossary to a file automatically once its edits have settled. The file becomes
+ * the glossary's home file, and a background thread checks the glossary's change count a
+ * few times per quiet period. Once the count has stopped changing for a whole quiet
+ * period, or enough unsaved changes have built up that waiting longer would risk too
+ * many, the glossary is saved with saveInBackground. A burst of edits therefore ends in
+ * one save, however many edits it had, and if the glossary isn't dirty, nothing is
+ * written. Saves to other files don't make it clean, so they don't hold autosaves back.
+ * <p>
+ * The glossary is captured under the read lock of a ReadWriteLock, so every edit must
+ * hold its write lock. Edits wait only while the glossary is captured, not while the
+ * file is written; the check only tries the lock, and skips a turn if an edit holds it.
+ * The file is written in the text format, and only one autosave runs at a time.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class Autosaver implements Closeable {
+	/** The number of times the change count is checked per quiet period. */
+	private static final int CHECKS_PER_QUIET_PERIOD = 4;
+	/** The shortest time between checks. */
+	private static final long MIN_CHECK_MILLIS = 10;
+
+	private final Glossary glossary;
+	private final String filePath;
+	private final ReadWriteLock lock;
+	private final long quietNanos;
+	private final long maxChanges;
+	private final ScheduledExecutorService checker;
+
+	/** The change count at the last check, and when it was first seen. */
+	private long seenChanges;
+	private long seenAt;
+	/** No autosave starts before this time, so a failed one isn't retried at once. */
+	private long retryAt;
+	private int saves;
+	private boolean closed;
+
+	/**
+	 * Constructor for an Autosaver, which starts checking the glossary right away and
+	 * makes the file its home file. If that is the file it was loaded from, the changes
+	 * since it was loaded or last saved there are saved like any other; if not, the
+	 * glossary is saved there at the first check.
+	 *
+	 * @param glossary    - the glossary to save
+	 * @param filePath    - the path of the file to save it to
+	 * @param lock        - the lock every edit of the glossary holds for writing
+	 * @param quietMillis - how long the glossary must go unchanged before it is saved
+	 * @param maxChanges  - the changes after which it is saved even if edits go on
+	 * @throws IllegalArgumentException if the quiet period or the changes are not positive
+	 */
+	public Autosaver(Glossary glossary, String filePath, ReadWriteLock lock, long quietMillis, long maxChanges) {
+		if (quietMillis <= 0 || maxChanges <= 0)
+			throw new IllegalArgumentException(
+					"The quiet period and changes must be positive: " + quietMillis + ", " + maxChanges);
+
+		this.glossary = glossary;
+		this.filePath = filePath;
+		this.lock = lock;
+		this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+		this.maxChanges = maxChanges;
+
+		glossary.setHomeFile(filePath);
+		seenChanges = glossary.getChangeCount();
+		seenAt = retryAt = System.nanoTime();
+
+		long checkMillis = Math.max(MIN_CHECK_MILLIS, quietMillis / CHECKS_PER_QUIET_PERIOD);
+		checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "glossary-autosave");
+			thread.setDaemon(true);
+			return thread;
+		});
+		checker.scheduleWithFixedDelay(this::check, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Gets the path of the file the glossary is saved to.
+	 *
+	 * @return - the path
+	 */
+	public String getFilePath() {
+		return filePath;
+	}
+
+	/**
+	 * Gets the number of autosaves that have been written.
+	 *
+	 * @return - the number of successful saves
+	 */
+	public synchronized int getSaves() {
+		return saves;
+	}
+
+	/**
+	 * Stops checking the glossary, and saves it one last time if it has changed since
+	 * the last save. Waits for that save, and any autosave already running, to finish.
+	 * May be called by a thread holding the write lock.
+	 *
+	 * @throws IOException if the last save fails
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+
+		closed = true;
+		checker.shutdown();
+
+		GlossarySave save;
+		lock.readLock().lock();
+		try {
+			save = glossary.isDirty() ? glossary.saveInBackground(filePath) : null;
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		if (save != null && !finish(save))
+			throw new IOException("Could not save " + filePath);
+	}
+
+	/**
+	 * Saves the glossary if it has changed and has been quiet long enough or built up
+	 * enough changes. Runs on the checking thread, which waits for the save, so another
+	 * can't start until it has finished.
+	 */
+	private synchronized void check() {
+		if (closed || !lock.readLock().tryLock())
+			return;
+
+		GlossarySave save = null;
+		long now = System.nanoTime();
+		try {
+			long changes = glossary.getChangeCount();
+			if (changes != seenChanges) {
+				seenChanges = changes;
+				seenAt = now;
+			}
+
+			if (glossary.isDirty() && now - retryAt >= 0
+					&& (now - seenAt >= quietNanos || glossary.getUnsavedChanges() >= maxChanges))
+				save = glossary.saveInBackground(filePath);
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		if (save != null && !finish(save))
+			retryAt = System.nanoTime() + quietNanos;
+	}
+
+	/**
+	 * Waits for a save and counts it if it succeeded. The glossary records what it
+	 * captured itself.
+	 *
+	 * @param save - the save
+	 * @return - true if it succeeded
+	 */
+	private boolean finish(GlossarySave save) {
+		if (!save.await())
+			return false;
+
+		saves++;
+		return true;
+	}
+}
@@ -0,0 +1,472 @@
+package comprehensive;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+/**
+ * A glossary that many threads can read and edit at once. Words are kept in a
+ * ConcurrentSkipListMap, so lookups and edits of different words never block each
+ * other. Each word's Term has its own StampedLock: edits take it for writing, while
+ * lookups read the Term optimistically and only lock if an edit overlapped them. The
+ * totals are LongAdders, which threads update without contending on one counter.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class ConcurrentGlossary implements GlossaryView {
+	private static final int WRITE_BUFFER = 1 << 20;
+
+	private ConcurrentSkipListMap<String, Entry> glossary;
+	private final LongAdder words;
+	private final LongAdder definitions;
+	private final LongAdder[] posCounts;
+
+	/**
+	 * A word's Term and the lock that guards it. Once its last definition is deleted
+	 * the entry is marked removed, and an add that raced with the delete starts over
+	 * with a new entry.
+	 */
+	private static class Entry {
+		final StampedLock lock = new StampedLock();
+		final Term term;
+		volatile boolean removed;
+
+		Entry(Term term) {
+			this.term = term;
+		}
+	}
+
+	/**
+	 * Constructor for an empty ConcurrentGlossary.
+	 */
+	public ConcurrentGlossary() {
+		glossary = new ConcurrentSkipListMap<String, Entry>();
+		words = new LongAdder();
+		definitions = new LongAdder();
+		posCounts = new LongAdder[Term.posOrder.length];
+		for (int i = 0; i < posCounts.length; i++)
+			posCounts[i] = new LongAdder();
+	}
+
+	/**
+	 * Creates a new ConcurrentGlossary from a glossary text file or binary snapshot.
+	 *
+	 * @param filePath - the file path to read from
+	 * @throws IOException if the file can't be read
+	 */
+	public ConcurrentGlossary(String filePath) throws IOException {
+		this();
+
+		if (!GlossarySnapshot.isSnapshot(filePath)) {
+			GlossaryLoader.load(filePath, this::add);
+			return;
+		}
+
+		GlossarySnapshot.Contents contents = GlossarySnapshot.read(filePath);
+		List<Map.Entry<String, Entry>> entries = new ArrayList<Map.Entry<String, Entry>>(contents.terms.size());
+		for (Map.Entry<String, Term> term : contents.terms.entrySet())
+			entries.add(new AbstractMap.SimpleImmutableEntry<String, Entry>(term.getKey(), new Entry(term.getValue())));
+
+		glossary = new ConcurrentSkipListMap<String, Entry>(new PresortedMap<String, Entry>(entries));
+		words.add(entries.size());
+		definitions.add(contents.definitions);
+		for (int i = 0; i < posCounts.length; i++)
+			posCounts[i].add(contents.posCounts[i]);
+	}
+
+	@Override
+	public int size() {
+		return words.intValue();
+	}
+
+	@Override
+	public int definitions() {
+		return definitions.intValue();
+	}
+
+	/**
+	 * Adds a definition to a given term, creating the Term if the word hasn't been added
+	 * yet.
+	 *
+	 * @param word - the word to add a definition for
+	 * @param pos  - the part of speech of the definition; must be one of Term.posOrder
+	 * @param def  - the definition
+	 * @return - true if the glossary was changed, otherwise false
+	 * @throws IllegalArgumentException if the part of speech is not valid
+	 */
+	public boolean add(String word, String pos, String def) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
+		if (partOfSpeech == null)
+			throw new IllegalArgumentException("Unknown part of speech: " + pos);
+
+		while (true) {
+			Entry entry = glossary.get(word);
+
+			if (entry == null) {
+				if (glossary.putIfAbsent(word, new Entry(new Term(word, partOfSpeech, def))) != null)
+					continue;
+
+				words.increment();
+				count(partOfSpeech, 1);
+				return true;
+			}
+
+			long stamp = entry.lock.writeLock();
+			try {
+				if (entry.removed)
+					continue;
+				if (!entry.term.add(partOfSpeech, def))
+					return false;
+			} finally {
+				entry.lock.unlockWrite(stamp);
+			}
+
+			count(partOfSpeech, 1);
+			return true;
+		}
+	}
+
+	@Override
+	public int getPosCount() {
+		int count = 0;
+		for (LongAdder posCount : posCounts)
+			if (posCount.sum() > 0)
+				count++;
+
+		return count;
+	}
+
+	@Override
+	public int[] getPosCounts() {
+		int[] counts = new int[posCounts.length];
+		for (int i = 0; i < counts.length; i++)
+			counts[i] = posCounts[i].intValue();
+
+		return counts;
+	}
+
+	@Override
+	public String getFirst() {
+		for (Map.Entry<String, Entry> entry : glossary.entrySet())
+			if (!entry.getValue().removed)
+				return entry.getKey();
+
+		return "";
+	}
+
+	@Override
+	public String getLast() {
+		for (Map.Entry<String, Entry> entry : glossary.descendingMap().entrySet())
+			if (!entry.getValue().removed)
+				return entry.getKey();
+
+		return "";
+	}
+
+	/**
+	 * Gets all words between two words, inclusive. Unlike Glossary.getInRange, the Set is
+	 * a copy, so it never changes or throws ConcurrentModificationException while the
+	 * caller iterates it. It holds every word that was present for the whole time it was
+	 * being built, and none that were absent for that whole time.
+	 *
+	 * @param start - the starting word
+	 * @param end   - the ending word
+	 * @return - a Set of words within the specified range; can be empty
+	 */
+	@Override
+	public Set<String> getInRange(String start, String end) {
+		List<String> inRange = new ArrayList<String>();
+		for (Map.Entry<String, Entry> entry : glossary.subMap(start, true, end, true).entrySet())
+			if (!entry.getValue().removed)
+				inRange.add(entry.getKey());
+
+		List<String> sorted = Collections.unmodifiableList(inRange);
+		return new AbstractSet<String>() {
+			@Override
+			public Iterator<String> iterator() {
+				return sorted.iterator();
+			}
+
+			@Override
+			public int size() {
+				return sorted.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof String && Collections.binarySearch(sorted, (String) o) >= 0;
+			}
+		};
+	}
+
+	/**
+	 * Gets one page of the words between two words, inclusive. Unlike getInRange, this
+	 * walks the live map, so only the page is copied. Edits made while paging show up in
+	 * later pages if they are past the cursor.
+	 *
+	 * @param start           - the starting word
+	 * @param end             - the ending word
+	 * @param limit           - the most words on the page
+	 * @param cursor          - the cursor of the previous page, or null for the first page
+	 * @param withDefinitions - true to include each word's entries; an entry is null if its
+	 *                        word was removed after it was listed
+	 * @return - the page; empty if start is after end
+	 * @throws IllegalArgumentException if limit is not positive or the cursor is invalid
+	 */
+	@Override
+	public GlossaryPage getPage(String start, String end, int limit, String cursor, boolean withDefinitions) {
+		if (limit <= 0)
+			throw new IllegalArgumentException("Page limit must be positive: " + limit);
+
+		String after = cursor == null ? null : GlossaryPage.decode(cursor);
+		boolean resume = after != null && after.compareTo(start) >= 0;
+		String from = resume ? after : start;
+		List<String> words = new ArrayList<String>(Math.min(limit, 64));
+		List<Entry> entries = new ArrayList<Entry>(Math.min(limit, 64));
+
+		if (from.compareTo(end) > 0)
+			return new GlossaryPage(words, withDefinitions ? new String[0][] : null, false);
+
+		boolean more = false;
+		for (Map.Entry<String, Entry> entry : glossary.subMap(from, !resume, end, true).entrySet()) {
+			if (entry.getValue().removed)
+				continue;
+			if (words.size() == limit) {
+				more = true;
+				break;
+			}
+
+			words.add(entry.getKey());
+			entries.add(entry.getValue());
+		}
+
+		String[][] definitions = null;
+		if (withDefinitions) {
+			definitions = new String[words.size()][];
+			for (int i = 0; i < definitions.length; i++)
+				definitions[i] = read(entries.get(i), Term::getMerged);
+		}
+
+		return new GlossaryPage(words, definitions, more);
+	}
+
+	@Override
+	public List<String> getCompletions(String prefix, int limit) {
+		List<String> completions = new ArrayList<String>(Math.min(limit, 16));
+
+		for (Map.Entry<String, Entry> entry : glossary.tailMap(prefix, true).entrySet()) {
+			if (completions.size() >= limit || !entry.getKey().startsWith(prefix))
+				break;
+
+			if (!entry.getValue().removed)
+				completions.add(entry.getKey());
+		}
+
+		return completions;
+	}
+
+	@Override
+	public String[] getMerged(String word) {
+		return read(word, Term::getMerged);
+	}
+
+	@Override
+	public String[] getPOS(String word) {
+		return read(word, Term::getPOS);
+	}
+
+	@Override
+	public String[][] getSplit(String word) {
+		return read(word, Term::getSplit);
+	}
+
+	/**
+	 * Updates a specified definition of a given word. If the new definition was already
+	 * present, the old one is still removed and the counts are adjusted.
+	 *
+	 * @param word   - the word to update
+	 * @param pos    - the part of speech of the new definition
+	 * @param oldDef - the old definition (gets removed)
+	 * @param newDef - the new definition (gets added)
+	 * @return - true if the definition was successfully updated
+	 */
+	public boolean updateDef(String word, String pos, String oldDef, String newDef) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
+		Entry entry = glossary.get(word);
+
+		if (entry == null || partOfSpeech == null)
+			return false;
+
+		boolean updated;
+		boolean shrank;
+		long stamp = entry.lock.writeLock();
+		try {
+			if (entry.removed)
+				return false;
+
+			int before = entry.term.getSize();
+			updated = entry.term.updateDef(partOfSpeech, oldDef, newDef);
+			shrank = entry.term.getSize() < before;
+		} finally {
+			entry.lock.unlockWrite(stamp);
+		}
+
+		if (shrank)
+			count(partOfSpeech, -1);
+
+		return updated;
+	}
+
+	/**
+	 * Deletes a specified definition of a given word. Removes the word itself if the last
+	 * definition is removed.
+	 *
+	 * @param word - the word corresponding with the definition to delete
+	 * @param pos  - the part of speech corresponding with the definition to delete
+	 * @param def  - the definition to delete
+	 * @return - a boolean array: the value at index 0 represents whether or not the
+	 *         definition was deleted successfully, while the value at index 1
+	 *         represents whether or not the word was removed from the glossary
+	 */
+	public boolean[] deleteDef(String word, String pos, String def) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
+		Entry entry = glossary.get(word);
+		boolean[] returnArr = new boolean[2];
+
+		if (entry == null || partOfSpeech == null)
+			return returnArr;
+
+		long stamp = entry.lock.writeLock();
+		try {
+			if (entry.removed)
+				return returnArr;
+
+			returnArr[0] = entry.term.deleteDef(partOfSpeech, def);
+
+			if (entry.term.getSize() == 0) {
+				entry.removed = true;
+				glossary.remove(word, entry);
+				returnArr[1] = true;
+			}
+		} finally {
+			entry.lock.unlockWrite(stamp);
+		}
+
+		if (returnArr[0])
+			count(partOfSpeech, -1);
+		if (returnArr[1])
+			words.decrement();
+
+		return returnArr;
+	}
+
+	/**
+	 * Saves the glossary to a given file path, in the same format and with the same
+	 * atomic replacement as Glossary.saveToFile. Edits may continue during the save; each
+	 * word is written as it was at some moment during the save.
+	 *
+	 * @param filePath - the path of the file to save to
+	 * @return - true if the file was saved successfully
+	 */
+	public boolean saveToFile(String filePath) {
+		try {
+			AtomicFile.write(filePath, channel -> {
+				Writer writer = new BufferedWriter(new OutputStreamWriter(
+						new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER),
+						StandardCharsets.UTF_8), WRITE_BUFFER);
+				boolean first = true;
+
+				for (Entry entry : glossary.values()) {
+					long stamp = entry.lock.readLock();
+					try {
+						if (entry.removed)
+							continue;
+
+						if (!first)
+							writer.append('\n');
+						first = false;
+
+						entry.term.appendEntries(writer);
+					} finally {
+						entry.lock.unlockRead(stamp);
+					}
+				}
+
+				writer.flush();
+			});
+		} catch (IOException e) {
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Reads a word's Term without blocking edits. The Term is first read optimistically,
+	 * without locking; if an edit overlapped the read, which may then have seen the Term
+	 * half-changed or thrown, it is read again under the read lock.
+	 *
+	 * @param word   - the word to look up
+	 * @param reader - what to read from the Term; must not modify it
+	 * @return - the result of reader, or null if the word is not present
+	 */
+	private <R> R read(String word, Function<Term, R> reader) {
+		Entry entry = glossary.get(word);
+		return entry == null ? null : read(entry, reader);
+	}
+
+	/**
+	 * Reads an entry's Term without blocking edits, as read(String, Function) does.
+	 *
+	 * @param entry  - the entry to read
+	 * @param reader - what to read from the Term; must not modify it
+	 * @return - the result of reader, or null if the entry has been removed
+	 */
+	private <R> R read(Entry entry, Function<Term, R> reader) {
+		long stamp = entry.lock.tryOptimisticRead();
+		if (stamp != 0) {
+			try {
+				R result = entry.removed ? null : reader.apply(entry.term);
+				if (entry.lock.validate(stamp))
+					return result;
+			} catch (RuntimeException e) {
+				// A torn read; fall through and read again under the lock.
+			}
+		}
+
+		stamp = entry.lock.readLock();
+		try {
+			return entry.removed ? null : reader.apply(entry.term);
+		} finally {
+			entry.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Adjusts the definition totals.
+	 *
+	 * @param pos   - the part of speech of the definitions
+	 * @param delta - the number of definitions added, or negative if removed
+	 */
+	private void count(PartOfSpeech pos, int delta) {
+		definitions.add(delta);
+		posCounts[pos.ordinal()].add(delta);
+	}
+}
@@ -0,0 +1,310 @@
+package comprehensive;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures a ConcurrentGlossary's throughput with 1, 4, and 16 threads, and checks its
+ * invariants while they run. Each thread mostly looks up random words; a given share of
+ * its operations are steps of an edit cycle on a word of its own, which adds the word
+ * with two definitions, updates one, and deletes both, so the glossary ends each run as
+ * it started.
+ * <p>
+ * Meanwhile a checker thread keeps reading. Its operations aren't counted, but it takes
+ * its share of the processors, so on a machine with few of them the runs with fewer
+ * threads are slowed most. It checks that:
+ * <ul>
+ * <li>size and definitions stay within what the threads' edits allow. Each thread
+ * adds at most one word and two definitions at a time, but a total may be read while an
+ * edit has reached the map and not yet its counter, so each thread is allowed one more
+ * either way.</li>
+ * <li>getInRange and getPage, over random ranges, return words in strictly
+ * ascending order, all within the range, and every word of the starting glossary that
+ * lies in it, since those are never edited.</li>
+ * </ul>
+ * After each run, the totals must equal the starting ones and a recount of the words and
+ * definitions. Any violation is printed, and the exit status is 1.
+ * <p>
+ * Each run starts with a warm-up whose operations aren't counted, though its edits are
+ * checked too.
+ * <p>
+ * Arguments: [seconds per run] [percent of edits] [glossary file]; without a file, a
+ * glossary of generated words is used.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class ConcurrentGlossaryStress {
+	private static final int[] THREADS = { 1, 4, 16 };
+	/** Time spent running at the start of each run before operations are counted. */
+	private static final long WARMUP_NANOS = 2_000_000_000L;
+	private static final int GENERATED_WORDS = 50_000;
+	/** The most words a range checked by the checker spans. */
+	private static final int RANGE_WORDS = 2_000;
+	private static final int PAGE_LIMIT = 100;
+
+	private final ConcurrentGlossary glossary;
+	private final String[] baseWords;
+	private final int baseDefinitions;
+	private final int editPercent;
+	private final AtomicLong violations = new AtomicLong();
+
+	/**
+	 * Constructor for a ConcurrentGlossaryStress. The glossary as it is now is the one
+	 * every run starts and must end with.
+	 *
+	 * @param glossary    - the glossary to edit
+	 * @param editPercent - the percent of each thread's operations that are edits
+	 */
+	public ConcurrentGlossaryStress(ConcurrentGlossary glossary, int editPercent) {
+		this.glossary = glossary;
+		this.baseWords = glossary.getInRange("", "\uffff").toArray(new String[0]);
+		this.baseDefinitions = glossary.definitions();
+		this.editPercent = editPercent;
+	}
+
+	/**
+	 * Runs the load at each number of threads and prints the results.
+	 *
+	 * @param args - [seconds per run] [percent of edits] [glossary file]
+	 * @throws Exception if the glossary file can't be read
+	 */
+	public static void main(String[] args) throws Exception {
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		int editPercent = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		ConcurrentGlossary glossary;
+		if (args.length > 2) {
+			glossary = new ConcurrentGlossary(args[2]);
+		} else {
+			glossary = new ConcurrentGlossary();
+			for (int i = 0; i < GENERATED_WORDS; i++)
+				glossary.add(String.format("word%06d", i), "noun", "generated definition " + i);
+		}
+
+		if (glossary.size() == 0) {
+			System.err.println("The dictionary is empty");
+			return;
+		}
+
+		ConcurrentGlossaryStress stress = new ConcurrentGlossaryStress(glossary, editPercent);
+		for (int threads : THREADS)
+			stress.run(threads, seconds);
+
+		if (stress.violations.get() > 0) {
+			System.out.println(stress.violations.get() + " invariant violations");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs a number of threads and the checker for a while, then checks the glossary is
+	 * back as it started and prints the throughput.
+	 *
+	 * @param threads - the number of threads
+	 * @param seconds - how long to count their operations for, after the warm-up
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	public void run(int threads, int seconds) throws InterruptedException {
+		long countFrom = System.nanoTime() + WARMUP_NANOS;
+		long end = countFrom + seconds * 1_000_000_000L;
+		long[] operations = new long[threads];
+		Thread[] workers = new Thread[threads];
+
+		for (int i = 0; i < threads; i++) {
+			int id = i;
+			workers[i] = new Thread(() -> operations[id] = work(id, countFrom, end), "stress-" + i);
+			workers[i].start();
+		}
+
+		long[] checks = new long[1];
+		Thread checker = new Thread(() -> checks[0] = check(threads, end), "stress-checker");
+		checker.start();
+
+		for (Thread worker : workers)
+			worker.join();
+		checker.join();
+
+		checkSettled();
+
+		long count = 0;
+		for (long operation : operations)
+			count += operation;
+
+		System.out.printf("%d threads, %d%% edits, %d operations in %d s: %.0f operations/s, %d checks%n", threads,
+				editPercent, count, seconds, count / (double) seconds, checks[0]);
+	}
+
+	/**
+	 * Looks up words and steps through edit cycles until a deadline, finishing the last
+	 * cycle past it.
+	 *
+	 * @param id        - the thread's number, which keeps its words apart
+	 * @param countFrom - when to start counting operations, as System.nanoTime
+	 * @param end       - when to stop, as System.nanoTime
+	 * @return - the number of operations counted
+	 */
+	private long work(int id, long countFrom, long end) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String word = null;
+		int step = 0;
+		long operations = 0;
+
+		for (long now = System.nanoTime(); step > 0 || now < end; now = System.nanoTime()) {
+			if (now >= countFrom)
+				operations++;
+
+			if (step == 0 && random.nextInt(100) >= editPercent) {
+				if (glossary.getMerged(baseWords[random.nextInt(baseWords.length)]) == null)
+					fail("a word of the starting glossary is missing");
+				continue;
+			}
+
+			switch (step) {
+			case 0:
+				word = baseWords[random.nextInt(baseWords.length)] + "-stress-" + id;
+				expect(glossary.add(word, "noun", "stress a"), "add of a new word", word);
+				break;
+			case 1:
+				expect(glossary.add(word, "verb", "stress b"), "add of a second definition", word);
+				break;
+			case 2:
+				expect(glossary.updateDef(word, "noun", "stress a", "stress c"), "update", word);
+				break;
+			case 3:
+				boolean[] deleted = glossary.deleteDef(word, "verb", "stress b");
+				expect(deleted[0] && !deleted[1], "delete of one definition", word);
+				break;
+			default:
+				deleted = glossary.deleteDef(word, "noun", "stress c");
+				expect(deleted[0] && deleted[1], "delete of the last definition", word);
+				break;
+			}
+
+			step = (step + 1) % 5;
+		}
+
+		return operations;
+	}
+
+	/**
+	 * Checks the totals and range results until a deadline.
+	 *
+	 * @param threads - the number of threads editing
+	 * @param end     - when to stop, as System.nanoTime
+	 * @return - the number of checks made
+	 */
+	private long check(int threads, long end) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long checks = 0;
+
+		while (System.nanoTime() < end) {
+			int size = glossary.size();
+			if (size < baseWords.length - threads || size > baseWords.length + 2 * threads)
+				fail("size " + size + " is outside " + baseWords.length + " and " + threads + " threads' edits");
+
+			int definitions = glossary.definitions();
+			if (definitions < baseDefinitions - threads || definitions > baseDefinitions + 3 * threads)
+				fail("definitions " + definitions + " is outside " + baseDefinitions + " and " + threads
+						+ " threads' edits");
+
+			int from = random.nextInt(baseWords.length);
+			int to = Math.min(baseWords.length - 1, from + random.nextInt(RANGE_WORDS));
+			String start = baseWords[from];
+			String stop = baseWords[to];
+
+			Set<String> range = glossary.getInRange(start, stop);
+			checkRange(range, start, stop, "getInRange");
+
+			String[] paged = new String[0];
+			int count = 0;
+			String cursor = null;
+			do {
+				GlossaryPage page = glossary.getPage(start, stop, PAGE_LIMIT, cursor, false);
+				List<String> words = page.getWords();
+				if (count + words.size() > paged.length)
+					paged = Arrays.copyOf(paged, Math.max(count + words.size(), paged.length * 2));
+				for (String word : words)
+					paged[count++] = word;
+				cursor = page.getCursor();
+			} while (cursor != null);
+			checkRange(Arrays.asList(paged).subList(0, count), start, stop, "getPage");
+
+			checks++;
+		}
+
+		return checks;
+	}
+
+	/**
+	 * Checks the words of a range are strictly ascending, within it, and include every
+	 * word of the starting glossary in it.
+	 *
+	 * @param words  - the words returned
+	 * @param start  - the starting word, from the starting glossary
+	 * @param end    - the ending word, from the starting glossary
+	 * @param source - what returned them
+	 */
+	private void checkRange(Iterable<String> words, String start, String end, String source) {
+		String previous = null;
+		int base = 0;
+
+		for (String word : words) {
+			if (word.compareTo(start) < 0 || word.compareTo(end) > 0)
+				fail(source + " [" + start + ", " + end + "] returned " + word);
+			if (previous != null && previous.compareTo(word) >= 0)
+				fail(source + " [" + start + ", " + end + "] returned " + previous + " before " + word);
+			if (Arrays.binarySearch(baseWords, word) >= 0)
+				base++;
+			previous = word;
+		}
+
+		int expected = Arrays.binarySearch(baseWords, end) - Arrays.binarySearch(baseWords, start) + 1;
+		if (base != expected)
+			fail(source + " [" + start + ", " + end + "] returned " + base + " of its " + expected
+					+ " starting words");
+	}
+
+	/**
+	 * Checks that, with no edits running, the totals equal the starting ones and a
+	 * recount of the glossary.
+	 */
+	private void checkSettled() {
+		Set<String> words = glossary.getInRange("", "\uffff");
+		int definitions = 0;
+		for (String word : words)
+			definitions += glossary.getMerged(word).length - 1;
+
+		if (glossary.size() != baseWords.length || words.size() != baseWords.length)
+			fail("size " + glossary.size() + " and " + words.size() + " words counted, expected "
+					+ baseWords.length);
+		if (glossary.definitions() != baseDefinitions || definitions != baseDefinitions)
+			fail("definitions " + glossary.definitions() + " and " + definitions + " counted, expected "
+					+ baseDefinitions);
+	}
+
+	/**
+	 * Records a violation unless an edit succeeded.
+	 *
+	 * @param succeeded - whether it did as expected
+	 * @param edit      - what the edit was
+	 * @param word      - the word it edited
+	 */
+	private void expect(boolean succeeded, String edit, String word) {
+		if (!succeeded)
+			fail(edit + " of " + word + " failed");
+	}
+
+	/**
+	 * Records and prints a violation.
+	 *
+	 * @param message - what was violated
+	 */
+	private void fail(String message) {
+		violations.incrementAndGet();
+		System.out.println("Violation: " + message);
+	}
+}
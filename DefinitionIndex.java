@@ -0,0 +1,937 @@
+package comprehensive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An inverted index from the words used in definitions ("tokens") to the definitions
+ * that use them. Tokens are runs of letters and digits, lower-cased. Each Term is given a
+ * small int id, and a token's postings are the codes (id * 8 + part of speech ordinal) of
+ * the Terms and parts of speech with a definition that uses it. Which of those
+ * definitions match is decided by reading the Term itself, so the index stores no Strings
+ * besides the tokens.
+ * <p>
+ * Most tokens are used by a single definition, so tokens are kept in an open-addressing
+ * table that holds a lone posting inline; only tokens with several postings get a
+ * compressed PostingList.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+class DefinitionIndex {
+	/** The number of low bits of a posting that hold the part of speech ordinal. */
+	private static final int POS_BITS = 3;
+	private static final int POS_MASK = (1 << POS_BITS) - 1;
+	/** Whether each ASCII character is part of a token, and its lower case. */
+	private static final boolean[] ASCII_TOKEN = new boolean[0x80];
+	private static final char[] ASCII_LOWER = new char[0x80];
+
+	static {
+		for (char c = 0; c < 0x80; c++) {
+			ASCII_TOKEN[c] = Character.isLetterOrDigit(c);
+			ASCII_LOWER[c] = Character.toLowerCase(c);
+		}
+	}
+
+	private String[] tokens;
+	private int[] hashes;
+	private int[] singles;
+	private PostingList[] lists;
+	private int tokenCount;
+	private Term[] terms;
+	private int[] freeIds;
+	private int freeCount;
+	private int nextId;
+	private int[] hashBuffer;
+	private int hashCount;
+
+	/**
+	 * A definition that matched a search, with its score.
+	 */
+	private static class Match {
+		final double score;
+		final Term term;
+		final int index;
+
+		Match(double score, Term term, int index) {
+			this.score = score;
+			this.term = term;
+			this.index = index;
+		}
+	}
+
+	/** Orders matches from worst to best: by score, then by word and definition order. */
+	private static final Comparator<Match> WORST_FIRST = Comparator.<Match>comparingDouble(m -> m.score)
+			.thenComparing(m -> m.term.getWord(), Comparator.reverseOrder())
+			.thenComparing(m -> -m.index);
+
+	/**
+	 * Constructor for an empty DefinitionIndex.
+	 */
+	DefinitionIndex() {
+		tokens = new String[16];
+		hashes = new int[16];
+		singles = new int[16];
+		lists = new PostingList[16];
+		tokenCount = 0;
+		terms = new Term[16];
+		freeIds = new int[16];
+		freeCount = 0;
+		nextId = 0;
+		hashBuffer = new int[16];
+	}
+
+	/**
+	 * Indexes a definition that was just added to a Term.
+	 *
+	 * @param term    - the Term
+	 * @param ordinal - the definition's part of speech ordinal
+	 * @param def     - the definition
+	 */
+	void add(Term term, int ordinal, String def) {
+		if (term.indexId < 0 || term.indexId >= nextId || terms[term.indexId] != term)
+			assignId(term);
+
+		int code = term.indexId << POS_BITS | ordinal;
+		float share = maxShare(def);
+		forEachToken(def, (start, end) -> addPosting(def, start, end, code, share));
+	}
+
+	/**
+	 * Unindexes a definition that was just removed from a Term. A token's posting is only
+	 * dropped if no other definition of the Term with the same part of speech uses it.
+	 *
+	 * @param term    - the Term, after the removal
+	 * @param ordinal - the definition's part of speech ordinal
+	 * @param def     - the removed definition
+	 */
+	void remove(Term term, int ordinal, String def) {
+		forEachUnusedToken(term, new int[] { ordinal }, new String[] { def }, 1, this::removePosting);
+
+		if (term.getSize() == 0)
+			releaseId(term);
+	}
+
+	/**
+	 * Starts collecting the posting changes of a batch of edits.
+	 *
+	 * @return - a new Changes
+	 */
+	Changes changes() {
+		return new Changes();
+	}
+
+	/**
+	 * The posting changes of a batch of edits, collected while the edits are applied to the
+	 * Terms and then applied to the index together. The changes to each token are sorted
+	 * and merged into its posting list in one pass, so a long list is rewritten a block at
+	 * a time once per batch rather than once per definition. A Term left empty keeps its
+	 * id until then, so the id isn't reused while postings still refer to it.
+	 */
+	class Changes {
+		private final Map<String, TokenChanges> byToken = new HashMap<String, TokenChanges>();
+		private final List<Term> emptied = new ArrayList<Term>();
+
+		/**
+		 * Records a definition that was just added to a Term, as DefinitionIndex.add.
+		 *
+		 * @param term    - the Term
+		 * @param ordinal - the definition's part of speech ordinal
+		 * @param def     - the definition
+		 */
+		void add(Term term, int ordinal, String def) {
+			if (term.indexId < 0 || term.indexId >= nextId || terms[term.indexId] != term)
+				assignId(term);
+
+			int code = term.indexId << POS_BITS | ordinal;
+			float share = maxShare(def);
+			forEachToken(def, (start, end) -> changesOf(token(def, start, end)).add(code, share));
+		}
+
+		/**
+		 * Records definitions that were removed from a Term, as DefinitionIndex.remove. The
+		 * Term must have reached its final state for the batch.
+		 *
+		 * @param term     - the Term, after all of the batch's edits
+		 * @param ordinals - the part of speech ordinal of each removed definition
+		 * @param defs     - the removed definitions
+		 * @param count    - the number of removed definitions
+		 */
+		void remove(Term term, int[] ordinals, String[] defs, int count) {
+			forEachUnusedToken(term, ordinals, defs, count, (token, code) -> changesOf(token).remove(code));
+
+			if (term.getSize() == 0)
+				emptied.add(term);
+		}
+
+		/**
+		 * Applies the collected changes to the index.
+		 */
+		void apply() {
+			for (Map.Entry<String, TokenChanges> entry : byToken.entrySet())
+				entry.getValue().apply(entry.getKey());
+
+			for (Term term : emptied)
+				if (term.getSize() == 0 && term.indexId >= 0)
+					releaseId(term);
+		}
+
+		/**
+		 * Gets the changes to a token, creating them if there are none yet.
+		 *
+		 * @param token - the token
+		 * @return - its changes
+		 */
+		private TokenChanges changesOf(String token) {
+			TokenChanges changes = byToken.get(token);
+			if (changes == null) {
+				changes = new TokenChanges();
+				byToken.put(token, changes);
+			}
+
+			return changes;
+		}
+	}
+
+	/**
+	 * The postings a batch adds to and removes from one token. A posting that is both added
+	 * and removed ends up removed, since removals are only recorded for postings that no
+	 * definition uses once the batch is done.
+	 */
+	private class TokenChanges {
+		private int[] added = new int[4];
+		private int addCount;
+		private float bound;
+		private int[] removed = new int[4];
+		private int removeCount;
+
+		/**
+		 * Records an added posting.
+		 *
+		 * @param code  - the posting
+		 * @param share - a bound on the token's share of the definition's tokens
+		 */
+		void add(int code, float share) {
+			if (addCount == added.length)
+				added = Arrays.copyOf(added, addCount * 2);
+			added[addCount++] = code;
+			bound = Math.max(bound, share);
+		}
+
+		/**
+		 * Records a removed posting.
+		 *
+		 * @param code - the posting
+		 */
+		void remove(int code) {
+			if (removeCount == removed.length)
+				removed = Arrays.copyOf(removed, removeCount * 2);
+			removed[removeCount++] = code;
+		}
+
+		/**
+		 * Applies the changes to the token's postings.
+		 *
+		 * @param token - the token
+		 */
+		void apply(String token) {
+			removeCount = sortDistinct(removed, removeCount);
+			addCount = sortDistinct(added, addCount);
+			int net = 0;
+			for (int a = 0, r = 0; a < addCount; a++) {
+				while (r < removeCount && removed[r] < added[a])
+					r++;
+				if (r == removeCount || removed[r] != added[a])
+					added[net++] = added[a];
+			}
+			addCount = net;
+
+			int slot = slotOf(token);
+			if (tokens[slot] == null) {
+				if (addCount == 0)
+					return;
+
+				tokens[slot] = token;
+				hashes[slot] = token.hashCode();
+				singles[slot] = added[0];
+				if (addCount > 1)
+					lists[slot] = listOf(added, addCount, bound);
+				if (++tokenCount * 3 > tokens.length * 2)
+					resize();
+				return;
+			}
+
+			PostingList list = lists[slot];
+			if (list == null) {
+				int single = singles[slot];
+				boolean kept = Arrays.binarySearch(removed, 0, removeCount, single) < 0;
+				if (kept && Arrays.binarySearch(added, 0, addCount, single) < 0) {
+					if (addCount == 0)
+						return;
+					added = Arrays.copyOf(added, addCount + 1);
+					added[addCount++] = single;
+					Arrays.sort(added, 0, addCount);
+				}
+
+				if (addCount == 0)
+					removeSlot(slot);
+				else if (addCount == 1)
+					singles[slot] = added[0];
+				else
+					lists[slot] = listOf(added, addCount, kept ? Math.max(bound, share(single, token)) : bound);
+				return;
+			}
+
+			list.removeAll(removed, removeCount);
+			list.addAll(added, addCount);
+			list.bound = Math.max(list.bound, bound);
+
+			if (list.size() == 0) {
+				removeSlot(slot);
+			} else if (list.size() == 1) {
+				list.forEach(remaining -> singles[slot] = remaining);
+				lists[slot] = null;
+			}
+		}
+	}
+
+	/**
+	 * Makes a PostingList of several postings.
+	 *
+	 * @param codes - the postings, in increasing order without repeats
+	 * @param count - the number of postings, at least 2
+	 * @param bound - the list's bound
+	 * @return - the list
+	 */
+	private static PostingList listOf(int[] codes, int count, float bound) {
+		PostingList list = new PostingList(codes[0]);
+		list.addAll(codes, count);
+		list.bound = bound;
+		return list;
+	}
+
+	/**
+	 * Sorts the start of an array and drops repeats.
+	 *
+	 * @param values - the array
+	 * @param count  - the number of values in use
+	 * @return - the number of distinct values, now at the start in increasing order
+	 */
+	private static int sortDistinct(int[] values, int count) {
+		Arrays.sort(values, 0, count);
+		int distinct = 0;
+		for (int i = 0; i < count; i++)
+			if (distinct == 0 || values[i] != values[distinct - 1])
+				values[distinct++] = values[i];
+
+		return distinct;
+	}
+
+	/**
+	 * What to do with a posting that should be removed.
+	 */
+	private interface PostingAction {
+		void accept(String token, int code);
+	}
+
+	/**
+	 * Finds the postings of removed definitions that no remaining definition of the Term
+	 * with the same part of speech uses. The remaining definitions of each part of speech
+	 * are tokenized once for all of the removed ones.
+	 *
+	 * @param term     - the Term, after the removals
+	 * @param ordinals - the part of speech ordinal of each removed definition
+	 * @param defs     - the removed definitions
+	 * @param count    - the number of removed definitions
+	 * @param action   - what to do with each unused posting
+	 */
+	private void forEachUnusedToken(Term term, int[] ordinals, String[] defs, int count, PostingAction action) {
+		List<Set<String>> remaining = new ArrayList<Set<String>>(Collections.nCopies(POS_MASK + 1, null));
+
+		for (int k = 0; k < count; k++) {
+			int ordinal = ordinals[k];
+			Set<String> kept = remaining.get(ordinal);
+			if (kept == null) {
+				kept = new HashSet<String>();
+				for (int i = 0; i < term.getSize(); i++)
+					if (term.posOrdinalAt(i) == ordinal)
+						kept.addAll(tokenize(term.defAt(i)));
+				remaining.set(ordinal, kept);
+			}
+
+			int code = term.indexId << POS_BITS | ordinal;
+			for (String token : tokenize(defs[k]))
+				if (kept.add(token))
+					action.accept(token, code);
+		}
+	}
+
+	/**
+	 * Frees the id of a Term that has no definitions left, for reuse.
+	 *
+	 * @param term - the Term
+	 */
+	private void releaseId(Term term) {
+		terms[term.indexId] = null;
+		if (freeCount == freeIds.length)
+			freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+		freeIds[freeCount++] = term.indexId;
+		term.indexId = -1;
+	}
+
+	/**
+	 * Finds the definitions that use the tokens of a query, best first. A definition's
+	 * score is the sum, over the query tokens it uses, of the token's share of the
+	 * definition's tokens times the token's inverse document frequency, log(1 + N / df).
+	 * <p>
+	 * An OR query skips definitions that cannot make the results: each list's bound times
+	 * its idf caps what its token adds to a score, so once the results are full, the
+	 * lists whose caps sum to less than the worst result stop supplying candidates, and a
+	 * candidate is only read if the caps of the lists that may hold it could beat it.
+	 *
+	 * @param query       - the words to look for
+	 * @param matchAll    - true to require every token of the query, false for any
+	 * @param limit       - the most definitions to return
+	 * @param definitions - the number of definitions in the glossary (N)
+	 * @return - one row per definition found: the word, the part of speech, and the
+	 * definition
+	 */
+	String[][] search(String query, boolean matchAll, int limit, int definitions) {
+		List<String> queryTokens = new ArrayList<String>(new LinkedHashSet<String>(tokenize(query)));
+		List<PostingList> queryLists = new ArrayList<PostingList>();
+		List<String> found = new ArrayList<String>();
+
+		for (String token : queryTokens) {
+			PostingList list = postings(token);
+			if (list != null) {
+				queryLists.add(list);
+				found.add(token);
+			} else if (matchAll) {
+				return new String[0][];
+			}
+		}
+
+		if (queryLists.isEmpty() || limit <= 0)
+			return new String[0][];
+
+		double[] idf = new double[queryLists.size()];
+		for (int i = 0; i < idf.length; i++)
+			idf[i] = Math.log(1 + (double) definitions / queryLists.get(i).size());
+
+		PriorityQueue<Match> best = new PriorityQueue<Match>(WORST_FIRST);
+
+		if (matchAll) {
+			List<PostingList> bySize = new ArrayList<PostingList>(queryLists);
+			bySize.sort(Comparator.comparingInt(PostingList::size));
+			PostingList.Cursor[] cursors = new PostingList.Cursor[bySize.size()];
+			for (int i = 0; i < cursors.length; i++)
+				cursors[i] = bySize.get(i).cursor();
+
+			int candidate = cursors[0].advance(0);
+			candidates: while (candidate >= 0) {
+				for (int i = 1; i < cursors.length; i++) {
+					int next = cursors[i].advance(candidate);
+					if (next < 0)
+						break candidates;
+					if (next != candidate) {
+						candidate = cursors[0].advance(next);
+						continue candidates;
+					}
+				}
+
+				score(candidate, found, idf, true, limit, best);
+				candidate = cursors[0].advance(candidate + 1);
+			}
+		} else {
+			Integer[] order = new Integer[queryLists.size()];
+			for (int i = 0; i < order.length; i++)
+				order[i] = i;
+			Arrays.sort(order, Comparator.comparingDouble(i -> idf[i] * queryLists.get(i).bound));
+
+			// The list with the highest cap is scored first, since its definitions are the
+			// likeliest results; the worst result then rises early and prunes the merge.
+			PostingList seed = queryLists.get(order[order.length - 1]);
+			seed.forEach(code -> score(code, found, idf, false, limit, best));
+			PostingList.Cursor seeded = seed.cursor();
+
+			int merged = order.length - 1;
+			PostingList.Cursor[] cursors = new PostingList.Cursor[merged];
+			int[] current = new int[merged];
+			double[] caps = new double[merged];
+			for (int k = 0; k < merged; k++) {
+				PostingList list = queryLists.get(order[k]);
+				cursors[k] = list.cursor();
+				current[k] = cursors[k].advance(0);
+				caps[k] = (k == 0 ? 0 : caps[k - 1]) + idf[order[k]] * list.bound;
+			}
+
+			int essential = 0;
+			while (true) {
+				if (best.size() == limit)
+					while (essential < merged && caps[essential] < best.peek().score)
+						essential++;
+
+				int candidate = Integer.MAX_VALUE;
+				for (int k = essential; k < merged; k++)
+					if (current[k] >= 0 && current[k] < candidate)
+						candidate = current[k];
+				if (candidate == Integer.MAX_VALUE)
+					break;
+
+				double cap = essential == 0 ? 0 : caps[essential - 1];
+				for (int k = essential; k < merged; k++)
+					if (current[k] == candidate) {
+						cap += caps[k] - (k == 0 ? 0 : caps[k - 1]);
+						current[k] = cursors[k].advance(candidate + 1);
+					}
+
+				if (seeded.advance(candidate) != candidate && (best.size() < limit || cap >= best.peek().score))
+					score(candidate, found, idf, false, limit, best);
+			}
+		}
+
+		String[][] rows = new String[best.size()][];
+		for (int i = rows.length - 1; i >= 0; i--) {
+			Match match = best.poll();
+			rows[i] = new String[] { match.term.getWord(), Term.posOrder[match.term.posOrdinalAt(match.index)],
+					match.term.defAt(match.index) };
+		}
+
+		return rows;
+	}
+
+	/**
+	 * Scores the definitions behind one posting and keeps them if they are among the best
+	 * so far.
+	 *
+	 * @param code     - the posting
+	 * @param query    - the query tokens
+	 * @param idf      - the inverse document frequency of each query token
+	 * @param matchAll - whether a definition must use every query token
+	 * @param limit    - the number of matches to keep
+	 * @param best     - the best matches so far, worst first
+	 */
+	private void score(int code, List<String> query, double[] idf, boolean matchAll, int limit,
+			PriorityQueue<Match> best) {
+		Term term = terms[code >>> POS_BITS];
+		int ordinal = code & POS_MASK;
+
+		for (int i = 0; i < term.getSize(); i++) {
+			if (term.posOrdinalAt(i) != ordinal)
+				continue;
+
+			String def = term.defAt(i);
+			int[] uses = new int[query.size()];
+			int[] length = new int[1];
+			forEachToken(def, (start, end) -> {
+				length[0]++;
+				for (int t = 0; t < uses.length; t++)
+					if (matches(query.get(t), def, start, end))
+						uses[t]++;
+			});
+
+			double score = 0;
+			boolean complete = true;
+			for (int t = 0; t < uses.length; t++) {
+				if (uses[t] == 0)
+					complete = false;
+				score += (double) uses[t] / length[0] * idf[t];
+			}
+
+			if (score == 0 || matchAll && !complete)
+				continue;
+
+			Match match = new Match(score, term, i);
+			if (best.size() < limit) {
+				best.add(match);
+			} else if (WORST_FIRST.compare(match, best.peek()) > 0) {
+				best.poll();
+				best.add(match);
+			}
+		}
+	}
+
+	/**
+	 * Adds a posting to a token of a definition, adding the token if it is new. Only a new
+	 * token is copied out of the definition.
+	 *
+	 * @param def   - the definition
+	 * @param start - the start of the token in the definition
+	 * @param end   - the end of the token in the definition
+	 * @param code  - the posting
+	 * @param share - a bound on the token's share of the definition's tokens
+	 */
+	private void addPosting(String def, int start, int end, int code, float share) {
+		int hash = hash(def, start, end);
+		int slot = slotOf(hash, def, start, end);
+
+		if (tokens[slot] == null) {
+			tokens[slot] = token(def, start, end);
+			hashes[slot] = hash;
+			singles[slot] = code;
+			if (++tokenCount * 3 > tokens.length * 2)
+				resize();
+		} else if (lists[slot] != null) {
+			lists[slot].add(code);
+			lists[slot].bound = Math.max(lists[slot].bound, share);
+		} else if (singles[slot] != code) {
+			lists[slot] = new PostingList(singles[slot]);
+			lists[slot].add(code);
+			lists[slot].bound = Math.max(share(singles[slot], tokens[slot]), share);
+		}
+	}
+
+	/**
+	 * Gets a bound on the share of a definition's tokens that any one of them makes up:
+	 * the most times a token's hash code repeats, over the number of tokens. Tokens with the
+	 * same hash code are counted together, which can only raise the bound.
+	 *
+	 * @param def - the definition
+	 * @return - the bound, rounded up
+	 */
+	private float maxShare(String def) {
+		hashCount = 0;
+		forEachToken(def, (start, end) -> {
+			if (hashCount == hashBuffer.length)
+				hashBuffer = Arrays.copyOf(hashBuffer, hashCount * 2);
+			hashBuffer[hashCount++] = hash(def, start, end);
+		});
+
+		Arrays.sort(hashBuffer, 0, hashCount);
+		int most = 1;
+		for (int i = 1, run = 1; i < hashCount; i++) {
+			run = hashBuffer[i] == hashBuffer[i - 1] ? run + 1 : 1;
+			most = Math.max(most, run);
+		}
+
+		return Math.nextUp((float) most / hashCount);
+	}
+
+	/**
+	 * Gets the largest share of a token among the definitions behind a posting. Used when
+	 * a token's lone posting becomes a list, since no bound is kept for lone postings.
+	 *
+	 * @param code  - the posting
+	 * @param token - the token
+	 * @return - the share, rounded up
+	 */
+	private float share(int code, String token) {
+		Term term = terms[code >>> POS_BITS];
+		int ordinal = code & POS_MASK;
+		float most = 0;
+
+		for (int i = 0; i < term.getSize(); i++) {
+			if (term.posOrdinalAt(i) != ordinal)
+				continue;
+
+			String def = term.defAt(i);
+			int[] counts = new int[2];
+			forEachToken(def, (start, end) -> {
+				counts[0]++;
+				if (matches(token, def, start, end))
+					counts[1]++;
+			});
+
+			if (counts[1] > 0)
+				most = Math.max(most, Math.nextUp((float) counts[1] / counts[0]));
+		}
+
+		return most;
+	}
+
+	/**
+	 * Removes a posting from a token, removing the token once it has none.
+	 *
+	 * @param token - the token
+	 * @param code  - the posting
+	 */
+	private void removePosting(String token, int code) {
+		int slot = slotOf(token);
+
+		if (tokens[slot] == null) {
+			return;
+		} else if (lists[slot] == null) {
+			if (singles[slot] == code)
+				removeSlot(slot);
+		} else if (lists[slot].remove(code) && lists[slot].size() == 1) {
+			lists[slot].forEach(remaining -> singles[slot] = remaining);
+			lists[slot] = null;
+		}
+	}
+
+	/**
+	 * Gets the postings of a token.
+	 *
+	 * @param token - the token
+	 * @return - the postings, or null if no definition uses the token
+	 */
+	private PostingList postings(String token) {
+		int slot = slotOf(token);
+
+		if (tokens[slot] == null)
+			return null;
+
+		if (lists[slot] != null)
+			return lists[slot];
+
+		PostingList single = new PostingList(singles[slot]);
+		single.bound = 1;
+		return single;
+	}
+
+	/**
+	 * Finds the slot of a token in the table, or the empty slot where it would go.
+	 *
+	 * @param token - the token
+	 * @return - the slot
+	 */
+	private int slotOf(String token) {
+		int hash = token.hashCode();
+		int mask = tokens.length - 1;
+		int slot = home(hash, mask);
+
+		while (tokens[slot] != null && (hashes[slot] != hash || !tokens[slot].equals(token)))
+			slot = (slot + 1) & mask;
+
+		return slot;
+	}
+
+	/**
+	 * Finds the slot of a token of a definition, or the empty slot where it would go. Hash
+	 * codes are compared first, so other tokens are rarely read.
+	 *
+	 * @param hash  - the token's hash code
+	 * @param def   - the definition
+	 * @param start - the start of the token in the definition
+	 * @param end   - the end of the token in the definition
+	 * @return - the slot
+	 */
+	private int slotOf(int hash, String def, int start, int end) {
+		int mask = tokens.length - 1;
+		int slot = home(hash, mask);
+
+		while (tokens[slot] != null && (hashes[slot] != hash || !matches(tokens[slot], def, start, end)))
+			slot = (slot + 1) & mask;
+
+		return slot;
+	}
+
+	/**
+	 * Gets the slot a token is placed in when there are no collisions.
+	 *
+	 * @param hashCode - the token's hash code
+	 * @param mask     - the table size less one
+	 * @return - the slot
+	 */
+	private static int home(int hashCode, int mask) {
+		int hash = hashCode * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	/**
+	 * Empties a slot, moving later tokens of the same run back so that every token can
+	 * still be found from its home slot.
+	 *
+	 * @param slot - the slot to empty
+	 */
+	private void removeSlot(int slot) {
+		int mask = tokens.length - 1;
+		int next = slot;
+		tokenCount--;
+
+		while (true) {
+			next = (next + 1) & mask;
+			if (tokens[next] == null)
+				break;
+
+			int home = home(hashes[next], mask);
+			boolean stays = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+			if (stays)
+				continue;
+
+			tokens[slot] = tokens[next];
+			hashes[slot] = hashes[next];
+			singles[slot] = singles[next];
+			lists[slot] = lists[next];
+			slot = next;
+		}
+
+		tokens[slot] = null;
+		lists[slot] = null;
+	}
+
+	/**
+	 * Doubles the size of the token table.
+	 */
+	private void resize() {
+		String[] oldTokens = tokens;
+		int[] oldHashes = hashes;
+		int[] oldSingles = singles;
+		PostingList[] oldLists = lists;
+
+		tokens = new String[oldTokens.length * 2];
+		hashes = new int[tokens.length];
+		singles = new int[tokens.length];
+		lists = new PostingList[tokens.length];
+
+		int mask = tokens.length - 1;
+		for (int i = 0; i < oldTokens.length; i++)
+			if (oldTokens[i] != null) {
+				int slot = home(oldHashes[i], mask);
+				while (tokens[slot] != null)
+					slot = (slot + 1) & mask;
+
+				tokens[slot] = oldTokens[i];
+				hashes[slot] = oldHashes[i];
+				singles[slot] = oldSingles[i];
+				lists[slot] = oldLists[i];
+			}
+	}
+
+	/**
+	 * Gives a Term an id, reusing the id of a removed Term if there is one.
+	 *
+	 * @param term - the Term
+	 */
+	private void assignId(Term term) {
+		if (freeCount > 0) {
+			term.indexId = freeIds[--freeCount];
+		} else {
+			if (nextId == terms.length)
+				terms = Arrays.copyOf(terms, nextId * 2);
+			term.indexId = nextId++;
+		}
+
+		terms[term.indexId] = term;
+	}
+
+	/**
+	 * Splits text into tokens: runs of letters and digits, lower-cased.
+	 *
+	 * @param text - the text to split
+	 * @return - the tokens, in order and with repeats
+	 */
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<String>();
+		forEachToken(text, (start, end) -> tokens.add(token(text, start, end)));
+		return tokens;
+	}
+
+	/**
+	 * Something to do with the position of each token in a text.
+	 */
+	private interface TokenAction {
+		void accept(int start, int end);
+	}
+
+	/**
+	 * Finds each token of some text, without copying it out.
+	 *
+	 * @param text   - the text to split
+	 * @param action - what to do with the start and end of each token, in order
+	 */
+	private static void forEachToken(String text, TokenAction action) {
+		int start = -1;
+
+		for (int i = 0; i <= text.length();) {
+			int c = i < text.length() ? text.codePointAt(i) : ' ';
+			boolean inToken = c < 0x80 ? ASCII_TOKEN[c] : Character.isLetterOrDigit(c);
+
+			if (inToken && start < 0) {
+				start = i;
+			} else if (!inToken && start >= 0) {
+				action.accept(start, i);
+				start = -1;
+			}
+
+			i += i < text.length() ? Character.charCount(c) : 1;
+		}
+	}
+
+	/**
+	 * Copies a token out of a text, lower-cased.
+	 *
+	 * @param text  - the text
+	 * @param start - the start of the token
+	 * @param end   - the end of the token
+	 * @return - the token
+	 */
+	private static String token(String text, int start, int end) {
+		StringBuilder token = null;
+
+		for (int i = start; i < end;) {
+			int c = text.codePointAt(i);
+			int lower = c < 0x80 ? ASCII_LOWER[c] : Character.toLowerCase(c);
+
+			if (lower != c && token == null)
+				token = new StringBuilder(end - start).append(text, start, i);
+			if (token != null)
+				token.appendCodePoint(lower);
+
+			i += Character.charCount(c);
+		}
+
+		return token == null ? text.substring(start, end) : token.toString();
+	}
+
+	/**
+	 * Computes the String.hashCode of a lower-cased token without copying it out.
+	 *
+	 * @param text  - the text
+	 * @param start - the start of the token
+	 * @param end   - the end of the token
+	 * @return - the hash code of token(text, start, end)
+	 */
+	private static int hash(String text, int start, int end) {
+		int hash = 0;
+
+		for (int i = start; i < end;) {
+			int c = text.codePointAt(i);
+			int lower = c < 0x80 ? ASCII_LOWER[c] : Character.toLowerCase(c);
+
+			if (Character.isBmpCodePoint(lower))
+				hash = 31 * hash + lower;
+			else
+				hash = 31 * (31 * hash + Character.highSurrogate(lower)) + Character.lowSurrogate(lower);
+
+			i += Character.charCount(c);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Checks whether a stored token equals a lower-cased token of a text.
+	 *
+	 * @param token - the stored token
+	 * @param text  - the text
+	 * @param start - the start of the token in the text
+	 * @param end   - the end of the token in the text
+	 * @return - true if token equals token(text, start, end)
+	 */
+	private static boolean matches(String token, String text, int start, int end) {
+		int k = 0;
+
+		for (int i = start; i < end;) {
+			int c = text.codePointAt(i);
+			int lower = c < 0x80 ? ASCII_LOWER[c] : Character.toLowerCase(c);
+
+			if (k >= token.length() || token.codePointAt(k) != lower)
+				return false;
+
+			k += Character.charCount(lower);
+			i += Character.charCount(c);
+		}
+
+		return k == token.length();
+	}
+}
@@ -0,0 +1,397 @@
+package comprehensive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * An index for finding the words within a small edit distance of a misspelled word,
+ * without measuring the distance to every word. It is a deletion dictionary in the style
+ * of SymSpell: each word is filed under itself and under every string made by deleting
+ * one of its characters ("variants").
+ * <p>
+ * If two words are within edit distance d, deleting at most d characters from each gives
+ * the same string. So a query deletes up to d characters of its own and looks up each
+ * result. For d = 2, the word may need two deletions, one more than it is filed under,
+ * so the query also looks up each of its deletions with any one character inserted.
+ * Every lookup is a hash probe, so a query costs the same however many words there are.
+ * <p>
+ * Variants are stored only as String hash codes, next to the id of their word. Hash codes
+ * are computed without building the variants, and a candidate found through a colliding
+ * hash code is rejected when its distance is measured.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+class FuzzyIndex {
+	/** The largest edit distance a query can ask for. */
+	static final int MAX_DISTANCE = 2;
+
+	/** Orders suggestions by distance, then lexicographically. */
+	private static final Comparator<Map.Entry<String, Integer>> NEAREST_FIRST = Map.Entry
+			.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+
+	private long[] slots;
+	private int used;
+	private String[] words;
+	private int[] freeIds;
+	private int freeCount;
+	private int nextId;
+	private int[] charCounts;
+	private char[] alphabet;
+
+	/**
+	 * Constructor for an empty FuzzyIndex.
+	 */
+	FuzzyIndex() {
+		this(0, 0);
+	}
+
+	/**
+	 * Constructor for an empty FuzzyIndex with room for some words, so that building it
+	 * in bulk doesn't repeatedly grow the table.
+	 *
+	 * @param words      - the number of words expected
+	 * @param characters - their total length
+	 */
+	FuzzyIndex(int words, int characters) {
+		long entries = (long) words + characters;
+		slots = new long[Math.max(16, Integer.highestOneBit((int) Math.min(entries * 3 / 2, 1 << 29)) * 2)];
+		used = 0;
+		this.words = new String[Math.max(16, words)];
+		freeIds = new int[16];
+		freeCount = 0;
+		nextId = 0;
+		charCounts = new int[Character.MAX_VALUE + 1];
+		alphabet = new char[0];
+	}
+
+	/**
+	 * Adds a word. The word must not already be in the index.
+	 *
+	 * @param word - the word to add
+	 */
+	void add(String word) {
+		int id;
+		if (freeCount > 0) {
+			id = freeIds[--freeCount];
+		} else {
+			if (nextId == words.length)
+				words = Arrays.copyOf(words, nextId * 2);
+			id = nextId++;
+		}
+
+		words[id] = word;
+		forEachVariant(word, hash -> insert(hash, id));
+
+		for (int i = 0; i < word.length(); i++)
+			if (charCounts[word.charAt(i)]++ == 0)
+				alphabet = null;
+	}
+
+	/**
+	 * Removes a word.
+	 *
+	 * @param word - the word to remove
+	 * @return - true if the word was in the index
+	 */
+	boolean remove(String word) {
+		int id = idOf(word);
+		if (id < 0)
+			return false;
+
+		forEachVariant(word, hash -> delete(hash, id));
+		words[id] = null;
+		if (freeCount == freeIds.length)
+			freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+		freeIds[freeCount++] = id;
+
+		for (int i = 0; i < word.length(); i++)
+			if (--charCounts[word.charAt(i)] == 0)
+				alphabet = null;
+
+		return true;
+	}
+
+	/**
+	 * Finds the words within an edit distance of a word, not counting the word itself. The
+	 * distance is the Levenshtein distance: the fewest characters inserted, deleted, or
+	 * replaced to turn one word into the other.
+	 *
+	 * @param word        - the word to find neighbors of
+	 * @param maxDistance - the largest distance to include, 1 or 2
+	 * @param limit       - the most words to return
+	 * @return - the nearest words, ordered by distance and then lexicographically
+	 * @throws IllegalArgumentException if maxDistance is not 1 or 2
+	 */
+	List<String> suggest(String word, int maxDistance, int limit) {
+		if (maxDistance < 1 || maxDistance > MAX_DISTANCE)
+			throw new IllegalArgumentException("Edit distance must be 1 or 2: " + maxDistance);
+
+		Set<String> deletions = new HashSet<String>();
+		deletions.add(word);
+		for (int d = 0; d < maxDistance; d++)
+			for (String shorter : new ArrayList<String>(deletions))
+				for (int i = 0; i < shorter.length(); i++)
+					deletions.add(shorter.substring(0, i) + shorter.substring(i + 1));
+
+		Map<String, Integer> distances = new HashMap<String, Integer>();
+		IntConsumer lookup = hash -> lookup(hash, word, maxDistance, distances);
+		char[] letters = alphabet();
+		int[] powers = new int[word.length() + 2];
+		powers[0] = 1;
+		for (int i = 1; i < powers.length; i++)
+			powers[i] = powers[i - 1] * 31;
+
+		for (String deletion : deletions) {
+			lookup.accept(deletion.hashCode());
+
+			if (maxDistance == 2) {
+				int length = deletion.length();
+				int[] prefix = prefixHashes(deletion);
+				for (int i = 0; i <= length; i++) {
+					int before = prefix[i] * powers[length - i + 1];
+					int after = prefix[length] - prefix[i] * powers[length - i];
+					for (char c : letters)
+						if (i == 0 || deletion.charAt(i - 1) != c)
+							lookup.accept(before + c * powers[length - i] + after);
+				}
+			}
+		}
+
+		List<Map.Entry<String, Integer>> nearest = new ArrayList<Map.Entry<String, Integer>>();
+		for (Map.Entry<String, Integer> entry : distances.entrySet())
+			if (entry.getValue() > 0 && entry.getValue() <= maxDistance)
+				nearest.add(entry);
+		nearest.sort(NEAREST_FIRST);
+
+		List<String> suggestions = new ArrayList<String>(Math.min(limit, nearest.size()));
+		for (int i = 0; i < limit && i < nearest.size(); i++)
+			suggestions.add(nearest.get(i).getKey());
+
+		return suggestions;
+	}
+
+	/**
+	 * Measures the distance from a word to each word filed under a variant hash code, once
+	 * per word.
+	 *
+	 * @param hash        - the variant's hash code
+	 * @param word        - the word being looked up
+	 * @param maxDistance - the largest distance of interest
+	 * @param distances   - the distance to every word measured so far
+	 */
+	private void lookup(int hash, String word, int maxDistance, Map<String, Integer> distances) {
+		int mask = slots.length - 1;
+
+		for (int slot = home(hash, mask); slots[slot] != 0; slot = (slot + 1) & mask) {
+			if ((int) (slots[slot] >>> 32) != hash)
+				continue;
+
+			String candidate = words[(int) slots[slot] - 1];
+			if (!distances.containsKey(candidate))
+				distances.put(candidate, distance(word, candidate, maxDistance));
+		}
+	}
+
+	/**
+	 * Finds the id of a word through the variant that is the word itself.
+	 *
+	 * @param word - the word
+	 * @return - its id, or -1 if it is not in the index
+	 */
+	private int idOf(String word) {
+		int hash = word.hashCode();
+		int mask = slots.length - 1;
+
+		for (int slot = home(hash, mask); slots[slot] != 0; slot = (slot + 1) & mask) {
+			int id = (int) slots[slot] - 1;
+			if ((int) (slots[slot] >>> 32) == hash && word.equals(words[id]))
+				return id;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Passes the hash code of each distinct variant of a word to an action: the word, then
+	 * the word with each character deleted. Deleting any character of a run of equal
+	 * characters gives the same variant, so only the first of a run is deleted.
+	 *
+	 * @param word   - the word
+	 * @param action - what to do with each hash code
+	 */
+	private static void forEachVariant(String word, IntConsumer action) {
+		int length = word.length();
+		int[] prefix = prefixHashes(word);
+		action.accept(prefix[length]);
+
+		int power = 1;
+		for (int i = length - 1; i >= 0; i--) {
+			if (i == 0 || word.charAt(i) != word.charAt(i - 1))
+				action.accept(prefix[i] * power + prefix[length] - prefix[i + 1] * power);
+			power *= 31;
+		}
+	}
+
+	/**
+	 * Computes the String hash code of every prefix of a word.
+	 *
+	 * @param word - the word
+	 * @return - the hash code of the first i characters at index i
+	 */
+	private static int[] prefixHashes(String word) {
+		int[] prefix = new int[word.length() + 1];
+		for (int i = 0; i < word.length(); i++)
+			prefix[i + 1] = prefix[i] * 31 + word.charAt(i);
+
+		return prefix;
+	}
+
+	/**
+	 * Computes the Levenshtein distance between two words, giving up once it is sure to
+	 * exceed a limit.
+	 *
+	 * @param a     - the first word
+	 * @param b     - the second word
+	 * @param limit - the largest distance of interest
+	 * @return - the distance, or limit + 1 if it is greater than limit
+	 */
+	private static int distance(String a, String b, int limit) {
+		if (Math.abs(a.length() - b.length()) > limit)
+			return limit + 1;
+
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++)
+			previous[j] = j;
+
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int best = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int replace = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+				current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+				best = Math.min(best, current[j]);
+			}
+
+			if (best > limit)
+				return limit + 1;
+
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		return Math.min(previous[b.length()], limit + 1);
+	}
+
+	/**
+	 * Gets the characters used by the indexed words, which are the only ones worth
+	 * inserting into a query.
+	 *
+	 * @return - the characters, rebuilt after the set of characters changes
+	 */
+	private char[] alphabet() {
+		if (alphabet == null) {
+			StringBuilder sb = new StringBuilder();
+			for (int c = 0; c < charCounts.length; c++)
+				if (charCounts[c] > 0)
+					sb.append((char) c);
+			alphabet = sb.toString().toCharArray();
+		}
+
+		return alphabet;
+	}
+
+	/**
+	 * Files a word id under a variant hash code.
+	 *
+	 * @param hash - the variant's hash code
+	 * @param id   - the word's id
+	 */
+	private void insert(int hash, int id) {
+		if (++used * 3 > slots.length * 2)
+			resize();
+
+		int mask = slots.length - 1;
+		int slot = home(hash, mask);
+		while (slots[slot] != 0)
+			slot = (slot + 1) & mask;
+
+		slots[slot] = (long) hash << 32 | (id + 1);
+	}
+
+	/**
+	 * Removes a word id from under a variant hash code, moving later entries of the same
+	 * run back so that every entry can still be found from its home slot.
+	 *
+	 * @param hash - the variant's hash code
+	 * @param id   - the word's id
+	 */
+	private void delete(int hash, int id) {
+		long entry = (long) hash << 32 | (id + 1);
+		int mask = slots.length - 1;
+		int slot = home(hash, mask);
+
+		while (slots[slot] != entry) {
+			if (slots[slot] == 0)
+				return;
+			slot = (slot + 1) & mask;
+		}
+
+		used--;
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			if (slots[next] == 0)
+				break;
+
+			int home = home((int) (slots[next] >>> 32), mask);
+			boolean stays = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+			if (stays)
+				continue;
+
+			slots[slot] = slots[next];
+			slot = next;
+		}
+
+		slots[slot] = 0;
+	}
+
+	/**
+	 * Doubles the size of the table.
+	 */
+	private void resize() {
+		long[] old = slots;
+		slots = new long[old.length * 2];
+
+		int mask = slots.length - 1;
+		for (long entry : old)
+			if (entry != 0) {
+				int slot = home((int) (entry >>> 32), mask);
+				while (slots[slot] != 0)
+					slot = (slot + 1) & mask;
+
+				slots[slot] = entry;
+			}
+	}
+
+	/**
+	 * Gets the slot an entry is placed in when there are no collisions.
+	 *
+	 * @param hashCode - the variant's hash code
+	 * @param mask     - the table size less one
+	 * @return - the slot
+	 */
+	private static int home(int hashCode, int mask) {
+		int hash = hashCode * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+}
@@ -1,15 +1,27 @@
 package comprehensive;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
-import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.regex.Pattern;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * A glossary that contains words and Term objects, which store the terms'
@@ -20,10 +32,37 @@ import java.io.IOException;
  * @author Devin Santos and Tyler Christiansen
  * @version 2025-12-3
  */
-public class Glossary {
+public class Glossary implements GlossaryView {
+	private static final int WRITE_BUFFER = 1 << 20;
+	/** The number of words whose rendered definitions are cached, unless changed. */
+	private static final int RENDER_CACHE_SIZE = 4096;
+	/** The value of savedChanges when nothing has been saved to the home file. */
+	private static final long NEVER_SAVED = -1;
+
 	private TreeMap<String, Term> glossary;
-	private HashMap<String, Integer> posCounts;
+	private int[] posCounts;
 	private int definitions;
+	/**
+	 * The number of edits that have changed the glossary since it was loaded. Edits are
+	 * made one thread at a time, but may be counted on other threads.
+	 */
+	private volatile long changes;
+	/** The file saves must go to for isDirty to count them; null if there is none. */
+	private volatile Path homeFile;
+	/**
+	 * The value of changes that the last save to homeFile captured, or NEVER_SAVED if
+	 * nothing has been saved there since it was set; raised by the saving thread.
+	 */
+	private final AtomicLong savedChanges = new AtomicLong();
+	private MutationLog log;
+	private SortedWordList words;
+	private SortedWordList[] posWords;
+	private DefinitionIndex defIndex;
+	private FuzzyIndex fuzzyIndex;
+	private GlossaryStats stats;
+	private RenderCache renderCache;
+	/** The thread background saves run on, one at a time; started by the first. */
+	private ExecutorService saver;
 
 	/**
 	 * Creates a new Glossary by reading data from a file into the appropriate data
@@ -32,38 +71,215 @@ public class Glossary {
 	 * @param filePath - the file path to read from
 	 */
 	public Glossary(String filePath) {
+		this(filePath, 1);
+	}
+
+	/**
+	 * Creates a new Glossary by reading data from a file, parsing it on the given number
+	 * of threads. The result is identical to reading the file sequentially. Binary
+	 * snapshots written by saveSnapshot are detected and loaded directly.
+	 * 
+	 * @param filePath    - the file path to read from
+	 * @param parallelism - the number of threads to parse with; 1 reads sequentially
+	 */
+	public Glossary(String filePath, int parallelism) {
+		this();
+
+		try {
+			if (GlossarySnapshot.isSnapshot(filePath))
+				readSnapshot(filePath);
+			else if (parallelism > 1)
+				readFileParallel(filePath, parallelism);
+			else
+				readFile(filePath);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		buildIndexes();
+		changes = 0;
+		homeFile = normalize(filePath);
+	}
+
+	/**
+	 * Creates an empty Glossary. Its secondary indexes are not built until buildIndexes is
+	 * called, so that bulk loads don't maintain them entry by entry.
+	 */
+	private Glossary() {
 		glossary = new TreeMap<String, Term>();
-		posCounts = new HashMap<String, Integer>();
+		posCounts = new int[Term.posOrder.length];
 		definitions = 0;
+		renderCache = new RenderCache(RENDER_CACHE_SIZE);
+	}
 
-		readFile(filePath);
+	/**
+	 * Reads a glossary file, text or snapshot, for rewriting it rather than looking words
+	 * up: no secondary indexes, statistics, or render cache are built, and edits keep
+	 * only the Terms and counts. Unlike the constructors, a file that can't be read is an
+	 * error rather than an empty glossary; only a file that doesn't exist yet reads as
+	 * empty.
+	 * 
+	 * @param filePath - the file path to read from
+	 * @return - the glossary
+	 * @throws IOException             if the file can't be read or is not a valid snapshot
+	 * @throws GlossaryFormatException if a line isn't of the form word::pos::definition
+	 */
+	static Glossary readBare(String filePath) throws IOException {
+		Glossary bare = new Glossary();
+		bare.renderCache = null;
+
+		if (Files.notExists(Paths.get(filePath)))
+			return bare;
+		if (GlossarySnapshot.isSnapshot(filePath))
+			bare.readSnapshot(filePath);
+		else
+			GlossaryLoader.load(filePath, bare::add);
+
+		return bare;
 	}
 
 	/**
-	 * Converts a file into glossary terms and definitions.
+	 * Converts a file into glossary terms and definitions. Malformed lines are reported
+	 * with their line number through a GlossaryFormatException.
 	 * 
 	 * @param filePath - the file path to read from
 	 */
 	private void readFile(String filePath) {
-		Scanner sc;
-		// Documentation:
-		// https://docs.oracle.com/javase/8/docs/api/java/util/regex/Pattern.html
-		Pattern pattern = Pattern.compile("::|\n");
+		try {
+			GlossaryLoader.load(filePath, this::add);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Converts a file into glossary terms and definitions using several threads. Each
+	 * chunk of the file is read into its own partial Glossary, and the partials are then
+	 * merged.
+	 * 
+	 * @param filePath    - the file path to read from
+	 * @param parallelism - the number of threads to parse with
+	 */
+	private void readFileParallel(String filePath, int parallelism) {
+		Glossary loaded;
 
 		try {
-			sc = new Scanner(new File(filePath));
-			// Documentation:
-			// https://docs.oracle.com/javase/8/docs/api/java/util/Scanner.html#delimiter--
-			sc.useDelimiter(pattern);
-		} catch (FileNotFoundException e) {
+			loaded = GlossaryLoader.loadParallel(filePath, parallelism, Glossary::new, partial -> partial::add,
+					Glossary::merge);
+		} catch (IOException e) {
 			e.printStackTrace();
 			return;
 		}
 
-		while (sc.hasNext())
-			add(sc.next(), sc.next(), sc.next());
+		glossary = loaded.glossary;
+		posCounts = loaded.posCounts;
+		definitions = loaded.definitions;
+	}
+
+	/**
+	 * Replaces the contents of the glossary with those of a binary snapshot.
+	 * 
+	 * @param filePath - the snapshot to read from
+	 * @throws IOException if the file can't be read or is not a valid snapshot
+	 */
+	private void readSnapshot(String filePath) throws IOException {
+		GlossarySnapshot.Contents contents = GlossarySnapshot.read(filePath);
+
+		glossary = contents.terms;
+		posCounts = contents.posCounts;
+		definitions = contents.definitions;
+	}
+
+	/**
+	 * Builds the secondary indexes from the loaded Terms in one sorted walk. From then on,
+	 * add, updateDef, and deleteDef keep them current.
+	 */
+	private void buildIndexes() {
+		words = new SortedWordList();
+		posWords = new SortedWordList[Term.posOrder.length];
+		for (int i = 0; i < posWords.length; i++)
+			posWords[i] = new SortedWordList();
+
+		defIndex = new DefinitionIndex();
+		int characters = 0;
+		for (String word : glossary.keySet())
+			characters += word.length();
+		fuzzyIndex = new FuzzyIndex(glossary.size(), characters);
+		stats = new GlossaryStats(glossary.values());
+
+		for (Map.Entry<String, Term> entry : glossary.entrySet()) {
+			Term term = entry.getValue();
+			words.append(entry.getKey());
+			fuzzyIndex.add(entry.getKey());
+			for (int i = 0; i < term.getSize(); i++) {
+				if (i == 0 || term.posOrdinalAt(i) != term.posOrdinalAt(i - 1))
+					posWords[term.posOrdinalAt(i)].append(entry.getKey());
+
+				defIndex.add(term, term.posOrdinalAt(i), term.defAt(i));
+				stats.addDefinition(term.posOrdinalAt(i), term.defAt(i));
+			}
+			stats.resized(term, 0);
+		}
+	}
+
+	/**
+	 * Merges two partial glossaries, where every entry of the first was read before any
+	 * entry of the second. The Terms of both are reused, so neither argument may be used
+	 * afterwards. Both maps are walked once in key order and the merged tree is built
+	 * directly from the sorted result. Counts are summed, less any definitions that
+	 * appeared in both.
+	 * 
+	 * @param left  - the partial glossary read first
+	 * @param right - the partial glossary read second
+	 * @return - a glossary containing the entries of both
+	 */
+	private static Glossary merge(Glossary left, Glossary right) {
+		if (right.glossary.isEmpty())
+			return left;
+		if (left.glossary.isEmpty())
+			return right;
+
+		Glossary merged = new Glossary();
+		merged.definitions = left.definitions + right.definitions;
+		for (int i = 0; i < merged.posCounts.length; i++)
+			merged.posCounts[i] = left.posCounts[i] + right.posCounts[i];
+
+		List<Map.Entry<String, Term>> entries = new ArrayList<Map.Entry<String, Term>>(
+				left.glossary.size() + right.glossary.size());
+		Iterator<Map.Entry<String, Term>> leftIt = left.glossary.entrySet().iterator();
+		Iterator<Map.Entry<String, Term>> rightIt = right.glossary.entrySet().iterator();
+		Map.Entry<String, Term> l = leftIt.next();
+		Map.Entry<String, Term> r = rightIt.next();
+
+		while (l != null && r != null) {
+			int cmp = l.getKey().compareTo(r.getKey());
+
+			if (cmp < 0) {
+				entries.add(l);
+				l = leftIt.hasNext() ? leftIt.next() : null;
+			} else if (cmp > 0) {
+				entries.add(r);
+				r = rightIt.hasNext() ? rightIt.next() : null;
+			} else {
+				int[] duplicates = l.getValue().merge(r.getValue());
+				if (duplicates != null)
+					for (int i = 0; i < duplicates.length; i++) {
+						merged.definitions -= duplicates[i];
+						merged.posCounts[i] -= duplicates[i];
+					}
+				entries.add(l);
+				l = leftIt.hasNext() ? leftIt.next() : null;
+				r = rightIt.hasNext() ? rightIt.next() : null;
+			}
+		}
 
-		sc.close();
+		for (; l != null; l = leftIt.hasNext() ? leftIt.next() : null)
+			entries.add(l);
+		for (; r != null; r = rightIt.hasNext() ? rightIt.next() : null)
+			entries.add(r);
+
+		merged.glossary = new TreeMap<String, Term>(new PresortedMap<String, Term>(entries));
+		return merged;
 	}
 
 	/**
@@ -90,44 +306,195 @@ public class Glossary {
 	 * of speech.
 	 * 
 	 * @param word - the word to add a definition for
-	 * @param pos  - the part of speech of the definition
+	 * @param pos  - the part of speech of the definition; must be one of Term.posOrder
 	 * @param def  - the definition
 	 * @return - true if the glossary was changed, otherwise false
+	 * @throws IllegalArgumentException if the part of speech is not valid
 	 */
 	public boolean add(String word, String pos, String def) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
+		if (partOfSpeech == null)
+			throw new IllegalArgumentException("Unknown part of speech: " + pos);
+
+		Term term = glossary.get(word);
 		boolean added = true;
-		if (!glossary.containsKey(word))
-			glossary.put(word, new Term(word, pos, def));
-		else
-			added = glossary.get(word).add(pos, def);
+		boolean newPos = true;
+		if (term == null) {
+			term = new Term(word, partOfSpeech, def);
+			glossary.put(word, term);
+			if (words != null)
+				words.add(word);
+			if (fuzzyIndex != null)
+				fuzzyIndex.add(word);
+		} else {
+			newPos = !term.hasPos(partOfSpeech);
+			added = term.add(partOfSpeech, def);
+		}
 
 		if (added) {
 			definitions++;
-			addPos(pos);
+			posCounts[partOfSpeech.ordinal()]++;
+			changes++;
+			invalidate(word);
+
+			if (newPos && posWords != null)
+				posWords[partOfSpeech.ordinal()].add(word);
+			if (defIndex != null)
+				defIndex.add(term, partOfSpeech.ordinal(), def);
+			if (stats != null) {
+				stats.addDefinition(partOfSpeech.ordinal(), def);
+				stats.resized(term, term.getSize() - 1);
+			}
+
+			if (log != null)
+				log.add(word, partOfSpeech.label(), def);
 		}
 		return added;
 	}
 
 	/**
-	 * Increments the count of the given part of speech.
+	 * Gets the number of parts of speech in the glossary.
 	 * 
-	 * @param pos - the part of speech to increment
+	 * @return - the amount of parts of speech
 	 */
-	private void addPos(String pos) {
-		if (!posCounts.containsKey(pos))
-			posCounts.put(pos, 0);
+	public int getPosCount() {
+		int count = 0;
+		for (int posCount : posCounts)
+			if (posCount > 0)
+				count++;
 
-		int count = posCounts.get(pos);
-		posCounts.put(pos, count + 1);
+		return count;
 	}
 
 	/**
-	 * Gets the number of parts of speech in the glossary.
+	 * Gets the number of definitions of every part of speech in one call. The array is
+	 * indexed like Term.posOrder (and by PartOfSpeech ordinal), and is a copy.
 	 * 
-	 * @return - the amount of parts of speech
+	 * @return - the definition count of each part of speech
 	 */
-	public int getPosCount() {
-		return posCounts.size();
+	public int[] getPosCounts() {
+		return posCounts.clone();
+	}
+
+	/**
+	 * Removes a word from the index of a part of speech once none of its definitions have
+	 * that part of speech.
+	 * 
+	 * @param word - the word
+	 * @param term - the word's Term after the removal
+	 * @param pos  - the part of speech of the removed definition
+	 */
+	private void unindexPos(String word, Term term, PartOfSpeech pos) {
+		if (posWords != null && !term.hasPos(pos))
+			posWords[pos.ordinal()].remove(word);
+	}
+
+	/**
+	 * Gets every word with at least one definition of the given part of speech, in
+	 * lexicographic order. Answered from an index, without visiting other words.
+	 * 
+	 * @param pos - the part of speech
+	 * @return - a Set of words; can be empty
+	 * @throws IllegalArgumentException if the part of speech is not valid
+	 */
+	public Set<String> getWordsWithPos(String pos) {
+		return getWordsWithPos(pos, null, null);
+	}
+
+	/**
+	 * Gets the words with at least one definition of the given part of speech that are
+	 * between the starting and ending words (inclusive) when ordered lexicographically.
+	 * 
+	 * @param pos   - the part of speech
+	 * @param start - the starting word, or null for no lower bound
+	 * @param end   - the ending word, or null for no upper bound
+	 * @return - a Set of words within the specified range; can be empty
+	 * @throws IllegalArgumentException if the part of speech is not valid
+	 */
+	public Set<String> getWordsWithPos(String pos, String start, String end) {
+		return posWords[ordinalOf(pos)].range(start, end);
+	}
+
+	/**
+	 * Gets the words that have definitions of every one of the given parts of speech (for
+	 * example, both noun and verb), between the starting and ending words (inclusive). The
+	 * smallest part of speech index is walked and each of its words is checked against the
+	 * other indexes by binary search.
+	 * 
+	 * @param pos   - the parts of speech that every word must have
+	 * @param start - the starting word, or null for no lower bound
+	 * @param end   - the ending word, or null for no upper bound
+	 * @return - the matching words in lexicographic order; can be empty
+	 * @throws IllegalArgumentException if a part of speech is not valid
+	 */
+	public List<String> getWordsWithAllPos(String[] pos, String start, String end) {
+		List<String> words = new ArrayList<String>();
+		if (pos.length == 0)
+			return words;
+
+		SortedWordList[] lists = new SortedWordList[pos.length];
+		int smallest = 0;
+		for (int i = 0; i < pos.length; i++) {
+			lists[i] = posWords[ordinalOf(pos[i])];
+			if (lists[i].size() < lists[smallest].size())
+				smallest = i;
+		}
+
+		candidates: for (String word : lists[smallest].range(start, end)) {
+			for (SortedWordList list : lists)
+				if (list != lists[smallest] && !list.contains(word))
+					continue candidates;
+
+			words.add(word);
+		}
+
+		return words;
+	}
+
+	/**
+	 * Finds the definitions that mention the words of a query, using an index of the words
+	 * in every definition. Case and punctuation are ignored. Results are ranked by TF-IDF:
+	 * definitions that use the query's rarer words, and use them more densely, come first.
+	 * 
+	 * @param query    - the words to look for
+	 * @param matchAll - true to only find definitions that use every word of the query,
+	 *                 false to find definitions that use any of them
+	 * @param limit    - the most definitions to return
+	 * @return - one row per definition found, best first, holding the word, the part of
+	 *         speech, and the definition; can be empty
+	 */
+	public String[][] findDefinitions(String query, boolean matchAll, int limit) {
+		return defIndex.search(query, matchAll, limit, definitions);
+	}
+
+	/**
+	 * Gets the words closest to a word that is not in the glossary, for suggesting what a
+	 * misspelled word was meant to be. Words up to two edits away are found, where an edit
+	 * inserts, deletes, or replaces one character. The lookup uses an index of the words
+	 * with one character deleted, so it does not slow down as the glossary grows.
+	 * 
+	 * @param word  - the word to find close matches for
+	 * @param limit - the most words to return
+	 * @return - the closest words, fewest edits first and then lexicographically; can be
+	 *         empty
+	 */
+	public List<String> getSuggestions(String word, int limit) {
+		return fuzzyIndex.suggest(word, FuzzyIndex.MAX_DISTANCE, limit);
+	}
+
+	/**
+	 * Gets the ordinal of a part of speech label.
+	 * 
+	 * @param pos - the part of speech label
+	 * @return - the ordinal
+	 * @throws IllegalArgumentException if the part of speech is not valid
+	 */
+	private static int ordinalOf(String pos) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
+		if (partOfSpeech == null)
+			throw new IllegalArgumentException("Unknown part of speech: " + pos);
+
+		return partOfSpeech.ordinal();
 	}
 
 	/**
@@ -164,6 +531,104 @@ public class Glossary {
 		return subMap.keySet();
 	}
 
+	/**
+	 * Gets one page of the words between two words, inclusive. Walks the map itself
+	 * rather than calling getInRange and getMerged, so a subclass that overrides those
+	 * sees a page as one call.
+	 *
+	 * @param start           - the starting word
+	 * @param end             - the ending word
+	 * @param limit           - the most words on the page
+	 * @param cursor          - the cursor of the previous page, or null for the first page
+	 * @param withDefinitions - true to include each word's entries, as getMerged returns
+	 *                        them
+	 * @return - the page; empty if start is after end
+	 * @throws IllegalArgumentException if limit is not positive or the cursor is invalid
+	 */
+	@Override
+	public GlossaryPage getPage(String start, String end, int limit, String cursor, boolean withDefinitions) {
+		if (limit <= 0)
+			throw new IllegalArgumentException("Page limit must be positive: " + limit);
+
+		String after = cursor == null ? null : GlossaryPage.decode(cursor);
+		boolean resume = after != null && after.compareTo(start) >= 0;
+		String from = resume ? after : start;
+		List<String> words = new ArrayList<String>(Math.min(limit, 64));
+
+		if (from.compareTo(end) > 0)
+			return new GlossaryPage(words, withDefinitions ? new String[0][] : null, false);
+
+		Iterator<String> it = glossary.subMap(from, !resume, end, true).keySet().iterator();
+		while (words.size() < limit && it.hasNext())
+			words.add(it.next());
+
+		String[][] definitions = null;
+		if (withDefinitions) {
+			definitions = new String[words.size()][];
+			for (int i = 0; i < definitions.length; i++)
+				definitions[i] = render(words.get(i), RenderCache.MERGED, Term::getMerged).clone();
+		}
+
+		return new GlossaryPage(words, definitions, it.hasNext());
+	}
+
+	/**
+	 * Counts the words in the glossary that sort before a word, which need not be present.
+	 * A present word's rank is its index in lexicographic order. Runs in O(log n).
+	 * 
+	 * @param word - the word
+	 * @return - the number of smaller words
+	 */
+	public int rank(String word) {
+		return words.rank(word);
+	}
+
+	/**
+	 * Gets the word with a given rank: the word at an index of the glossary in
+	 * lexicographic order. Runs in O(log n).
+	 * 
+	 * @param index - the index, from 0
+	 * @return - the word
+	 * @throws IndexOutOfBoundsException if index is negative or not less than size()
+	 */
+	public String select(int index) {
+		return words.get(index);
+	}
+
+	/**
+	 * Counts the words between two words, inclusive, when ordered lexicographically. This
+	 * is the size of getInRange(start, end), found in O(log n) without walking the range.
+	 * 
+	 * @param start - the starting word
+	 * @param end   - the ending word
+	 * @return - the number of words in the range; 0 if start is after end
+	 */
+	public int countInRange(String start, String end) {
+		return words.count(start, end);
+	}
+
+	/**
+	 * Gets the words that start with a prefix, in lexicographic order. The words sharing
+	 * a prefix are adjacent in the sorted map, so this costs one O(log n) search plus a
+	 * step per word returned, and stays current with every add and delete for free.
+	 * 
+	 * @param prefix - the start of the words to find
+	 * @param limit  - the most words to return
+	 * @return - the first limit words starting with prefix; can be empty
+	 */
+	public List<String> getCompletions(String prefix, int limit) {
+		List<String> completions = new ArrayList<String>(Math.min(limit, 16));
+
+		for (String word : glossary.tailMap(prefix, true).keySet()) {
+			if (completions.size() >= limit || !word.startsWith(prefix))
+				break;
+
+			completions.add(word);
+		}
+
+		return completions;
+	}
+
 	/**
 	 * Gets the formatted dictionary entries of a word, or null if the word is not
 	 * present in the glossary. Each definition is merged with its part of speech.
@@ -172,9 +637,9 @@ public class Glossary {
 	 * @return - the word's definitions or null
 	 */
 	public String[] getMerged(String word) {
-		Term term = glossary.get(word);
+		String[] merged = render(word, RenderCache.MERGED, Term::getMerged);
 
-		return term != null ? term.getMerged() : null;
+		return merged != null ? merged.clone() : null;
 	}
 
 	/**
@@ -185,9 +650,9 @@ public class Glossary {
 	 * @return - the word's parts of speech or null
 	 */
 	public String[] getPOS(String word) {
-		Term term = glossary.get(word);
+		String[] pos = render(word, RenderCache.POS, Term::getPOS);
 
-		return term != null ? term.getPOS() : null;
+		return pos != null ? pos.clone() : null;
 	}
 
 	/**
@@ -199,14 +664,132 @@ public class Glossary {
 	 * @return - a 2D array containing the word's definitions
 	 */
 	public String[][] getSplit(String word) {
+		String[][] split = render(word, RenderCache.SPLIT, Term::getSplit);
+		if (split == null)
+			return null;
+
+		String[][] copy = new String[split.length][];
+		for (int i = 0; i < split.length; i++)
+			copy[i] = split[i].clone();
+		return copy;
+	}
+
+	/**
+	 * Writes the formatted dictionary entries of a word straight from its Term, without
+	 * building or caching the getMerged array.
+	 * 
+	 * @param word - the word to search for
+	 * @param out  - where to write the entries
+	 * @return - false, having written nothing, if the word is not present
+	 * @throws IOException if out can't be written
+	 */
+	@Override
+	public boolean appendMerged(String word, Appendable out) throws IOException {
+		Term term = glossary.get(word);
+		if (term == null)
+			return false;
+
+		term.appendMerged(out);
+		return true;
+	}
+
+	/**
+	 * Writes a word and the parts of speech of its definitions straight from its Term,
+	 * without building or caching the getPOS array.
+	 * 
+	 * @param word - the word to search for
+	 * @param out  - where to write the parts of speech
+	 * @return - false, having written nothing, if the word is not present
+	 * @throws IOException if out can't be written
+	 */
+	@Override
+	public boolean appendPOS(String word, Appendable out) throws IOException {
+		Term term = glossary.get(word);
+		if (term == null)
+			return false;
+
+		term.appendPOS(out);
+		return true;
+	}
+
+	/**
+	 * Gets a rendering of a word's Term from the render cache, rendering and caching it on
+	 * a miss. Callers copy the result before returning it, so the cached arrays are never
+	 * changed.
+	 * 
+	 * @param word     - the word
+	 * @param kind     - which rendering, one of the RenderCache kinds
+	 * @param renderer - renders the Term
+	 * @return - the rendering, or null if the word is not present
+	 */
+	@SuppressWarnings("unchecked")
+	private <R> R render(String word, int kind, Function<Term, R> renderer) {
+		if (renderCache != null) {
+			Object cached = renderCache.get(word, kind);
+			if (cached != null)
+				return (R) cached;
+		}
+
 		Term term = glossary.get(word);
 		if (term == null)
 			return null;
-		return term.getSplit();
+
+		R rendering = renderer.apply(term);
+		if (renderCache != null)
+			renderCache.put(word, kind, rendering);
+		return rendering;
 	}
 
 	/**
-	 * Updates a specified definition of a given word.
+	 * Drops a word's cached renderings after its definitions change.
+	 * 
+	 * @param word - the word
+	 */
+	private void invalidate(String word) {
+		if (renderCache != null)
+			renderCache.invalidate(word);
+	}
+
+	/**
+	 * Sets how many words have their rendered definitions cached, for getMerged, getPOS
+	 * and getSplit. The cache starts with room for 4096 words, which suits lookups that
+	 * keep returning to a few thousand words. Changing the size empties the cache and
+	 * resets its statistics.
+	 * 
+	 * @param words - the number of words to cache, or 0 to turn the cache off
+	 * @throws IllegalArgumentException if words is negative
+	 */
+	public void setRenderCacheSize(int words) {
+		if (words < 0)
+			throw new IllegalArgumentException("Cache size must not be negative: " + words);
+
+		renderCache = words == 0 ? null : new RenderCache(words);
+	}
+
+	/**
+	 * Gets the render cache's statistics, for sizing it: the lookups answered from the
+	 * cache, the lookups that had to render, and the words evicted to make room.
+	 * 
+	 * @return - the hits, misses, and evictions, in that order; all 0 if the cache is off
+	 */
+	public long[] getRenderCacheStats() {
+		return renderCache != null ? renderCache.stats() : new long[3];
+	}
+
+	/**
+	 * Gets statistics about the definitions and words, which add, updateDef, deleteDef,
+	 * and applyBatch keep current. The same object is returned each time, and reflects
+	 * later edits.
+	 *
+	 * @return - the statistics
+	 */
+	public GlossaryStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Updates a specified definition of a given word. If the new definition was already
+	 * present, the old one is still removed and the counts are adjusted.
 	 * 
 	 * @param word   - the word to update
 	 * @param pos    - the part of speech of the new definition
@@ -215,12 +798,43 @@ public class Glossary {
 	 * @return - true if the definition was successfully updated
 	 */
 	public boolean updateDef(String word, String pos, String oldDef, String newDef) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
 		Term term = glossary.get(word);
 
-		if (term == null)
+		if (term == null || partOfSpeech == null)
 			return false;
 
-		return term.updateDef(pos, oldDef, newDef);
+		int before = term.getSize();
+		boolean updated = term.updateDef(partOfSpeech, oldDef, newDef);
+
+		if (term.getSize() < before) {
+			definitions--;
+			posCounts[partOfSpeech.ordinal()]--;
+			unindexPos(word, term, partOfSpeech);
+		}
+
+		if (updated || term.getSize() < before) {
+			changes++;
+			invalidate(word);
+		}
+
+		if (defIndex != null && (updated || term.getSize() < before)) {
+			defIndex.remove(term, partOfSpeech.ordinal(), oldDef);
+			if (updated)
+				defIndex.add(term, partOfSpeech.ordinal(), newDef);
+		}
+
+		if (stats != null && (updated || term.getSize() < before)) {
+			stats.removeDefinition(partOfSpeech.ordinal(), oldDef);
+			if (updated)
+				stats.addDefinition(partOfSpeech.ordinal(), newDef);
+			stats.resized(term, before);
+		}
+
+		if (log != null && (updated || term.getSize() < before))
+			log.update(word, partOfSpeech.label(), oldDef, newDef);
+
+		return updated;
 	}
 
 	/**
@@ -235,64 +849,446 @@ public class Glossary {
 	 *         represents whether or not the word was removed from the glossary
 	 */
 	public boolean[] deleteDef(String word, String pos, String def) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
 		Term term = glossary.get(word);
 		boolean[] returnArr = new boolean[2];
 
-		if (term == null)
+		if (term == null || partOfSpeech == null)
 			return returnArr;
 
-		returnArr[0] = term.deleteDef(pos, def);
+		returnArr[0] = term.deleteDef(partOfSpeech, def);
 
 		if (returnArr[0]) {
 			definitions--;
-			int posAmount = posCounts.get(pos) - 1;
+			posCounts[partOfSpeech.ordinal()]--;
+			changes++;
+			invalidate(word);
+			unindexPos(word, term, partOfSpeech);
+			if (defIndex != null)
+				defIndex.remove(term, partOfSpeech.ordinal(), def);
+			if (stats != null) {
+				stats.removeDefinition(partOfSpeech.ordinal(), def);
+				stats.resized(term, term.getSize() + 1);
+			}
 
-			if (posAmount > 0)
-				posCounts.put(pos, posAmount);
-			else
-				posCounts.remove(pos);
+			if (log != null)
+				log.delete(word, partOfSpeech.label(), def);
 		}
 
 		if (term.getSize() == 0) {
 			glossary.remove(word);
+			if (words != null)
+				words.remove(word);
+			if (fuzzyIndex != null)
+				fuzzyIndex.remove(word);
 			returnArr[1] = true;
 		}
 
 		return returnArr;
 	}
 
+	/**
+	 * Applies a batch of edits. The result of each edit is what the Glossary method of the
+	 * same name would have returned had the edits been made one at a time, in the order
+	 * they were queued: for a deleteDef, whether the definition was deleted.
+	 * <p>
+	 * The edits are ordered by word (keeping their order within a word), so each word is
+	 * looked up once and the tree is visited in key order. The word's Term is edited in
+	 * place, and the word list, render cache, and part of speech lists are brought up to
+	 * date once per word rather than once per edit. The definition index gathers the
+	 * changes to each posting list and rewrites each list once for the whole batch, and
+	 * the counts are updated once at the end.
+	 * <p>
+	 * Invalid adds are refused when queued, so a batch is never left half applied. With a
+	 * write-ahead log attached, the edits that changed the glossary are logged once the
+	 * batch has been applied, as one record, so a crash mid write loses the whole batch
+	 * rather than part of it. As with single edits, those that changed nothing aren't
+	 * logged, since replayed later they might succeed. If the record can't be written,
+	 * the failure is thrown unchecked and the batch stays applied but unlogged.
+	 * 
+	 * @param batch - the edits to apply
+	 * @return - for each edit, at the position it was queued at, true if it changed the
+	 *         glossary
+	 */
+	public boolean[] applyBatch(GlossaryBatch batch) {
+		boolean[] results = new boolean[batch.size()];
+		if (batch.size() == 0)
+			return results;
+
+		boolean[] effective = log != null ? new boolean[batch.size()] : null;
+		int[] order = batch.byWord();
+		DefinitionIndex.Changes changes = defIndex != null ? defIndex.changes() : null;
+		int[] posDeltas = new int[posCounts.length];
+		int[] removedOrdinals = new int[16];
+		String[] removedDefs = new String[16];
+
+		for (int from = 0, to; from < order.length; from = to) {
+			String word = batch.word(order[from]);
+			for (to = from + 1; to < order.length && batch.word(order[to]).equals(word);)
+				to++;
+
+			Term term = glossary.get(word);
+			boolean existed = term != null;
+			int sizeBefore = existed ? term.getSize() : 0;
+			int posBefore = posMask(term);
+			int removed = 0;
+			boolean changed = false;
+
+			for (int k = from; k < to; k++) {
+				int i = order[k];
+				PartOfSpeech pos = batch.part(i);
+				boolean absent = term == null || term.getSize() == 0;
+				if (pos == null || (absent && batch.op(i) != GlossaryBatch.ADD))
+					continue;
+
+				boolean added = false;
+				String gone = null;
+				switch (batch.op(i)) {
+					case GlossaryBatch.ADD -> {
+						if (term == null) {
+							term = new Term(word, pos, batch.def(i));
+							added = true;
+						} else {
+							added = term.add(pos, batch.def(i));
+						}
+						results[i] = added;
+					}
+					case GlossaryBatch.UPDATE -> {
+						int before = term.getSize();
+						results[i] = term.updateDef(pos, batch.def(i), batch.newDef(i));
+						added = results[i];
+						if (added || term.getSize() < before)
+							gone = batch.def(i);
+						if (term.getSize() < before)
+							posDeltas[pos.ordinal()]--;
+					}
+					default -> {
+						results[i] = term.deleteDef(pos, batch.def(i));
+						if (results[i]) {
+							gone = batch.def(i);
+							posDeltas[pos.ordinal()]--;
+						}
+					}
+				}
+
+				if (added) {
+					String def = batch.op(i) == GlossaryBatch.ADD ? batch.def(i) : batch.newDef(i);
+					if (batch.op(i) == GlossaryBatch.ADD)
+						posDeltas[pos.ordinal()]++;
+					if (changes != null)
+						changes.add(term, pos.ordinal(), def);
+					if (stats != null)
+						stats.addDefinition(pos.ordinal(), def);
+				}
+
+				if (gone != null) {
+					if (removed == removedDefs.length) {
+						removedOrdinals = Arrays.copyOf(removedOrdinals, removed * 2);
+						removedDefs = Arrays.copyOf(removedDefs, removed * 2);
+					}
+					removedOrdinals[removed] = pos.ordinal();
+					removedDefs[removed++] = gone;
+					if (stats != null)
+						stats.removeDefinition(pos.ordinal(), gone);
+				}
+
+				if (added || gone != null) {
+					changed = true;
+					this.changes++;
+					if (effective != null)
+						effective[i] = true;
+				}
+			}
+
+			if (!changed)
+				continue;
+
+			if (changes != null && removed > 0)
+				changes.remove(term, removedOrdinals, removedDefs, removed);
+			Arrays.fill(removedDefs, 0, removed, null);
+
+			if (term.getSize() == 0) {
+				if (existed) {
+					glossary.remove(word);
+					if (words != null)
+						words.remove(word);
+					if (fuzzyIndex != null)
+						fuzzyIndex.remove(word);
+				}
+			} else if (!existed) {
+				glossary.put(word, term);
+				if (words != null)
+					words.add(word);
+				if (fuzzyIndex != null)
+					fuzzyIndex.add(word);
+			}
+
+			int posAfter = posMask(term);
+			if (posWords != null && posAfter != posBefore)
+				for (int o = 0; o < posWords.length; o++)
+					if ((posAfter >> o & 1) > (posBefore >> o & 1))
+						posWords[o].add(word);
+					else if ((posAfter >> o & 1) < (posBefore >> o & 1))
+						posWords[o].remove(word);
+
+			if (stats != null)
+				stats.resized(term, sizeBefore);
+			invalidate(word);
+		}
+
+		if (changes != null)
+			changes.apply();
+		for (int o = 0; o < posCounts.length; o++) {
+			posCounts[o] += posDeltas[o];
+			definitions += posDeltas[o];
+		}
+
+		if (log != null)
+			logEffective(batch, effective);
+
+		return results;
+	}
+
+	/**
+	 * Logs the edits of a batch that changed the glossary, in the order they were queued,
+	 * as one record.
+	 * 
+	 * @param batch     - the batch that was applied
+	 * @param effective - for each edit, whether it changed the glossary
+	 */
+	private void logEffective(GlossaryBatch batch, boolean[] effective) {
+		GlossaryBatch logged = new GlossaryBatch();
+		for (int i = 0; i < batch.size(); i++)
+			if (effective[i])
+				switch (batch.op(i)) {
+					case GlossaryBatch.ADD -> logged.add(batch.word(i), batch.label(i), batch.def(i));
+					case GlossaryBatch.UPDATE -> logged.updateDef(batch.word(i), batch.label(i), batch.def(i),
+							batch.newDef(i));
+					default -> logged.deleteDef(batch.word(i), batch.label(i), batch.def(i));
+				}
+
+		if (logged.size() > 0)
+			log.batch(logged);
+	}
+
+	/**
+	 * Gets the parts of speech of a Term's definitions as a bit set of their ordinals.
+	 * 
+	 * @param term - the Term, or null
+	 * @return - the bit set; 0 for null
+	 */
+	private static int posMask(Term term) {
+		int mask = 0;
+		if (term != null)
+			for (int i = 0; i < term.getSize(); i++)
+				mask |= 1 << term.posOrdinalAt(i);
+
+		return mask;
+	}
+
 	/**
 	 * Saves the glossary to a given file path. Must save to a file in an existing directory.
+	 * Entries are streamed to a temporary file, which is forced to disk and renamed over the
+	 * target, so a failed save leaves any existing file intact.
 	 * 
 	 * @param filePath - the path of the file to save to
 	 * @return - true if the file was saved successfully
 	 */
 	public boolean saveToFile(String filePath) {
-		StringBuilder sb = new StringBuilder();
+		long saving = changes;
+		try {
+			AtomicFile.write(filePath, channel -> {
+				Writer writer = new BufferedWriter(new OutputStreamWriter(
+						new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER),
+						StandardCharsets.UTF_8), WRITE_BUFFER);
+				boolean first = true;
 
-		Set<String> keySet = glossary.keySet();
+				for (Term term : glossary.values()) {
+					if (!first)
+						writer.append('\n');
+					first = false;
 
-		for (String word : keySet) {
-			Term term = glossary.get(word);
+					term.appendEntries(writer);
+				}
+
+				writer.flush();
+			});
+		} catch (IOException e) {
+			return false;
+		}
 
-			String[][] data = term.getSplit();
+		markSaved(filePath, saving);
+		return true;
+	}
 
-			for (int i = 0; i < data.length; i++) {
-				sb.append(word);
-				sb.append("::");
-				sb.append(data[i][0]); // POS
-				sb.append("::");
-				sb.append(data[i][1]); // Definition
-				sb.append("\n");
-			}
+	/**
+	 * Starts saving the glossary to a given file path, in the same format as saveToFile,
+	 * on a background thread. The glossary is captured as it is now, and edits made
+	 * while the file is written don't appear in it and are not held up by it. Saves run
+	 * one at a time, in the order they were started. Synchronized, so that threads
+	 * sharing the glossary for reading can start saves at once.
+	 * 
+	 * @param filePath - the path of the file to save to
+	 * @return - the save, for following its progress and waiting for it
+	 */
+	public synchronized GlossarySave saveInBackground(String filePath) {
+		long saving = changes;
+		GlossarySave save = new GlossarySave(filePath, glossary.values(), () -> markSaved(filePath, saving));
+
+		if (saver == null)
+			saver = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "glossary-saver");
+				thread.setDaemon(true);
+				return thread;
+			});
+		saver.execute(save::run);
+
+		return save;
+	}
+
+	/**
+	 * Saves the glossary to a given file path as a binary snapshot, which loads much
+	 * faster than the text format. Must save to a file in an existing directory.
+	 * 
+	 * @param filePath - the path of the file to save to
+	 * @return - true if the snapshot was saved successfully
+	 */
+	public boolean saveSnapshot(String filePath) {
+		long saving = changes;
+		try {
+			GlossarySnapshot.write(filePath, glossary, definitions, posCounts);
+		} catch (IOException e) {
+			return false;
 		}
 
+		markSaved(filePath, saving);
+		return true;
+	}
+
+	/**
+	 * Replaces the contents of the glossary with a binary snapshot. Every cached rendering
+	 * is dropped, since any word may have changed. The glossary is left unchanged if the
+	 * snapshot can't be read.
+	 * 
+	 * @param filePath - the path of the snapshot to load
+	 * @return - true if the snapshot was loaded successfully
+	 */
+	public boolean loadSnapshot(String filePath) {
+		try {
+			readSnapshot(filePath);
+		} catch (IOException e) {
+			return false;
+		}
+
+		buildIndexes();
+		if (renderCache != null)
+			renderCache.clear();
+		changes++;
+		return true;
+	}
+
+	/**
+	 * Gets the number of edits that have changed the glossary since it was loaded. Edits
+	 * that changed nothing, such as adding a definition that was already there, are not
+	 * counted; loading a snapshot counts as one. May be called on any thread.
+	 * 
+	 * @return - the number of changes
+	 */
+	public long getChangeCount() {
+		return changes;
+	}
+
+	/**
+	 * Checks whether the glossary has changed since it was loaded or last saved to its
+	 * home file, by any of saveToFile, saveInBackground, and saveSnapshot. Saves to other
+	 * files, such as backups, don't count. A background save counts once it has
+	 * finished, as of when it started. May be called on any thread.
+	 * 
+	 * @return - true if there are changes no save to the home file has captured
+	 */
+	public boolean isDirty() {
+		return changes != savedChanges.get();
+	}
+
+	/**
+	 * Gets the number of changes made since the glossary was loaded or last saved to its
+	 * home file, as isDirty counts them. May be called on any thread.
+	 * 
+	 * @return - the number of changes, or Long.MAX_VALUE if nothing has been saved to
+	 *         the home file since it was set
+	 */
+	public long getUnsavedChanges() {
+		long saved = savedChanges.get();
+		return saved == NEVER_SAVED ? Long.MAX_VALUE : changes - saved;
+	}
+
+	/**
+	 * Sets the home file, the file whose saves isDirty counts. It starts as the file the
+	 * glossary was loaded from. Setting a different file makes the glossary dirty until
+	 * it is saved there, since nothing has been yet.
+	 * 
+	 * @param filePath - the path of the file
+	 */
+	public synchronized void setHomeFile(String filePath) {
+		Path home = normalize(filePath);
+		if (home.equals(homeFile))
+			return;
+
+		homeFile = home;
+		savedChanges.set(NEVER_SAVED);
+	}
+
+	/**
+	 * Records that a save captured the glossary as of a given number of changes, if it
+	 * was to the home file. Saves can finish out of order with the changes they
+	 * captured, so the highest is kept.
+	 * 
+	 * @param filePath - the path of the file saved to
+	 * @param saved    - the value of changes the save captured
+	 */
+	private void markSaved(String filePath, long saved) {
+		if (normalize(filePath).equals(homeFile))
+			savedChanges.accumulateAndGet(saved, Math::max);
+	}
+
+	/**
+	 * Turns a file path into the form home files are compared in.
+	 * 
+	 * @param filePath - the path
+	 * @return - the absolute path, without . or .. parts
+	 */
+	private static Path normalize(String filePath) {
+		return Paths.get(filePath).toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Attaches a write-ahead log. Edits already in the log are replayed onto this glossary
+	 * first, so it should have just been loaded from the log's base file. From then on,
+	 * every add, update, and delete is appended to the log.
+	 * 
+	 * @param log - the log to replay and append to
+	 * @throws IOException if the log can't be replayed
+	 */
+	public void attachLog(MutationLog log) throws IOException {
+		log.replay(this);
+		this.log = log;
+	}
+
+	/**
+	 * Flushes and closes the attached write-ahead log, if there is one.
+	 * 
+	 * @return - true if the log was closed successfully or there was none
+	 */
+	public boolean closeLog() {
+		if (log == null)
+			return true;
+
 		try {
-			FileWriter writer = new FileWriter(filePath);
-			writer.write(sb.substring(0, Math.max(0, sb.length() - 1)));
-			writer.close();
+			log.close();
 		} catch (IOException e) {
 			return false;
+		} finally {
+			log = null;
 		}
 
 		return true;
@@ -0,0 +1,201 @@
+package comprehensive;
+
+import java.util.Arrays;
+
+/**
+ * A list of edits to apply to a Glossary together with Glossary.applyBatch. Each edit
+ * behaves as the Glossary method of the same name would, and gets its result at the
+ * position it was queued at. A part of speech is checked when an add is queued, so an
+ * invalid add is refused before anything in the batch is applied.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class GlossaryBatch {
+	static final byte ADD = 1;
+	static final byte UPDATE = 2;
+	static final byte DELETE = 3;
+
+	private byte[] ops;
+	private String[] words;
+	private String[] labels;
+	private PartOfSpeech[] parts;
+	private String[] defs;
+	private String[] newDefs;
+	private int size;
+
+	/**
+	 * Constructor for an empty GlossaryBatch.
+	 */
+	public GlossaryBatch() {
+		ops = new byte[16];
+		words = new String[16];
+		labels = new String[16];
+		parts = new PartOfSpeech[16];
+		defs = new String[16];
+		newDefs = new String[16];
+		size = 0;
+	}
+
+	/**
+	 * Queues a definition to add, as Glossary.add.
+	 *
+	 * @param word - the word to add a definition for
+	 * @param pos  - the part of speech of the definition; must be one of Term.posOrder
+	 * @param def  - the definition
+	 * @return - the position of this edit's result
+	 * @throws IllegalArgumentException if the part of speech is not valid
+	 */
+	public int add(String word, String pos, String def) {
+		PartOfSpeech partOfSpeech = PartOfSpeech.fromLabel(pos);
+		if (partOfSpeech == null)
+			throw new IllegalArgumentException("Unknown part of speech: " + pos);
+
+		return queue(ADD, word, pos, partOfSpeech, def, null);
+	}
+
+	/**
+	 * Queues a definition to update, as Glossary.updateDef.
+	 *
+	 * @param word   - the word to update
+	 * @param pos    - the part of speech of the definition
+	 * @param oldDef - the old definition (gets removed)
+	 * @param newDef - the new definition (gets added)
+	 * @return - the position of this edit's result
+	 */
+	public int updateDef(String word, String pos, String oldDef, String newDef) {
+		return queue(UPDATE, word, pos, PartOfSpeech.fromLabel(pos), oldDef, newDef);
+	}
+
+	/**
+	 * Queues a definition to delete, as Glossary.deleteDef.
+	 *
+	 * @param word - the word corresponding with the definition to delete
+	 * @param pos  - the part of speech corresponding with the definition to delete
+	 * @param def  - the definition to delete
+	 * @return - the position of this edit's result
+	 */
+	public int deleteDef(String word, String pos, String def) {
+		return queue(DELETE, word, pos, PartOfSpeech.fromLabel(pos), def, null);
+	}
+
+	/**
+	 * Gets the number of edits queued.
+	 *
+	 * @return - the number of edits
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the positions of the edits ordered by word. Edits of the same word keep the
+	 * order they were queued in, since they don't commute.
+	 *
+	 * @return - the positions
+	 */
+	int[] byWord() {
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+		Arrays.sort(order, (a, b) -> words[a].compareTo(words[b]));
+
+		int[] positions = new int[size];
+		for (int i = 0; i < size; i++)
+			positions[i] = order[i];
+
+		return positions;
+	}
+
+	/**
+	 * Gets the kind of an edit.
+	 *
+	 * @param i - the edit's position
+	 * @return - ADD, UPDATE, or DELETE
+	 */
+	byte op(int i) {
+		return ops[i];
+	}
+
+	/**
+	 * Gets the word of an edit.
+	 *
+	 * @param i - the edit's position
+	 * @return - the word
+	 */
+	String word(int i) {
+		return words[i];
+	}
+
+	/**
+	 * Gets the part of speech of an edit as it was given.
+	 *
+	 * @param i - the edit's position
+	 * @return - the part of speech label
+	 */
+	String label(int i) {
+		return labels[i];
+	}
+
+	/**
+	 * Gets the part of speech of an edit.
+	 *
+	 * @param i - the edit's position
+	 * @return - the part of speech, or null if the label was not valid
+	 */
+	PartOfSpeech part(int i) {
+		return parts[i];
+	}
+
+	/**
+	 * Gets the definition of an edit: the one added or deleted, or the old one of an
+	 * update.
+	 *
+	 * @param i - the edit's position
+	 * @return - the definition
+	 */
+	String def(int i) {
+		return defs[i];
+	}
+
+	/**
+	 * Gets the new definition of an update.
+	 *
+	 * @param i - the edit's position
+	 * @return - the new definition, or null if the edit is not an update
+	 */
+	String newDef(int i) {
+		return newDefs[i];
+	}
+
+	/**
+	 * Appends an edit.
+	 *
+	 * @param op           - the kind of edit
+	 * @param word         - the word
+	 * @param pos          - the part of speech label
+	 * @param partOfSpeech - the part of speech, or null if the label is not valid
+	 * @param def          - the definition
+	 * @param newDef       - the new definition for updates, otherwise null
+	 * @return - the edit's position
+	 */
+	private int queue(byte op, String word, String pos, PartOfSpeech partOfSpeech, String def, String newDef) {
+		if (size == ops.length) {
+			int capacity = size * 2;
+			ops = Arrays.copyOf(ops, capacity);
+			words = Arrays.copyOf(words, capacity);
+			labels = Arrays.copyOf(labels, capacity);
+			parts = Arrays.copyOf(parts, capacity);
+			defs = Arrays.copyOf(defs, capacity);
+			newDefs = Arrays.copyOf(newDefs, capacity);
+		}
+
+		ops[size] = op;
+		words[size] = word;
+		labels[size] = pos;
+		parts[size] = partOfSpeech;
+		defs[size] = def;
+		newDefs[size] = newDef;
+		return size++;
+	}
+}
@@ -0,0 +1,44 @@
+package comprehensive;
+
+/**
+ * Thrown when a glossary file contains an entry that can't be parsed. Carries the
+ * 1-based line number of the offending entry.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class GlossaryFormatException extends IllegalArgumentException {
+	private static final long serialVersionUID = 1L;
+	private final long line;
+	private final String reason;
+
+	/**
+	 * Constructor for GlossaryFormatException.
+	 *
+	 * @param line   - the line number of the malformed entry
+	 * @param reason - what was wrong with the entry
+	 */
+	public GlossaryFormatException(long line, String reason) {
+		super("Line " + line + ": " + reason);
+		this.line = line;
+		this.reason = reason;
+	}
+
+	/**
+	 * Gets the line number of the malformed entry.
+	 *
+	 * @return - the 1-based line number
+	 */
+	public long getLine() {
+		return line;
+	}
+
+	/**
+	 * Gets the description of the problem, without the line number.
+	 *
+	 * @return - the reason the entry was rejected
+	 */
+	public String getReason() {
+		return reason;
+	}
+}
@@ -0,0 +1,333 @@
+package comprehensive;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Writes synthetic glossary files of "word::pos::definition" lines for benchmarks. The
+ * same seed and settings always give the same file, on any JVM, so results from
+ * different runs and machines are comparable.
+ * <p>
+ * Words are made of syllables, so they sort and hash like real words, and are written
+ * in no particular order. How often each word comes up follows a power law: with a skew
+ * of 0 every word is about as common, and with a skew of 1 the word of rank r is about r
+ * times rarer than the most common one, as in natural text. Definitions are sentences
+ * of common words. A share of lines can repeat a recent line exactly, as files merged
+ * from several sources do.
+ * <p>
+ * Arguments: path lines [seed] [definitions per word] [skew] [repeated fraction]
+ * [part of speech weights, such as noun=45,verb=20]
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class GlossaryGenerator {
+	private static final String CONSONANTS = "bcdfghjklmnprstvwz";
+	private static final String VOWELS = "aeiou";
+	/** Word endings; each starts with a vowel so a word's syllables can't run into it. */
+	private static final String[] SUFFIXES = { "", "", "", "", "er", "ing", "al", "ous", "ion", "ed" };
+	private static final String[] FILLER = { "a", "the", "of", "to", "and", "or", "in", "for", "that", "is", "with",
+			"by", "as", "an", "from", "which", "on", "used", "any", "one", "something", "having", "being", "person",
+			"state", "act", "quality", "process", "form", "kind", "part", "place", "made", "make", "group", "number",
+			"way", "thing", "small", "large", "water", "body", "light", "time", "work", "power", "line", "order",
+			"especially", "esp", "often", "usually", "other", "certain", "relating", "manner", "condition", "use",
+			"system", "animal", "plant", "family", "genus", "species", "tree", "structure", "substance", "material",
+			"surface", "formed", "containing", "consisting", "without", "into", "out", "up", "under", "over", "between",
+			"through", "characterized", "resembling", "pertaining", "causing", "producing", "making", "giving",
+			"taking", "moving", "turning", "holding", "expressing", "showing", "data", "value", "set",
+			"point", "side", "end", "head", "hand", "land", "color", "sound", "speech", "word", "name", "character",
+			"mind", "feeling", "action", "effect", "result", "cause", "change", "movement", "position", "direction" };
+	/** The lines a repeated line is picked from. */
+	private static final int RECENT_LINES = 1024;
+
+	private final long seed;
+	private double definitionsPerWord = 7;
+	private double skew = 1;
+	private double repeatedFraction = 0;
+	private int[] posWeights = { 18, 8, 2, 2, 45, 3, 2, 20 };
+
+	/**
+	 * Constructor for a GlossaryGenerator with English-like defaults: about seven
+	 * definitions per word, a skew of 1, no repeated lines, and mostly nouns, verbs, and
+	 * adjectives.
+	 *
+	 * @param seed - the seed that, with the settings, decides the file
+	 */
+	public GlossaryGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the number of lines per word in the vocabulary words are drawn from. With a
+	 * skew, some of the rarer words never come up, so the words in the file have somewhat
+	 * more lines each.
+	 *
+	 * @param definitionsPerWord - the lines per word, at least 1
+	 */
+	public void setDefinitionsPerWord(double definitionsPerWord) {
+		if (!(definitionsPerWord >= 1))
+			throw new IllegalArgumentException("Definitions per word must be at least 1: " + definitionsPerWord);
+		this.definitionsPerWord = definitionsPerWord;
+	}
+
+	/**
+	 * Sets how unevenly lines are spread over words.
+	 *
+	 * @param skew - the power law's exponent; 0 for even, 1 for natural text
+	 */
+	public void setSkew(double skew) {
+		if (!(skew >= 0))
+			throw new IllegalArgumentException("Skew must not be negative: " + skew);
+		this.skew = skew;
+	}
+
+	/**
+	 * Sets the share of lines that repeat a recent line exactly.
+	 *
+	 * @param repeatedFraction - the share, from 0 up to but not including 1
+	 */
+	public void setRepeatedFraction(double repeatedFraction) {
+		if (!(repeatedFraction >= 0 && repeatedFraction < 1))
+			throw new IllegalArgumentException("Repeated fraction must be in [0, 1): " + repeatedFraction);
+		this.repeatedFraction = repeatedFraction;
+	}
+
+	/**
+	 * Sets how common each part of speech is.
+	 *
+	 * @param posWeights - a weight for each of Term.posOrder, in that order; not all 0
+	 */
+	public void setPosWeights(int[] posWeights) {
+		int total = 0;
+		for (int weight : posWeights) {
+			if (weight < 0)
+				throw new IllegalArgumentException("Part of speech weights must not be negative");
+			total += weight;
+		}
+		if (posWeights.length != Term.posOrder.length || total == 0)
+			throw new IllegalArgumentException(
+					"Give a weight for each of the " + Term.posOrder.length + " parts of speech, not all 0");
+
+		this.posWeights = posWeights.clone();
+	}
+
+	/**
+	 * Parses part of speech weights such as "noun=45,verb=20". Parts of speech left out
+	 * get a weight of 0.
+	 *
+	 * @param weights - the weights
+	 * @return - a weight for each of Term.posOrder, in that order
+	 * @throws IllegalArgumentException if a part of speech or weight is not valid
+	 */
+	public static int[] parsePosWeights(String weights) {
+		int[] parsed = new int[Term.posOrder.length];
+
+		for (String pair : weights.split(",")) {
+			String[] fields = pair.split("=");
+			PartOfSpeech pos = fields.length == 2 ? PartOfSpeech.fromLabel(fields[0].trim()) : null;
+			if (pos == null)
+				throw new IllegalArgumentException("Expected pos=weight: " + pair);
+
+			parsed[pos.ordinal()] = Integer.parseInt(fields[1].trim());
+		}
+
+		return parsed;
+	}
+
+	/**
+	 * Writes a glossary file.
+	 *
+	 * @param filePath - the file to write
+	 * @param lines    - the number of lines
+	 * @throws IOException if the file can't be written
+	 */
+	public void write(String filePath, int lines) throws IOException {
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(
+				new BufferedOutputStream(new FileOutputStream(filePath), 1 << 16), StandardCharsets.UTF_8), 1 << 16)) {
+			write(out, lines);
+		}
+	}
+
+	/**
+	 * Writes glossary lines, separated by newlines.
+	 *
+	 * @param out   - where to write them
+	 * @param lines - the number of lines
+	 * @throws IOException if they can't be written
+	 */
+	public void write(Appendable out, int lines) throws IOException {
+		Random random = new Random(seed);
+		int vocabulary = (int) Math.max(1, Math.round(lines / definitionsPerWord));
+		long scramble = scrambler(vocabulary);
+		int totalWeight = 0;
+		for (int weight : posWeights)
+			totalWeight += weight;
+
+		String[] recent = new String[RECENT_LINES];
+		int distinct = 0;
+		StringBuilder line = new StringBuilder();
+
+		for (int i = 0; i < lines; i++) {
+			if (i > 0)
+				out.append('\n');
+
+			if (distinct > 0 && random.nextDouble() < repeatedFraction) {
+				out.append(recent[random.nextInt(Math.min(distinct, RECENT_LINES))]);
+				continue;
+			}
+
+			line.setLength(0);
+			int word = rank(random, vocabulary, skew);
+			appendWord(line, (int) (word * scramble % vocabulary), word);
+			line.append("::").append(Term.posOrder[pickPos(random, totalWeight)]).append("::");
+			appendDefinition(line, random);
+
+			String text = line.toString();
+			recent[distinct++ % RECENT_LINES] = text;
+			out.append(text);
+		}
+	}
+
+	/**
+	 * Picks a word's rank from a power law over a vocabulary, by inverting the
+	 * distribution's continuous approximation.
+	 *
+	 * @param random     - the source of randomness
+	 * @param vocabulary - the number of words
+	 * @param skew       - the power law's exponent
+	 * @return - the rank, from 0 for the most common word
+	 */
+	private static int rank(Random random, int vocabulary, double skew) {
+		if (skew == 0)
+			return random.nextInt(vocabulary);
+
+		double u = random.nextDouble();
+		double x;
+		if (skew == 1)
+			x = Math.exp(u * Math.log(vocabulary + 1.0));
+		else
+			x = Math.pow(u * (Math.pow(vocabulary + 1.0, 1 - skew) - 1) + 1, 1 / (1 - skew));
+
+		return Math.min(vocabulary - 1, Math.max(0, (int) x - 1));
+	}
+
+	/**
+	 * Gets a multiplier that shuffles the ranks of a vocabulary, so the most common words
+	 * aren't also the first alphabetically.
+	 *
+	 * @param vocabulary - the number of words
+	 * @return - a multiplier with no factor in common with the vocabulary size
+	 */
+	private static long scrambler(int vocabulary) {
+		long multiplier = 1_000_003;
+		while (gcd(multiplier, vocabulary) != 1)
+			multiplier += 2;
+		return multiplier;
+	}
+
+	/**
+	 * Gets the greatest common divisor of two numbers.
+	 *
+	 * @param a - a positive number
+	 * @param b - a positive number
+	 * @return - their greatest common divisor
+	 */
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/**
+	 * Appends the word with a given number. Distinct numbers give distinct words: the
+	 * number is written in base-90 syllables, and the ending starts with a vowel.
+	 *
+	 * @param line   - where to append it
+	 * @param number - the word's number
+	 * @param rank   - the word's rank, which picks its ending
+	 */
+	private static void appendWord(StringBuilder line, int number, int rank) {
+		int syllables = CONSONANTS.length() * VOWELS.length();
+		int start = line.length();
+
+		for (int digits = 0; digits < 2 || number > 0; digits++, number /= syllables) {
+			int syllable = number % syllables;
+			line.insert(start, VOWELS.charAt(syllable % VOWELS.length()));
+			line.insert(start, CONSONANTS.charAt(syllable / VOWELS.length()));
+		}
+
+		line.append(SUFFIXES[rank % SUFFIXES.length]);
+	}
+
+	/**
+	 * Picks a part of speech by weight.
+	 *
+	 * @param random      - the source of randomness
+	 * @param totalWeight - the sum of the weights
+	 * @return - the part of speech's index in Term.posOrder
+	 */
+	private int pickPos(Random random, int totalWeight) {
+		int pick = random.nextInt(totalWeight);
+		int pos = 0;
+		while (pick >= posWeights[pos])
+			pick -= posWeights[pos++];
+		return pos;
+	}
+
+	/**
+	 * Appends a sentence of 4 to 15 common words, the commoner ones more often.
+	 *
+	 * @param line   - where to append it
+	 * @param random - the source of randomness
+	 */
+	private static void appendDefinition(StringBuilder line, Random random) {
+		int words = 4 + random.nextInt(12);
+
+		for (int i = 0; i < words; i++) {
+			String word = FILLER[rank(random, FILLER.length, 1)];
+			if (i == 0) {
+				line.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+			} else {
+				line.append(' ').append(word);
+			}
+		}
+
+		line.append('.');
+	}
+
+	/**
+	 * Writes a glossary file.
+	 *
+	 * @param args - path lines [seed] [definitions per word] [skew] [repeated fraction]
+	 *             [part of speech weights]
+	 * @throws IOException if the file can't be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: GlossaryGenerator path lines [seed] [definitions per word] [skew] "
+					+ "[repeated fraction] [noun=45,verb=20,...]");
+			return;
+		}
+
+		GlossaryGenerator generator = new GlossaryGenerator(args.length > 2 ? Long.parseLong(args[2]) : 2420);
+		if (args.length > 3)
+			generator.setDefinitionsPerWord(Double.parseDouble(args[3]));
+		if (args.length > 4)
+			generator.setSkew(Double.parseDouble(args[4]));
+		if (args.length > 5)
+			generator.setRepeatedFraction(Double.parseDouble(args[5]));
+		if (args.length > 6)
+			generator.setPosWeights(parsePosWeights(args[6]));
+
+		generator.write(args[0], Integer.parseInt(args[1]));
+	}
+}
@@ -0,0 +1,408 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reads glossary files made of "word::pos::definition" lines. The file is memory-mapped
+ * and scanned for "::" and newlines directly on its bytes; only the slices that become
+ * words, parts of speech, and definitions are decoded as UTF-8. Both LF and CRLF line
+ * endings are accepted, and blank lines are skipped.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class GlossaryLoader {
+	/** The largest region mapped at once; a single mapping can't exceed 2 GB. */
+	private static final int WINDOW = 1 << 30;
+	/** Files are not split into chunks smaller than this when loading in parallel. */
+	private static final long MIN_CHUNK = 1 << 20;
+	/** Each worker thread gets this many chunks so that uneven chunks balance out. */
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final byte COLON = ':';
+	private static final byte NEWLINE = '\n';
+	private static final byte RETURN = '\r';
+
+	/**
+	 * Receives each entry as it is parsed.
+	 */
+	public interface EntryConsumer {
+		/**
+		 * Accepts one entry of the glossary file.
+		 *
+		 * @param word - the word
+		 * @param pos  - the part of speech
+		 * @param def  - the definition
+		 */
+		void accept(String word, String pos, String def);
+	}
+
+	private byte[] scratch;
+
+	private GlossaryLoader() {
+		scratch = new byte[256];
+	}
+
+	/**
+	 * Parses every entry in a file and hands it to the consumer, in file order.
+	 *
+	 * @param filePath - the file path to read from
+	 * @param consumer - receives each entry
+	 * @throws IOException              if the file can't be read
+	 * @throws GlossaryFormatException  if a line isn't of the form word::pos::definition
+	 */
+	public static void load(String filePath, EntryConsumer consumer) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			new GlossaryLoader().parse(channel, 0, channel.size(), 1, consumer);
+		}
+	}
+
+	/**
+	 * Parses a file in parallel. The file is split at newline boundaries into chunks, each
+	 * chunk is parsed on a ForkJoinPool into its own partial result, and the partials are
+	 * merged pairwise in file order until one remains. A malformed line is reported with
+	 * its line number in the whole file, and the earliest malformed chunk wins, so errors
+	 * match those of {@link #load(String, EntryConsumer)}.
+	 *
+	 * @param <T>         - the type of the partial results
+	 * @param filePath    - the file path to read from
+	 * @param parallelism - the number of worker threads
+	 * @param newPartial  - creates an empty partial result
+	 * @param consumerOf  - gives the consumer that adds entries to a partial result
+	 * @param merge       - merges two partial results; entries of the first precede those
+	 *                    of the second in the file
+	 * @return - the merged result
+	 * @throws IOException             if the file can't be read
+	 * @throws GlossaryFormatException if a line isn't of the form word::pos::definition
+	 */
+	public static <T> T loadParallel(String filePath, int parallelism, Supplier<T> newPartial,
+			Function<T, EntryConsumer> consumerOf, BinaryOperator<T> merge) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			long size = channel.size();
+			int chunks = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_THREAD, size / MIN_CHUNK));
+
+			long[] bounds = new long[chunks + 1];
+			bounds[chunks] = size;
+			for (int i = 1; i < chunks; i++)
+				bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, size * i / chunks));
+
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				return pool.invoke(new ChunkTask<T>(channel, bounds, 0, chunks, newPartial, consumerOf, merge));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Parses a contiguous run of chunks, splitting it in half until a single chunk remains.
+	 */
+	private static class ChunkTask<T> extends RecursiveTask<T> {
+		private static final long serialVersionUID = 1L;
+		private final FileChannel channel;
+		private final long[] bounds;
+		private final int first;
+		private final int last;
+		private final Supplier<T> newPartial;
+		private final Function<T, EntryConsumer> consumerOf;
+		private final BinaryOperator<T> merge;
+
+		/**
+		 * Constructor for ChunkTask.
+		 *
+		 * @param channel    - the file to read
+		 * @param bounds     - the chunk boundaries; chunk i spans bounds[i] to bounds[i + 1]
+		 * @param first      - the first chunk to parse
+		 * @param last       - one past the last chunk to parse
+		 * @param newPartial - creates an empty partial result
+		 * @param consumerOf - gives the consumer that adds entries to a partial result
+		 * @param merge      - merges two partial results in file order
+		 */
+		ChunkTask(FileChannel channel, long[] bounds, int first, int last, Supplier<T> newPartial,
+				Function<T, EntryConsumer> consumerOf, BinaryOperator<T> merge) {
+			this.channel = channel;
+			this.bounds = bounds;
+			this.first = first;
+			this.last = last;
+			this.newPartial = newPartial;
+			this.consumerOf = consumerOf;
+			this.merge = merge;
+		}
+
+		@Override
+		protected T compute() {
+			if (last - first == 1)
+				return parseChunk();
+
+			int middle = (first + last) >>> 1;
+			ChunkTask<T> right = new ChunkTask<T>(channel, bounds, middle, last, newPartial, consumerOf, merge);
+			right.fork();
+			T leftResult = new ChunkTask<T>(channel, bounds, first, middle, newPartial, consumerOf, merge).compute();
+
+			return merge.apply(leftResult, right.join());
+		}
+
+		/**
+		 * Parses a single chunk into a new partial result. Line numbers are counted from the
+		 * start of the chunk and corrected to whole-file line numbers only if parsing fails.
+		 *
+		 * @return - the partial result for this chunk
+		 */
+		private T parseChunk() {
+			T partial = newPartial.get();
+
+			try {
+				new GlossaryLoader().parse(channel, bounds[first], bounds[first + 1], 1, consumerOf.apply(partial));
+			} catch (GlossaryFormatException e) {
+				long precedingLines;
+				try {
+					precedingLines = countLines(channel, bounds[first]);
+				} catch (IOException io) {
+					throw new UncheckedIOException(io);
+				}
+				throw new GlossaryFormatException(e.getLine() + precedingLines, e.getReason());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			return partial;
+		}
+	}
+
+	/**
+	 * Finds the start of the first line beginning after an offset.
+	 *
+	 * @param channel - the file to read
+	 * @param offset  - the offset to search from
+	 * @return - the offset just past the next newline, or the file size if there is none
+	 * @throws IOException if the file can't be read
+	 */
+	private static long nextLineStart(FileChannel channel, long offset) throws IOException {
+		ByteBuffer block = ByteBuffer.allocate(8192);
+		long position = offset;
+
+		while (true) {
+			block.clear();
+			int read = channel.read(block, position);
+			if (read <= 0)
+				return channel.size();
+
+			for (int i = 0; i < read; i++)
+				if (block.get(i) == NEWLINE)
+					return position + i + 1;
+
+			position += read;
+		}
+	}
+
+	/**
+	 * Counts the newlines before an offset. Only used to report errors.
+	 *
+	 * @param channel - the file to read
+	 * @param end     - the offset to count up to
+	 * @return - the number of lines that end before the offset
+	 * @throws IOException if the file can't be read
+	 */
+	private static long countLines(FileChannel channel, long end) throws IOException {
+		ByteBuffer block = ByteBuffer.allocate(1 << 16);
+		long lines = 0;
+
+		for (long position = 0; position < end;) {
+			block.clear();
+			block.limit((int) Math.min(block.capacity(), end - position));
+			int read = channel.read(block, position);
+			if (read <= 0)
+				break;
+
+			for (int i = 0; i < read; i++)
+				if (block.get(i) == NEWLINE)
+					lines++;
+
+			position += read;
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Parses the entries between two byte offsets of a file. The start offset must be the
+	 * beginning of a line. The file is mapped in windows no larger than {@link #WINDOW},
+	 * each ending on a line boundary.
+	 *
+	 * @param channel   - the file to read
+	 * @param start     - the offset of the first byte to parse
+	 * @param end       - the offset just past the last byte to parse
+	 * @param firstLine - the line number of the line at the start offset
+	 * @param consumer  - receives each entry
+	 * @return - the line number following the last line parsed
+	 * @throws IOException if the file can't be mapped
+	 */
+	private long parse(FileChannel channel, long start, long end, long firstLine, EntryConsumer consumer)
+			throws IOException {
+		long line = firstLine;
+		long position = start;
+
+		while (position < end) {
+			int length = (int) Math.min(end - position, WINDOW);
+			boolean lastWindow = position + length == end;
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+
+			int from = 0;
+			while (from < length) {
+				int to = indexOf(buffer, NEWLINE, from, length);
+
+				if (to < 0) {
+					if (!lastWindow) {
+						if (from == 0)
+							throw new GlossaryFormatException(line, "line is longer than " + WINDOW + " bytes");
+						break;
+					}
+					to = length;
+				}
+
+				parseLine(buffer, from, to, line++, consumer);
+				from = to + 1;
+			}
+
+			position += Math.min(from, length);
+		}
+
+		return line;
+	}
+
+	/**
+	 * Splits one line into its word, part of speech, and definition. The definition is
+	 * everything after the second "::", so it may itself contain "::". Entries that the
+	 * consumer rejects with an IllegalArgumentException, such as an unknown part of
+	 * speech, are reported with the line number.
+	 *
+	 * @param buffer   - the mapped bytes
+	 * @param from     - the index of the first byte of the line
+	 * @param to       - the index of the line's terminating newline (or the end of input)
+	 * @param line     - the line number, for error messages
+	 * @param consumer - receives the entry
+	 */
+	private void parseLine(MappedByteBuffer buffer, int from, int to, long line, EntryConsumer consumer) {
+		if (to > from && buffer.get(to - 1) == RETURN)
+			to--;
+
+		if (to == from)
+			return;
+
+		int posStart = indexOfSeparator(buffer, from, to);
+		if (posStart < 0)
+			throw new GlossaryFormatException(line, "expected word::pos::definition");
+
+		int defStart = indexOfSeparator(buffer, posStart + 2, to);
+		if (defStart < 0)
+			throw new GlossaryFormatException(line, "missing definition");
+
+		if (posStart == from)
+			throw new GlossaryFormatException(line, "empty word");
+
+		if (defStart == posStart + 2)
+			throw new GlossaryFormatException(line, "empty part of speech");
+
+		String word = decode(buffer, from, posStart);
+		String pos = decodePos(buffer, posStart + 2, defStart);
+		String def = decode(buffer, defStart + 2, to);
+
+		try {
+			consumer.accept(word, pos, def);
+		} catch (GlossaryFormatException e) {
+			throw e;
+		} catch (IllegalArgumentException e) {
+			throw new GlossaryFormatException(line, e.getMessage());
+		}
+	}
+
+	/**
+	 * Decodes a part of speech, returning the shared constant from Term.posOrder when the
+	 * bytes match one so that no String is allocated for the common case.
+	 *
+	 * @param buffer - the mapped bytes
+	 * @param from   - the index of the first byte
+	 * @param to     - the index just past the last byte
+	 * @return - the part of speech
+	 */
+	private String decodePos(MappedByteBuffer buffer, int from, int to) {
+		for (String pos : Term.posOrder) {
+			if (pos.length() != to - from)
+				continue;
+
+			int i = 0;
+			while (i < pos.length() && buffer.get(from + i) == pos.charAt(i))
+				i++;
+
+			if (i == pos.length())
+				return pos;
+		}
+
+		return decode(buffer, from, to);
+	}
+
+	/**
+	 * Decodes a slice of the buffer as UTF-8.
+	 *
+	 * @param buffer - the mapped bytes
+	 * @param from   - the index of the first byte
+	 * @param to     - the index just past the last byte
+	 * @return - the decoded String
+	 */
+	private String decode(MappedByteBuffer buffer, int from, int to) {
+		int length = to - from;
+		if (length > scratch.length)
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+
+		buffer.get(from, scratch, 0, length);
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Finds the first occurrence of a byte.
+	 *
+	 * @param buffer - the mapped bytes
+	 * @param target - the byte to find
+	 * @param from   - the index to start searching at
+	 * @param limit  - the index to stop searching at
+	 * @return - the index of the byte, or -1 if it doesn't occur before the limit
+	 */
+	private static int indexOf(MappedByteBuffer buffer, byte target, int from, int limit) {
+		for (int i = from; i < limit; i++)
+			if (buffer.get(i) == target)
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * Finds the first "::" separator.
+	 *
+	 * @param buffer - the mapped bytes
+	 * @param from   - the index to start searching at
+	 * @param limit  - the index to stop searching at
+	 * @return - the index of the separator's first colon, or -1 if there is none
+	 */
+	private static int indexOfSeparator(MappedByteBuffer buffer, int from, int limit) {
+		for (int i = from; i < limit - 1; i++)
+			if (buffer.get(i) == COLON && buffer.get(i + 1) == COLON)
+				return i;
+
+		return -1;
+	}
+}
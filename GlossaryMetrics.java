@@ -0,0 +1,228 @@
+package comprehensive;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts and times the operations of a MeteredGlossary, and the bytes it loads and
+ * saves. Each operation has a LatencyHistogram, so percentiles stay accurate without
+ * keeping every sample. Can be published over JMX with register, and switched off at
+ * any time with setEnabled.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class GlossaryMetrics implements GlossaryMetricsMXBean {
+	/** The start time given out while timing is off, which record ignores. */
+	private static final long NOT_TIMED = Long.MIN_VALUE;
+
+	/**
+	 * The timed operations: loading, and each public method of Glossary.
+	 */
+	public enum Operation {
+		LOAD("load"), SIZE("size"), DEFINITIONS("definitions"), ADD("add"), GET_POS_COUNT("getPosCount"),
+		GET_POS_COUNTS("getPosCounts"), GET_WORDS_WITH_POS("getWordsWithPos"),
+		GET_WORDS_WITH_ALL_POS("getWordsWithAllPos"), FIND_DEFINITIONS("findDefinitions"),
+		GET_SUGGESTIONS("getSuggestions"), GET_FIRST("getFirst"), GET_LAST("getLast"), GET_IN_RANGE("getInRange"),
+		RANK("rank"), SELECT("select"), COUNT_IN_RANGE("countInRange"), GET_COMPLETIONS("getCompletions"),
+		GET_PAGE("getPage"), GET_MERGED("getMerged"), GET_POS("getPOS"), GET_SPLIT("getSplit"),
+		APPEND_MERGED("appendMerged"), APPEND_POS("appendPOS"), SET_RENDER_CACHE_SIZE("setRenderCacheSize"),
+		GET_RENDER_CACHE_STATS("getRenderCacheStats"), GET_STATS("getStats"), UPDATE_DEF("updateDef"),
+		DELETE_DEF("deleteDef"), APPLY_BATCH("applyBatch"), SAVE_TO_FILE("saveToFile"),
+		SAVE_IN_BACKGROUND("saveInBackground"), SAVE_SNAPSHOT("saveSnapshot"), LOAD_SNAPSHOT("loadSnapshot"),
+		GET_CHANGE_COUNT("getChangeCount"), IS_DIRTY("isDirty"), GET_UNSAVED_CHANGES("getUnsavedChanges"),
+		SET_HOME_FILE("setHomeFile"), ATTACH_LOG("attachLog"), CLOSE_LOG("closeLog");
+
+		private final String label;
+
+		private Operation(String label) {
+			this.label = label;
+		}
+
+		/**
+		 * Gets the operation's name, as the Glossary method is named.
+		 *
+		 * @return - the name
+		 */
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	/**
+	 * The calls and latencies of one operation at one moment, in microseconds.
+	 */
+	public static class OperationStats {
+		private final String name;
+		private final long count;
+		private final double meanMicros;
+		private final double p50Micros;
+		private final double p90Micros;
+		private final double p99Micros;
+		private final double p999Micros;
+		private final double maxMicros;
+
+		private OperationStats(Operation operation, LatencyHistogram histogram) {
+			name = operation.getLabel();
+			count = histogram.getCount();
+			meanMicros = histogram.getMean() / 1e3;
+			p50Micros = histogram.getPercentile(50) / 1e3;
+			p90Micros = histogram.getPercentile(90) / 1e3;
+			p99Micros = histogram.getPercentile(99) / 1e3;
+			p999Micros = histogram.getPercentile(99.9) / 1e3;
+			maxMicros = histogram.getMax() / 1e3;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getMeanMicros() {
+			return meanMicros;
+		}
+
+		public double getP50Micros() {
+			return p50Micros;
+		}
+
+		public double getP90Micros() {
+			return p90Micros;
+		}
+
+		public double getP99Micros() {
+			return p99Micros;
+		}
+
+		public double getP999Micros() {
+			return p999Micros;
+		}
+
+		public double getMaxMicros() {
+			return maxMicros;
+		}
+	}
+
+	private final LatencyHistogram[] histograms;
+	private final AtomicLong bytesRead = new AtomicLong();
+	private final AtomicLong bytesWritten = new AtomicLong();
+	private volatile boolean enabled = true;
+
+	/**
+	 * Constructor for GlossaryMetrics, with timing on.
+	 */
+	public GlossaryMetrics() {
+		histograms = new LatencyHistogram[Operation.values().length];
+		for (int i = 0; i < histograms.length; i++)
+			histograms[i] = new LatencyHistogram();
+	}
+
+	/**
+	 * Publishes these metrics to the platform MBean server, under
+	 * "comprehensive:type=GlossaryMetrics,name=" and the given name, quoted.
+	 *
+	 * @param name - a name telling this glossary apart from others in the program
+	 * @return - false if metrics were already published under that name
+	 * @throws IllegalArgumentException if the MBean server refuses them
+	 */
+	public boolean register(String name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+					new ObjectName("comprehensive:type=GlossaryMetrics,name=" + ObjectName.quote(name)));
+		} catch (InstanceAlreadyExistsException e) {
+			return false;
+		} catch (JMException e) {
+			throw new IllegalArgumentException("Can't publish metrics as " + name, e);
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public long getBytesRead() {
+		return bytesRead.get();
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+
+	@Override
+	public List<OperationStats> getOperations() {
+		List<OperationStats> operations = new ArrayList<OperationStats>();
+
+		for (Operation operation : Operation.values())
+			if (histograms[operation.ordinal()].getCount() > 0)
+				operations.add(new OperationStats(operation, histograms[operation.ordinal()]));
+
+		return operations;
+	}
+
+	@Override
+	public void reset() {
+		for (LatencyHistogram histogram : histograms)
+			histogram.reset();
+		bytesRead.set(0);
+		bytesWritten.set(0);
+	}
+
+	/**
+	 * Starts timing an operation.
+	 *
+	 * @return - the start time to pass to record
+	 */
+	long start() {
+		return enabled ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * Finishes timing an operation, unless timing was off when it started.
+	 *
+	 * @param operation - the operation
+	 * @param start     - what start returned
+	 */
+	void record(Operation operation, long start) {
+		if (start != NOT_TIMED)
+			histograms[operation.ordinal()].record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Counts bytes of a glossary file loaded, if timing is on.
+	 *
+	 * @param bytes - the bytes read
+	 */
+	void addBytesRead(long bytes) {
+		if (enabled)
+			bytesRead.addAndGet(bytes);
+	}
+
+	/**
+	 * Counts bytes of a glossary file saved, if timing is on.
+	 *
+	 * @param bytes - the bytes written
+	 */
+	void addBytesWritten(long bytes) {
+		if (enabled)
+			bytesWritten.addAndGet(bytes);
+	}
+}
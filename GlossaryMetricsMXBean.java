@@ -0,0 +1,52 @@
+package comprehensive;
+
+import java.util.List;
+
+/**
+ * The management interface of GlossaryMetrics, as JMX clients such as JConsole see it.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public interface GlossaryMetricsMXBean {
+	/**
+	 * Gets whether operations are being timed.
+	 *
+	 * @return - true if they are
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Starts or stops timing operations. While stopped, the glossary only checks this
+	 * setting on each call.
+	 *
+	 * @param enabled - true to time operations
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Gets the bytes of glossary files loaded.
+	 *
+	 * @return - the bytes read
+	 */
+	long getBytesRead();
+
+	/**
+	 * Gets the bytes of glossary files saved.
+	 *
+	 * @return - the bytes written
+	 */
+	long getBytesWritten();
+
+	/**
+	 * Gets the calls and latencies of each operation that has been called.
+	 *
+	 * @return - the operations, in the order of GlossaryMetrics.Operation
+	 */
+	List<GlossaryMetrics.OperationStats> getOperations();
+
+	/**
+	 * Forgets every call and byte counted so far.
+	 */
+	void reset();
+}
@@ -0,0 +1,87 @@
+package comprehensive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of the words in a range, as returned by GlossaryView.getPage. The cursor marks
+ * the last word of the page, so the next page starts right after it even if words were
+ * added or removed in between, and fetching a page never walks the words before it.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class GlossaryPage {
+	private final List<String> words;
+	private final String[][] definitions;
+	private final String cursor;
+
+	/**
+	 * Constructor for a GlossaryPage.
+	 *
+	 * @param words       - the words of the page, in lexicographic order
+	 * @param definitions - the merged definitions of each word, or null if not requested
+	 * @param more        - whether words of the range follow this page
+	 */
+	GlossaryPage(List<String> words, String[][] definitions, boolean more) {
+		this.words = Collections.unmodifiableList(words);
+		this.definitions = definitions;
+		this.cursor = more ? encode(words.get(words.size() - 1)) : null;
+	}
+
+	/**
+	 * Gets the words of the page.
+	 *
+	 * @return - the words, in lexicographic order; can be empty
+	 */
+	public List<String> getWords() {
+		return words;
+	}
+
+	/**
+	 * Gets the formatted dictionary entries of each word of the page, as getMerged would
+	 * return them.
+	 *
+	 * @return - the entries of the word at the same index, or null if definitions were
+	 *         not requested
+	 */
+	public String[][] getDefinitions() {
+		return definitions;
+	}
+
+	/**
+	 * Gets the cursor to pass to getPage for the next page.
+	 *
+	 * @return - the cursor, or null if this is the last page of the range
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * Turns the last word of a page into a cursor.
+	 *
+	 * @param word - the word
+	 * @return - the cursor
+	 */
+	static String encode(String word) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(word.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Gets the word a cursor was made from.
+	 *
+	 * @param cursor - the cursor
+	 * @return - the last word of the page it came from
+	 * @throws IllegalArgumentException if the cursor is not one getCursor returned
+	 */
+	static String decode(String cursor) {
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package comprehensive;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A save of a Glossary to a text file that runs in the background, started by
+ * Glossary.saveInBackground. The glossary is captured as it is when the save starts, by
+ * taking a copy of each Term that shares its arrays (Term.share), and the copies are
+ * written out on another thread while the glossary goes on being edited. A Term edited
+ * meanwhile copies its arrays first, so the file holds exactly the glossary as it was.
+ * <p>
+ * Capturing walks the words once without copying any definitions. The file is written
+ * the way Glossary.saveToFile writes it, through AtomicFile, so a failed save leaves any
+ * existing file intact.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class GlossarySave {
+	private static final int WRITE_BUFFER = 1 << 20;
+
+	private final String filePath;
+	private final Term[] terms;
+	/** Run once the file has been written, before the save counts as finished. */
+	private final Runnable saved;
+	private final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+	/** Written only by the saving thread. */
+	private volatile int written;
+
+	/**
+	 * Constructor for a GlossarySave, capturing the glossary's Terms as they are now. Must
+	 * be called on a thread that may read them; the save itself starts with run.
+	 *
+	 * @param filePath - the path of the file to save to
+	 * @param terms    - the glossary's Terms, in the order to write them
+	 * @param saved    - run on the saving thread once the file has been written, so that
+	 *                 whoever waits for the save sees its effects
+	 */
+	GlossarySave(String filePath, Collection<Term> terms, Runnable saved) {
+		this.filePath = filePath;
+		this.saved = saved;
+		this.terms = new Term[terms.size()];
+
+		int i = 0;
+		for (Term term : terms)
+			this.terms[i++] = term.share();
+	}
+
+	/**
+	 * Gets the path of the file being saved to.
+	 *
+	 * @return - the path
+	 */
+	public String getFilePath() {
+		return filePath;
+	}
+
+	/**
+	 * Gets the number of words being saved.
+	 *
+	 * @return - the number of words the glossary had when the save started
+	 */
+	public int getWords() {
+		return terms.length;
+	}
+
+	/**
+	 * Gets the number of words written so far.
+	 *
+	 * @return - the number of words written
+	 */
+	public int getWordsWritten() {
+		return written;
+	}
+
+	/**
+	 * Checks whether the save has finished, whether or not it succeeded.
+	 *
+	 * @return - true if it has finished
+	 */
+	public boolean isDone() {
+		return result.isDone();
+	}
+
+	/**
+	 * Waits for the save to finish.
+	 *
+	 * @return - true if the file was saved successfully
+	 */
+	public boolean await() {
+		return result.join();
+	}
+
+	/**
+	 * Runs an action once the save has finished, on the thread that finished it, or
+	 * straight away if it already has.
+	 *
+	 * @param action - the action
+	 */
+	void whenDone(Runnable action) {
+		result.thenRun(action);
+	}
+
+	/**
+	 * Writes the captured Terms to the file. Runs on the saving thread.
+	 */
+	void run() {
+		try {
+			AtomicFile.write(filePath, channel -> {
+				Writer writer = new BufferedWriter(new OutputStreamWriter(
+						new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER),
+						StandardCharsets.UTF_8), WRITE_BUFFER);
+
+				for (int i = 0; i < terms.length; i++) {
+					if (i > 0)
+						writer.append('\n');
+
+					terms[i].appendEntries(writer);
+					terms[i] = null;
+					written = i + 1;
+				}
+
+				writer.flush();
+			});
+		} catch (IOException | RuntimeException e) {
+			result.complete(false);
+			return;
+		}
+
+		saved.run();
+		result.complete(true);
+	}
+}
@@ -0,0 +1,158 @@
+package comprehensive;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serves one loaded glossary to other local programs over a TCP socket on the loopback
+ * address, so they don't each pay for loading it. Each connection speaks the line
+ * protocol of ScriptRunner: a client sends tab-separated commands and reads each
+ * response up to its empty line. Commands sent without waiting for their responses are
+ * run in order, and consecutive edits are applied together.
+ * <p>
+ * Each connection is served by a thread of its own, which blocks on the socket while
+ * the client is idle. The connections share the glossary through one ReadWriteLock, so
+ * lookups run side by side and edits run one at a time.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class GlossaryServer implements Closeable {
+	/** The size of each connection's input and output buffers, in chars. */
+	private static final int BUFFER = 1 << 16;
+	/** The most connections waiting to be accepted. */
+	private static final int BACKLOG = 128;
+
+	private final GlossaryView view;
+	private final ReadWriteLock lock;
+	private final ServerSocket server;
+	private final ExecutorService connections;
+	private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Constructor for a GlossaryServer, which starts listening right away. If view is
+	 * not a Glossary, such as a MappedGlossary, edits and saves are refused.
+	 *
+	 * @param view - the glossary to serve
+	 * @param port - the port to listen on, or 0 for any free port
+	 * @throws IOException if the port can't be bound
+	 */
+	public GlossaryServer(GlossaryView view, int port) throws IOException {
+		this(view, port, new ReentrantReadWriteLock());
+	}
+
+	/**
+	 * Constructor for a GlossaryServer that shares the glossary with other threads, which
+	 * starts listening right away.
+	 *
+	 * @param view - the glossary to serve
+	 * @param port - the port to listen on, or 0 for any free port
+	 * @param lock - the lock every thread using the glossary goes through
+	 * @throws IOException if the port can't be bound
+	 */
+	public GlossaryServer(GlossaryView view, int port, ReadWriteLock lock) throws IOException {
+		this.view = view;
+		this.lock = lock;
+		server = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+		connections = Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, "glossary-connection");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Gets the address the server is listening on.
+	 *
+	 * @return - the address
+	 */
+	public InetSocketAddress getAddress() {
+		return (InetSocketAddress) server.getLocalSocketAddress();
+	}
+
+	/**
+	 * Gets the lock the connections go through. Holding its write lock keeps every
+	 * connection from using the glossary, such as while closing its log.
+	 *
+	 * @return - the lock
+	 */
+	public ReadWriteLock getLock() {
+		return lock;
+	}
+
+	/**
+	 * Accepts connections until the server is closed, serving each on its own thread.
+	 *
+	 * @throws IOException if accepting a connection fails while the server is open
+	 */
+	public void serve() throws IOException {
+		while (true) {
+			Socket client;
+			try {
+				client = server.accept();
+			} catch (IOException e) {
+				if (server.isClosed())
+					return;
+				throw e;
+			}
+
+			clients.add(client);
+			connections.execute(() -> handle(client));
+		}
+	}
+
+	/**
+	 * Stops accepting connections and closes the open ones.
+	 *
+	 * @throws IOException if the listening socket can't be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		server.close();
+		connections.shutdown();
+
+		for (Socket client : clients)
+			try {
+				client.close();
+			} catch (IOException e) {
+				// Already broken; it is being closed anyway.
+			}
+	}
+
+	/**
+	 * Runs a connection's commands until the client closes it.
+	 *
+	 * @param client - the connection
+	 */
+	private void handle(Socket client) {
+		try (client) {
+			client.setTcpNoDelay(true);
+			BufferedReader in = new BufferedReader(
+					new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8), BUFFER);
+			Writer out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8),
+					BUFFER);
+
+			new ScriptRunner(view, out, lock).run(in);
+		} catch (IOException e) {
+			// The client went away, or the server was closed; there is no one to tell.
+		} finally {
+			clients.remove(client);
+		}
+	}
+}
@@ -0,0 +1,385 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the binary snapshot format of a glossary. A snapshot holds the words
+ * in sorted order so that loading one never has to sort or search:
+ *
+ * <pre>
+ * magic        4 bytes   0x89 'G' 'L' 'S'
+ * version      int
+ * words        int
+ * definitions  int
+ * posCounts    int x 8   in Term.posOrder order
+ * per word:    varint length + UTF-8 word, varint definition count,
+ *              then per definition: POS byte (index into Term.posOrder),
+ *              varint length + UTF-8 definition
+ * offsets      long x words   file offset of each word's entry     (version 2)
+ * table        long           file offset of the offsets table     (version 2)
+ * checksum     long      CRC32 of every preceding byte
+ * </pre>
+ *
+ * The leading 0x89 byte can't start a UTF-8 text file, so snapshots and text glossaries
+ * are told apart by their first bytes. The offsets table added in version 2 lets
+ * MappedGlossary binary search a snapshot in place; version 1 snapshots can still be
+ * loaded onto the heap.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class GlossarySnapshot {
+	static final byte[] MAGIC = new byte[] { (byte) 0x89, 'G', 'L', 'S' };
+	static final int VERSION = 2;
+	/** The size of the header that precedes the first entry. */
+	static final int HEADER = MAGIC.length + 4 * (3 + Term.posOrder.length);
+	/** The size of the footer that follows the offsets table: its offset and the checksum. */
+	static final int FOOTER = 16;
+	/** The first version with an offsets table, which MappedGlossary needs. */
+	static final int MAPPABLE_VERSION = 2;
+	/** The fewest bytes a word's entry takes: its length, count, and one empty definition. */
+	private static final int MIN_ENTRY = 4;
+	/** The fewest bytes a definition takes: its part of speech and an empty length. */
+	private static final int MIN_DEFINITION = 2;
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	/**
+	 * The contents of a snapshot.
+	 */
+	static class Contents {
+		TreeMap<String, Term> terms;
+		int definitions;
+		int[] posCounts;
+	}
+
+	private final FileChannel channel;
+	private final CRC32 crc;
+	private ByteBuffer buffer;
+	private long flushed;
+
+	private GlossarySnapshot(FileChannel channel) {
+		this.channel = channel;
+		crc = new CRC32();
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+
+	/**
+	 * Checks whether a file starts with the snapshot magic bytes.
+	 *
+	 * @param filePath - the file to check
+	 * @return - true if the file is a snapshot
+	 * @throws IOException if the file can't be read
+	 */
+	public static boolean isSnapshot(String filePath) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			ByteBuffer head = ByteBuffer.allocate(MAGIC.length);
+			while (head.hasRemaining() && channel.read(head) > 0)
+				;
+
+			return !head.hasRemaining() && head.flip().equals(ByteBuffer.wrap(MAGIC));
+		}
+	}
+
+	/**
+	 * Writes a snapshot of a glossary, atomically replacing any existing file.
+	 *
+	 * @param filePath    - the file to write
+	 * @param terms       - the glossary's Terms, by word
+	 * @param definitions - the glossary's definition count
+	 * @param posCounts   - the glossary's count of definitions per part of speech ordinal
+	 * @throws IOException if the file can't be written
+	 */
+	static void write(String filePath, NavigableMap<String, Term> terms, int definitions, int[] posCounts)
+			throws IOException {
+		AtomicFile.write(filePath, channel -> {
+			GlossarySnapshot out = new GlossarySnapshot(channel);
+
+			out.ensureWritable(HEADER);
+			out.buffer.put(MAGIC);
+			out.buffer.putInt(VERSION);
+			out.buffer.putInt(terms.size());
+			out.buffer.putInt(definitions);
+			for (int count : posCounts)
+				out.buffer.putInt(count);
+
+			long[] offsets = new long[terms.size()];
+			int w = 0;
+
+			for (Map.Entry<String, Term> entry : terms.entrySet()) {
+				Term term = entry.getValue();
+
+				offsets[w++] = out.flushed + out.buffer.position();
+				out.writeString(entry.getKey());
+				out.writeVarInt(term.getSize());
+
+				for (int i = 0; i < term.getSize(); i++) {
+					out.ensureWritable(1);
+					out.buffer.put((byte) term.posOrdinalAt(i));
+					out.writeString(term.defAt(i));
+				}
+			}
+
+			long table = out.flushed + out.buffer.position();
+			for (long offset : offsets) {
+				out.ensureWritable(8);
+				out.buffer.putLong(offset);
+			}
+			out.ensureWritable(8);
+			out.buffer.putLong(table);
+
+			out.flush();
+			out.buffer.putLong(out.crc.getValue());
+			out.buffer.flip();
+			while (out.buffer.hasRemaining())
+				channel.write(out.buffer);
+		});
+	}
+
+	/**
+	 * Reads a snapshot. The TreeMap is built in one pass from the already-sorted words,
+	 * and the totals are taken from the header instead of being recounted. The checksum
+	 * can only be checked at the end, so every count and length is first checked against
+	 * the bytes left in the file, and a corrupt one is an IOException rather than a huge
+	 * allocation.
+	 *
+	 * @param filePath - the file to read
+	 * @return - the snapshot's contents
+	 * @throws IOException if the file can't be read or is not a valid snapshot
+	 */
+	static Contents read(String filePath) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			GlossarySnapshot in = new GlossarySnapshot(channel);
+			in.buffer.limit(0);
+
+			in.ensureReadable(HEADER);
+			for (byte b : MAGIC)
+				if (in.buffer.get() != b)
+					throw new IOException(filePath + " is not a glossary snapshot");
+
+			int version = in.buffer.getInt();
+			if (version < 1 || version > VERSION)
+				throw new IOException("Unsupported snapshot version " + version);
+
+			Contents contents = new Contents();
+			int words = in.buffer.getInt();
+			if (words < 0 || words > in.unread() / MIN_ENTRY)
+				throw new IOException("Bad word count " + words + " in snapshot");
+			contents.definitions = in.buffer.getInt();
+			contents.posCounts = new int[Term.posOrder.length];
+			for (int i = 0; i < contents.posCounts.length; i++)
+				contents.posCounts[i] = in.buffer.getInt();
+
+			List<Map.Entry<String, Term>> entries = new ArrayList<Map.Entry<String, Term>>(words);
+			String previous = null;
+
+			for (int i = 0; i < words; i++) {
+				String word = in.readString();
+				if (previous != null && previous.compareTo(word) >= 0)
+					throw new IOException("Snapshot words are out of order at " + word);
+
+				int count = in.readVarInt();
+				if (count < 1)
+					throw new IOException("Snapshot word " + word + " has no definitions");
+				if (count > in.unread() / MIN_DEFINITION)
+					throw new IOException("Bad definition count " + count + " for snapshot word " + word);
+
+				byte[] posOrdinals = new byte[count];
+				String[] defs = new String[count];
+				for (int j = 0; j < count; j++) {
+					posOrdinals[j] = in.readPos();
+					defs[j] = in.readString();
+
+					if (j > 0 && (posOrdinals[j] < posOrdinals[j - 1]
+							|| posOrdinals[j] == posOrdinals[j - 1] && defs[j].compareTo(defs[j - 1]) <= 0))
+						throw new IOException("Snapshot definitions of " + word + " are out of order");
+				}
+
+				Term term = new Term(word, posOrdinals, defs, count);
+				entries.add(new AbstractMap.SimpleImmutableEntry<String, Term>(word, term));
+				previous = word;
+			}
+
+			if (version >= 2)
+				for (int i = 0; i <= words; i++) {
+					in.ensureReadable(8);
+					in.buffer.getLong();
+				}
+
+			in.ensureReadable(8);
+			in.crc.update(in.buffer.array(), 0, in.buffer.position());
+			long expected = in.crc.getValue();
+			if (in.buffer.getLong() != expected)
+				throw new IOException("Snapshot checksum mismatch in " + filePath);
+
+			contents.terms = new TreeMap<String, Term>(new PresortedMap<String, Term>(entries));
+			return contents;
+		}
+	}
+
+	/**
+	 * Reads a part of speech code.
+	 *
+	 * @return - the part of speech ordinal
+	 * @throws IOException if the code is out of range
+	 */
+	private byte readPos() throws IOException {
+		ensureReadable(1);
+		byte code = buffer.get();
+		if (code < 0 || code >= Term.posOrder.length)
+			throw new IOException("Bad part of speech code " + code);
+
+		return code;
+	}
+
+	/**
+	 * Writes a String as its UTF-8 byte length followed by its bytes.
+	 *
+	 * @param s - the String to write
+	 * @throws IOException if the file can't be written
+	 */
+	private void writeString(String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(bytes.length);
+		ensureWritable(bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Reads a String written by {@link #writeString(String)}.
+	 *
+	 * @return - the String
+	 * @throws IOException if the file can't be read
+	 */
+	private String readString() throws IOException {
+		int length = readVarInt();
+		if (length > unread())
+			throw new IOException("Bad string length " + length + " in snapshot");
+		ensureReadable(length);
+
+		String s = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return s;
+	}
+
+	/**
+	 * Writes a non-negative int in 7-bit groups, low group first.
+	 *
+	 * @param value - the value to write
+	 * @throws IOException if the file can't be written
+	 */
+	private void writeVarInt(int value) throws IOException {
+		ensureWritable(5);
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Reads an int written by {@link #writeVarInt(int)}.
+	 *
+	 * @return - the value, which is never negative
+	 * @throws IOException if the file can't be read or the value is malformed
+	 */
+	private int readVarInt() throws IOException {
+		int value = 0;
+
+		for (int shift = 0; shift < 35; shift += 7) {
+			ensureReadable(1);
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+
+			// A fifth group may only hold the top 3 of 31 value bits.
+			if (b >= 0 && (shift < 28 || b <= 0x07))
+				return value;
+			if (b >= 0)
+				break;
+		}
+
+		throw new IOException("Malformed length in snapshot");
+	}
+
+	/**
+	 * Makes room for the given number of bytes in the write buffer, flushing it if needed.
+	 *
+	 * @param bytes - the number of bytes about to be written
+	 * @throws IOException if the file can't be written
+	 */
+	private void ensureWritable(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes)
+			return;
+
+		flush();
+		if (buffer.remaining() < bytes)
+			buffer = ByteBuffer.allocate(bytes);
+	}
+
+	/**
+	 * Writes out the buffered bytes, adding them to the checksum.
+	 *
+	 * @throws IOException if the file can't be written
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		crc.update(buffer.array(), 0, buffer.limit());
+		flushed += buffer.limit();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Makes sure the given number of bytes can be read from the buffer, refilling it from
+	 * the file if needed. Bytes that are discarded from the buffer are added to the
+	 * checksum.
+	 *
+	 * @param bytes - the number of bytes about to be read
+	 * @throws IOException if the file ends first
+	 */
+	private void ensureReadable(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes)
+			return;
+		if (bytes > unread())
+			throw new IOException("Snapshot is truncated");
+
+		crc.update(buffer.array(), 0, buffer.position());
+		buffer.compact();
+
+		if (buffer.capacity() < bytes) {
+			ByteBuffer larger = ByteBuffer.allocate(bytes);
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+		}
+
+		while (buffer.position() < bytes)
+			if (channel.read(buffer) < 0)
+				throw new IOException("Snapshot is truncated");
+
+		buffer.flip();
+	}
+
+	/**
+	 * Gets the number of bytes of the file that haven't been read yet, counting those
+	 * already in the buffer.
+	 *
+	 * @return - the bytes left
+	 * @throws IOException if the file's size can't be read
+	 */
+	private long unread() throws IOException {
+		return channel.size() - channel.position() + buffer.remaining();
+	}
+}
@@ -0,0 +1,416 @@
+package comprehensive;
+
+import java.util.Arrays;
+
+/**
+ * Statistics about a Glossary's definitions and words, kept current by the Glossary on
+ * every add, update, and delete rather than computed by walking its Terms. Each edit
+ * adjusts a few counters, so reading any statistic costs the same however large the
+ * glossary is.
+ * <p>
+ * Lengths and definition counts are kept in power of two buckets: bucket 0 holds 0, and
+ * bucket b holds 2^(b-1) through 2^b - 1. The number of words with each exact definition
+ * count is kept too.
+ * <p>
+ * The most-defined words are kept in a min-heap of TOP_CAPACITY Terms. A word outside
+ * the heap that gains definitions takes the place of the heap's least, but a word in the
+ * heap that loses definitions can't tell which outside word should take its place. So
+ * the heap also keeps an upper bound on every word outside it: members ranking above the
+ * bound are certainly the top words, and only when too few of them are certain is the
+ * heap refilled, by walking every Term once.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class GlossaryStats {
+	/** The most words getTopWords can return. */
+	public static final int TOP_CAPACITY = 64;
+	private static final int BUCKETS = 32;
+
+	private final Iterable<Term> terms;
+
+	private final int[] lengthBuckets = new int[BUCKETS];
+	private final long[] posChars = new long[Term.posOrder.length];
+	private final int[] posDefinitions = new int[Term.posOrder.length];
+	private long chars;
+	private int definitions;
+
+	private int[] wordsBySize = new int[16];
+	private final int[] sizeBuckets = new int[BUCKETS];
+	private int maxSize;
+
+	/** A min-heap of the most-defined words, with each one's size when last placed. */
+	private final Term[] top = new Term[TOP_CAPACITY];
+	private final int[] topSizes = new int[TOP_CAPACITY];
+	private int topCount;
+	/** The best-ranked a word outside the heap can be, or boundWord null if all are in it. */
+	private int boundSize;
+	private String boundWord;
+
+	/**
+	 * Constructor for the statistics of an empty glossary.
+	 *
+	 * @param terms - the glossary's Terms, walked only to refill the most-defined words
+	 */
+	GlossaryStats(Iterable<Term> terms) {
+		this.terms = terms;
+	}
+
+	/**
+	 * Gets the mean length of the definitions, in characters.
+	 *
+	 * @return - the mean, or 0 if there are none
+	 */
+	public double getMeanDefinitionLength() {
+		return definitions == 0 ? 0 : (double) chars / definitions;
+	}
+
+	/**
+	 * Gets the mean length of the definitions of each part of speech, in characters.
+	 *
+	 * @return - the means, in the order of Term.posOrder; 0 for parts of speech with none
+	 */
+	public double[] getMeanDefinitionLengths() {
+		double[] means = new double[posChars.length];
+		for (int i = 0; i < means.length; i++)
+			means[i] = posDefinitions[i] == 0 ? 0 : (double) posChars[i] / posDefinitions[i];
+
+		return means;
+	}
+
+	/**
+	 * Gets the number of definitions in each length bucket.
+	 *
+	 * @return - the counts, up to the last bucket with any definitions
+	 */
+	public int[] getDefinitionLengthHistogram() {
+		return trim(lengthBuckets);
+	}
+
+	/**
+	 * Gets the most definitions any word has.
+	 *
+	 * @return - the most, or 0 if the glossary is empty
+	 */
+	public int getMaxDefinitionsPerWord() {
+		return maxSize;
+	}
+
+	/**
+	 * Gets the number of words in each bucket of definition counts.
+	 *
+	 * @return - the counts, up to the last bucket with any words
+	 */
+	public int[] getDefinitionsPerWordHistogram() {
+		return trim(sizeBuckets);
+	}
+
+	/**
+	 * Gets the number of words with exactly a given number of definitions.
+	 *
+	 * @param count - the number of definitions
+	 * @return - the number of words
+	 */
+	public int getWordsWithDefinitions(int count) {
+		return count > 0 && count < wordsBySize.length ? wordsBySize[count] : 0;
+	}
+
+	/**
+	 * Gets the words with the most definitions, most first, and alphabetically among
+	 * words with as many. Usually reads the heap alone; if too few of its members are
+	 * certain, refills it from every Term first. Synchronized, since refilling changes
+	 * the heap and lookups may run on several threads at once.
+	 *
+	 * @param n - the number of words, at most TOP_CAPACITY
+	 * @return - a row for each word, holding the word and its number of definitions
+	 */
+	public synchronized String[][] getTopWords(int n) {
+		n = Math.min(n, TOP_CAPACITY);
+		Term[] certain = new Term[topCount];
+		int found = 0;
+		for (int i = 0; i < topCount; i++)
+			if (boundWord == null || compare(topSizes[i], top[i].getWord(), boundSize, boundWord) > 0)
+				certain[found++] = top[i];
+
+		// Without a bound every word is in the heap, so fewer than n means fewer words.
+		if (found < n && boundWord != null) {
+			refill();
+			certain = Arrays.copyOf(top, topCount);
+			found = topCount;
+		}
+
+		int[] sizes = new int[found];
+		Integer[] order = new Integer[found];
+		for (int i = 0; i < found; i++) {
+			sizes[i] = certain[i].getSize();
+			order[i] = i;
+		}
+		Term[] sorted = certain;
+		Arrays.sort(order, (a, b) -> compare(sizes[b], sorted[b].getWord(), sizes[a], sorted[a].getWord()));
+
+		String[][] rows = new String[Math.min(n, found)][];
+		for (int i = 0; i < rows.length; i++)
+			rows[i] = new String[] { sorted[order[i]].getWord(), Integer.toString(sizes[order[i]]) };
+
+		return rows;
+	}
+
+	/**
+	 * Gets a bucket's range, such as "4-7".
+	 *
+	 * @param bucket - the bucket
+	 * @return - the lowest and highest values it holds, or the one value it holds
+	 */
+	public static String bucketLabel(int bucket) {
+		if (bucket < 2)
+			return Integer.toString(bucket);
+
+		long lowest = 1L << (bucket - 1);
+		return lowest + "-" + (2 * lowest - 1);
+	}
+
+	/**
+	 * Counts a definition that was added.
+	 *
+	 * @param ordinal - the ordinal of its part of speech
+	 * @param def     - the definition
+	 */
+	void addDefinition(int ordinal, String def) {
+		lengthBuckets[bucketOf(def.length())]++;
+		posChars[ordinal] += def.length();
+		posDefinitions[ordinal]++;
+		chars += def.length();
+		definitions++;
+	}
+
+	/**
+	 * Uncounts a definition that was removed.
+	 *
+	 * @param ordinal - the ordinal of its part of speech
+	 * @param def     - the definition
+	 */
+	void removeDefinition(int ordinal, String def) {
+		lengthBuckets[bucketOf(def.length())]--;
+		posChars[ordinal] -= def.length();
+		posDefinitions[ordinal]--;
+		chars -= def.length();
+		definitions--;
+	}
+
+	/**
+	 * Moves a word to its new number of definitions. Called once its Term has been
+	 * edited, including when it was just created or its last definition deleted.
+	 *
+	 * @param term    - the word's Term
+	 * @param oldSize - the number of definitions it had before; 0 if it is new
+	 */
+	void resized(Term term, int oldSize) {
+		int newSize = term.getSize();
+		if (newSize == oldSize)
+			return;
+
+		if (oldSize > 0) {
+			wordsBySize[oldSize]--;
+			sizeBuckets[bucketOf(oldSize)]--;
+		}
+		if (newSize > 0) {
+			if (newSize >= wordsBySize.length)
+				wordsBySize = Arrays.copyOf(wordsBySize, Math.max(newSize + 1, wordsBySize.length * 2));
+			wordsBySize[newSize]++;
+			sizeBuckets[bucketOf(newSize)]++;
+		}
+
+		if (newSize > maxSize)
+			maxSize = newSize;
+		while (maxSize > 0 && wordsBySize[maxSize] == 0)
+			maxSize--;
+
+		// A full heap's members all ranked at or above its least when placed.
+		int index = topCount == TOP_CAPACITY && oldSize < topSizes[0] ? -1 : indexOf(term);
+		if (index >= 0) {
+			topSizes[index] = newSize;
+			if (newSize == 0) {
+				removeAt(index);
+			} else if (newSize < oldSize) {
+				siftUp(index);
+			} else {
+				siftDown(index);
+			}
+		} else if (newSize > 0) {
+			offer(term, newSize);
+		}
+	}
+
+	/**
+	 * Empties the heap and puts the most-defined words of every Term in it, leaving the
+	 * bound at the best of the rest.
+	 */
+	private void refill() {
+		Arrays.fill(top, null);
+		topCount = 0;
+		boundWord = null;
+
+		for (Term term : terms)
+			offer(term, term.getSize());
+	}
+
+	/**
+	 * Puts a word outside the heap in it, if it ranks above the heap's least or there is
+	 * room. Whichever word is left out raises the bound.
+	 *
+	 * @param term - the word's Term
+	 * @param size - its number of definitions
+	 */
+	private void offer(Term term, int size) {
+		if (topCount < TOP_CAPACITY) {
+			top[topCount] = term;
+			topSizes[topCount] = size;
+			siftUp(topCount++);
+			return;
+		}
+
+		Term left = term;
+		int leftSize = size;
+		if (compare(size, term.getWord(), topSizes[0], top[0].getWord()) > 0) {
+			left = top[0];
+			leftSize = topSizes[0];
+			top[0] = term;
+			topSizes[0] = size;
+			siftDown(0);
+		}
+
+		if (boundWord == null || compare(leftSize, left.getWord(), boundSize, boundWord) > 0) {
+			boundSize = leftSize;
+			boundWord = left.getWord();
+		}
+	}
+
+	/**
+	 * Finds a Term in the heap.
+	 *
+	 * @param term - the Term
+	 * @return - its index, or -1 if it is not in the heap
+	 */
+	private int indexOf(Term term) {
+		for (int i = 0; i < topCount; i++)
+			if (top[i] == term)
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * Removes a member from the heap.
+	 *
+	 * @param index - its index
+	 */
+	private void removeAt(int index) {
+		topCount--;
+		top[index] = top[topCount];
+		topSizes[index] = topSizes[topCount];
+		top[topCount] = null;
+
+		if (index < topCount) {
+			siftUp(index);
+			siftDown(index);
+		}
+	}
+
+	/**
+	 * Moves a member towards the root while it ranks below its parent.
+	 *
+	 * @param index - its index
+	 */
+	private void siftUp(int index) {
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (rankAt(index, parent) >= 0)
+				return;
+			swap(index, parent);
+			index = parent;
+		}
+	}
+
+	/**
+	 * Moves a member away from the root while it ranks above either child.
+	 *
+	 * @param index - its index
+	 */
+	private void siftDown(int index) {
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= topCount)
+				return;
+			if (child + 1 < topCount && rankAt(child + 1, child) < 0)
+				child++;
+			if (rankAt(index, child) <= 0)
+				return;
+			swap(index, child);
+			index = child;
+		}
+	}
+
+	/**
+	 * Compares the ranks of two members.
+	 *
+	 * @param a - the index of one
+	 * @param b - the index of the other
+	 * @return - a positive number if the first ranks above the second, negative if below
+	 */
+	private int rankAt(int a, int b) {
+		return compare(topSizes[a], top[a].getWord(), topSizes[b], top[b].getWord());
+	}
+
+	/**
+	 * Swaps two members.
+	 *
+	 * @param a - the index of one
+	 * @param b - the index of the other
+	 */
+	private void swap(int a, int b) {
+		Term term = top[a];
+		top[a] = top[b];
+		top[b] = term;
+		int size = topSizes[a];
+		topSizes[a] = topSizes[b];
+		topSizes[b] = size;
+	}
+
+	/**
+	 * Compares the ranks of two words: more definitions rank higher, then earlier words.
+	 *
+	 * @param sizeA - the number of definitions of one
+	 * @param wordA - the word
+	 * @param sizeB - the number of definitions of the other
+	 * @param wordB - the word
+	 * @return - a positive number if the first ranks above the second, negative if below
+	 */
+	private static int compare(int sizeA, String wordA, int sizeB, String wordB) {
+		int bySize = Integer.compare(sizeA, sizeB);
+		return bySize != 0 ? bySize : wordB.compareTo(wordA);
+	}
+
+	/**
+	 * Gets the bucket of a length or count.
+	 *
+	 * @param value - the value, not negative
+	 * @return - its bucket
+	 */
+	private static int bucketOf(int value) {
+		return 32 - Integer.numberOfLeadingZeros(value);
+	}
+
+	/**
+	 * Copies a histogram up to its last non-empty bucket.
+	 *
+	 * @param buckets - the histogram
+	 * @return - the copy
+	 */
+	private static int[] trim(int[] buckets) {
+		int length = buckets.length;
+		while (length > 0 && buckets[length - 1] == 0)
+			length--;
+
+		return Arrays.copyOf(buckets, length);
+	}
+}
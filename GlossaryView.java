@@ -0,0 +1,201 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The read-only operations of a glossary. Glossary implements them over Terms on the
+ * heap, and MappedGlossary over a memory-mapped snapshot file, so code that only looks
+ * words up can use either.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public interface GlossaryView {
+	/**
+	 * Gets the number of Terms in the glossary.
+	 *
+	 * @return - the size of the glossary
+	 */
+	int size();
+
+	/**
+	 * Gets the number of definitions contained within the glossary.
+	 *
+	 * @return - the number of definitions
+	 */
+	int definitions();
+
+	/**
+	 * Gets the number of parts of speech in the glossary.
+	 *
+	 * @return - the amount of parts of speech
+	 */
+	int getPosCount();
+
+	/**
+	 * Gets the number of definitions of every part of speech, indexed like Term.posOrder.
+	 *
+	 * @return - a copy of the definition count of each part of speech
+	 */
+	int[] getPosCounts();
+
+	/**
+	 * Gets the first word in the glossary when ordered lexicographically, or an
+	 * empty string if the glossary is empty.
+	 *
+	 * @return - the first word or an empty string
+	 */
+	String getFirst();
+
+	/**
+	 * Gets the last word in the glossary when ordered lexicographically, or an
+	 * empty string if the glossary is empty.
+	 *
+	 * @return - the last word or an empty string
+	 */
+	String getLast();
+
+	/**
+	 * Gets all words in the glossary between two words, inclusive, when ordered
+	 * lexicographically.
+	 *
+	 * @param start - the starting word
+	 * @param end   - the ending word
+	 * @return - a Set of words within the specified range; can be empty
+	 */
+	Set<String> getInRange(String start, String end);
+
+	/**
+	 * Gets one page of the words between two words, inclusive, when ordered
+	 * lexicographically. Pass the cursor of each page to get the next one. The work done
+	 * is proportional to the page, not to the range or to the pages before it.
+	 * <p>
+	 * This walks getInRange from the cursor, so it suits implementations whose range
+	 * views are lazy; others should override it.
+	 *
+	 * @param start           - the starting word
+	 * @param end             - the ending word
+	 * @param limit           - the most words on the page
+	 * @param cursor          - the cursor of the previous page, or null for the first page
+	 * @param withDefinitions - true to include each word's entries, as getMerged returns
+	 *                        them
+	 * @return - the page; empty if start is after end
+	 * @throws IllegalArgumentException if limit is not positive or the cursor is invalid
+	 */
+	default GlossaryPage getPage(String start, String end, int limit, String cursor, boolean withDefinitions) {
+		if (limit <= 0)
+			throw new IllegalArgumentException("Page limit must be positive: " + limit);
+
+		String after = cursor == null ? null : GlossaryPage.decode(cursor);
+		String from = after != null && after.compareTo(start) > 0 ? after : start;
+		List<String> words = new ArrayList<String>(Math.min(limit, 64));
+
+		if (from.compareTo(end) > 0)
+			return new GlossaryPage(words, withDefinitions ? new String[0][] : null, false);
+
+		Iterator<String> it = getInRange(from, end).iterator();
+		while (words.size() < limit && it.hasNext()) {
+			String word = it.next();
+			if (!word.equals(after))
+				words.add(word);
+		}
+
+		String[][] definitions = null;
+		if (withDefinitions) {
+			definitions = new String[words.size()][];
+			for (int i = 0; i < definitions.length; i++)
+				definitions[i] = getMerged(words.get(i));
+		}
+
+		return new GlossaryPage(words, definitions, it.hasNext());
+	}
+
+	/**
+	 * Gets the words that start with a prefix, in lexicographic order.
+	 *
+	 * @param prefix - the start of the words to find
+	 * @param limit  - the most words to return
+	 * @return - the first limit words starting with prefix; can be empty
+	 */
+	List<String> getCompletions(String prefix, int limit);
+
+	/**
+	 * Gets the formatted dictionary entries of a word, or null if the word is not
+	 * present in the glossary.
+	 *
+	 * @param word - the word to search for
+	 * @return - the word's definitions or null
+	 */
+	String[] getMerged(String word);
+
+	/**
+	 * Gets the parts of speech of a given word's definitions, or null if the word
+	 * is not present in the glossary.
+	 *
+	 * @param word - the word to search for
+	 * @return - the word's parts of speech or null
+	 */
+	String[] getPOS(String word);
+
+	/**
+	 * Gets the definitions of a word as (part of speech, definition) rows, or null
+	 * if the word is not present in the glossary.
+	 *
+	 * @param word - the word to search for
+	 * @return - a 2D array containing the word's definitions
+	 */
+	String[][] getSplit(String word);
+
+	/**
+	 * Writes the formatted dictionary entries of a word to an Appendable, separated by
+	 * newlines with no trailing newline, as getMerged would return them. Views that hold
+	 * Terms write them without building the array.
+	 *
+	 * @param word - the word to search for
+	 * @param out  - where to write the entries; a CharBuffer, a Utf8Sink over a
+	 *             ByteBuffer, or any Writer
+	 * @return - false, having written nothing, if the word is not present
+	 * @throws IOException if out can't be written
+	 */
+	default boolean appendMerged(String word, Appendable out) throws IOException {
+		return appendLines(getMerged(word), out);
+	}
+
+	/**
+	 * Writes a word and the parts of speech of its definitions to an Appendable, separated
+	 * by newlines with no trailing newline, as getPOS would return them.
+	 *
+	 * @param word - the word to search for
+	 * @param out  - where to write the parts of speech
+	 * @return - false, having written nothing, if the word is not present
+	 * @throws IOException if out can't be written
+	 */
+	default boolean appendPOS(String word, Appendable out) throws IOException {
+		return appendLines(getPOS(word), out);
+	}
+
+	/**
+	 * Writes lines separated by newlines.
+	 *
+	 * @param lines - the lines, or null
+	 * @param out   - where to write them
+	 * @return - false if lines is null
+	 * @throws IOException if out can't be written
+	 */
+	private static boolean appendLines(String[] lines, Appendable out) throws IOException {
+		if (lines == null)
+			return false;
+
+		for (int i = 0; i < lines.length; i++) {
+			if (i > 0)
+				out.append('\n');
+			out.append(lines[i]);
+		}
+
+		return true;
+	}
+}
@@ -1,7 +1,19 @@
 package comprehensive;
 
-import java.util.Scanner;
-import java.util.Set;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Console interface for glossary. Prints glossary data and provides interface
@@ -11,30 +23,201 @@ import java.util.Set;
  * @version 2025-12-3
  */
 public class Interface {
+	/** Once a log segment reaches this size it is folded into the base file. */
+	private static final long LOG_COMPACT_BYTES = 64L << 20;
+	/** Logged edits are forced to disk together at this interval. */
+	private static final long LOG_SYNC_MILLIS = 100;
+	/** The most words suggested when completing a word. */
+	private static final int COMPLETIONS = 10;
+	/** The most words shown at once for a range. */
+	private static final int RANGE_PAGE = 50;
+	/** The most definitions shown for a definition search. */
+	private static final int SEARCH_RESULTS = 10;
+	/** The most words suggested for a word that was not found. */
+	private static final int SUGGESTIONS = 5;
+	/** The most-defined words shown with the statistics. */
+	private static final int TOP_WORDS = 10;
+	/** The size of the console output buffer, in chars. */
+	private static final int OUTPUT_BUFFER = 1 << 16;
+	/** The name the glossary's metrics are published over JMX under. */
+	private static final String METRICS_NAME = "console";
+
+	GlossaryView view;
+	/** The editable glossary behind view, or null if view is read-only. */
 	Glossary glossary;
+	/**
+	 * The lock edits hold for writing, so that an Autosaver or the connections of a
+	 * GlossaryServer can read the glossary from other threads meanwhile.
+	 */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	/** Saves the glossary as it is edited, or null if autosave is off. */
+	private Autosaver autosaver;
+	/** The saves started whose results haven't been reported, oldest first. */
+	private final ArrayDeque<GlossarySave> saves = new ArrayDeque<GlossarySave>();
+	/**
+	 * The console. Output is buffered and written when the user is next prompted, and
+	 * entries are rendered straight into the buffer rather than through Strings.
+	 */
+	private final PrintWriter out = new PrintWriter(
+			new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out)), OUTPUT_BUFFER));
+	/**
+	 * The console input. One reader is kept for the whole run, so lines it has read ahead
+	 * of a prompt, as happens when input is piped, are there for the next one.
+	 */
+	private final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
 
 	private final String[] commands = new String[] { "Get metadata", "Get words in range", "Get word", "Get first word",
 			"Get last word", "Get parts of speech", "Update definition", "Delete definition", "Add new definition",
-			"Save dictionary", "Quit" };
+			"Save dictionary", "Complete word", "Search definitions", "Get metrics", "Get statistics", "Quit" };
 
 	/**
-	 * Constructor for Interface. Initializes instance of Glossary.
+	 * Constructor for Interface. Initializes instance of Glossary, reading the file on
+	 * every available processor, with metrics on.
 	 * 
 	 * @param filePath - file
 	 */
 	public Interface(String filePath) {
-		glossary = new Glossary(filePath);
+		this(filePath, true);
+	}
+
+	/**
+	 * Constructor for Interface. Initializes instance of Glossary, reading the file on
+	 * every available processor. With metrics on, every call to the glossary is timed and
+	 * the metrics are published over JMX; with them off, the glossary has no
+	 * instrumentation at all.
+	 * 
+	 * @param filePath - file
+	 * @param metered  - true to keep metrics
+	 */
+	public Interface(String filePath, boolean metered) {
+		this(metered ? MeteredGlossary.load(filePath, Runtime.getRuntime().availableProcessors())
+				: new Glossary(filePath, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Constructor for Interface over an already opened glossary. If it is not a Glossary,
+	 * such as a MappedGlossary, the editing and saving options are refused. If it is a
+	 * MeteredGlossary, its metrics are published over JMX.
+	 * 
+	 * @param view - the glossary to browse
+	 */
+	public Interface(GlossaryView view) {
+		this.view = view;
+		glossary = view instanceof Glossary ? (Glossary) view : null;
+
+		if (view instanceof MeteredGlossary)
+			((MeteredGlossary) view).getMetrics().register(METRICS_NAME);
+	}
+
+	/**
+	 * Constructor for Interface that keeps a write-ahead log of every edit, with metrics
+	 * on. Edits left in the log by a previous run are replayed on top of the file.
+	 * 
+	 * @param filePath - file, which the log is compacted into
+	 * @param logPath  - write-ahead log
+	 * @throws IOException if the log can't be opened or replayed
+	 */
+	public Interface(String filePath, String logPath) throws IOException {
+		this(filePath, logPath, true);
+	}
+
+	/**
+	 * Constructor for Interface that keeps a write-ahead log of every edit. Edits left in
+	 * the log by a previous run are replayed on top of the file.
+	 * 
+	 * @param filePath - file, which the log is compacted into
+	 * @param logPath  - write-ahead log
+	 * @param metered  - true to keep metrics
+	 * @throws IOException if the log can't be opened or replayed
+	 */
+	public Interface(String filePath, String logPath, boolean metered) throws IOException {
+		this(filePath, metered);
+		glossary.attachLog(new MutationLog(logPath, filePath, LOG_COMPACT_BYTES, LOG_SYNC_MILLIS));
+	}
+
+	/**
+	 * Starts saving the glossary automatically, as Autosaver describes, once edits
+	 * have stopped for a quiet period or enough of them have built up. Whatever has
+	 * not been saved yet is saved on quitting. Menu edits, scripts, and connections all
+	 * go through the same lock as the autosaves.
+	 * 
+	 * @param filePath    - the file to save to
+	 * @param quietMillis - how long edits must stop before saving
+	 * @param maxChanges  - the changes after which the glossary is saved even if edits go on
+	 * @throws IllegalStateException if the glossary is read-only or already autosaved
+	 */
+	public void autosave(String filePath, long quietMillis, long maxChanges) {
+		if (glossary == null || autosaver != null)
+			throw new IllegalStateException(glossary == null ? "This dictionary is read-only" : "Already autosaving");
+
+		autosaver = new Autosaver(glossary, filePath, lock, quietMillis, maxChanges);
 	}
 
 	/**
 	 * Displays the main menu and calls the appropriate method based on the user
-	 * input.
+	 * input. Quits when the input ends.
 	 */
 	public void update() {
+		try {
+			showMenu();
+		} catch (NoSuchElementException e) {
+			quit();
+		}
+	}
+
+	/**
+	 * Runs a script of commands, as ScriptRunner describes, writing the responses to the
+	 * console and then how many lookups a second were made.
+	 * 
+	 * @param script - the commands
+	 * @throws IOException if the script can't be read or the responses can't be written
+	 */
+	public void runScript(BufferedReader script) throws IOException {
+		ScriptRunner runner = new ScriptRunner(view, out, lock);
+		long start = System.nanoTime();
+		int commands = runner.run(script);
+		quit();
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		if (out.checkError())
+			throw new IOException("Could not write to the console");
+
+		System.err.printf("%d commands, %d lookups in %.3f s (%.0f lookups/s)%n", commands, runner.getLookups(),
+				seconds, runner.getLookups() / seconds);
+	}
+
+	/**
+	 * Serves the glossary to other local programs, as GlossaryServer describes, until the
+	 * program is stopped. On the way out, in-flight edits finish and the edit log is
+	 * flushed.
+	 * 
+	 * @param port - the loopback port to listen on, or 0 for any free port
+	 * @throws IOException if the port can't be bound or connections can't be accepted
+	 */
+	public void serve(int port) throws IOException {
+		try (GlossaryServer server = new GlossaryServer(view, port, lock)) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				// Never unlocked, so no edit can follow the log being closed.
+				server.getLock().writeLock().lock();
+				quit();
+			}));
+
+			System.err.println("Serving on " + server.getAddress());
+			server.serve();
+		}
+	}
+
+	/**
+	 * Shows the main menu until the user quits.
+	 * 
+	 * @throws NoSuchElementException if the input ends
+	 */
+	private void showMenu() {
 		while (true) {
-			System.out.println("Main menu");
+			reportSaves();
+			out.println("Main menu");
 			printArray(commands);
-			System.out.print("\nSelect an option: ");
+			out.print("\nSelect an option: ");
 			int command = getInt();
 
 			switch (command) {
@@ -48,57 +231,106 @@ public class Interface {
 				case 8 -> deleteDef();
 				case 9 -> addDef();
 				case 10 -> saveToFile();
-				case 11 -> {
+				case 11 -> completeWord();
+				case 12 -> searchDefinitions();
+				case 13 -> getMetrics();
+				case 14 -> getStatistics();
+				case 15 -> {
+					quit();
 					return;
 				}
-				default -> System.out.println("\nInvalid selection");
+				default -> out.println("\nInvalid selection");
 			}
-			System.out.println();
+			out.println();
 		}
 	}
 
+	/**
+	 * Saves any changes not yet autosaved and waits for running saves to finish, then
+	 * flushes the edit log and the console.
+	 */
+	private void quit() {
+		if (autosaver != null) {
+			try {
+				autosaver.close();
+			} catch (IOException e) {
+				out.println("Could not autosave to " + autosaver.getFilePath());
+			}
+		}
+
+		for (GlossarySave save : saves)
+			if (!save.isDone()) {
+				out.println("Finishing the save to " + save.getFilePath());
+				out.flush();
+				save.await();
+			}
+		reportSaves();
+
+		if (glossary != null && !glossary.closeLog())
+			out.println("Could not flush the edit log");
+		out.flush();
+	}
+
 	/**
 	 * Gets user input.
 	 * 
 	 * @return string of user input
+	 * @throws NoSuchElementException if the input ends
 	 */
-	@SuppressWarnings("resource")
 	private String getInput() {
-		Scanner s = new Scanner(System.in);
-		return s.nextLine();
+		out.flush();
+		String line;
+		try {
+			line = in.readLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		if (line == null)
+			throw new NoSuchElementException("End of input");
+		return line;
 	}
 
 	/**
 	 * Gets integer user input.
 	 * 
 	 * @return integer input from user or -1 if input is invalid
+	 * @throws NoSuchElementException if the input ends
 	 */
-	@SuppressWarnings("resource")
 	private int getInt() {
-		Scanner s = new Scanner(System.in);
 		int command;
 		try {
-			command = Integer.parseInt(s.nextLine());
+			command = Integer.parseInt(getInput());
 		} catch (NumberFormatException e) {
 			command = -1;
 		}
 		return command;
 	}
 
+	/**
+	 * Checks whether the glossary can be edited, telling the user if it can't.
+	 * 
+	 * @return - true if the glossary is read-only
+	 */
+	private boolean isReadOnly() {
+		if (glossary == null)
+			out.println("\nThis dictionary is read-only");
+
+		return glossary == null;
+	}
+
 	/**
 	 * Enumerates and prints the menu options to the console.
 	 * 
 	 * @param arr - array of menu options to print
 	 */
 	private void printArray(String[] arr) {
-		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < arr.length; i++) {
-			sb.append((i + 1));
-			sb.append(".\t");
-			sb.append(arr[i]);
-			sb.append("\n");
+			out.print(i + 1);
+			out.print(".\t");
+			out.print(arr[i]);
+			out.print("\n");
 		}
-		System.out.print(sb.toString());
 	}
 
 	/**
@@ -106,67 +338,95 @@ public class Interface {
 	 * definitions per word, part of speech count, and first/last words.
 	 */
 	private void getMetadata() {
-		StringBuilder sb = new StringBuilder();
-
-		sb.append("\nwords: ");
-		sb.append(glossary.size());
-		sb.append("\ndefinitions: ");
-		sb.append(glossary.definitions());
+		out.print("\nwords: ");
+		out.print(view.size());
+		out.print("\ndefinitions: ");
+		out.print(view.definitions());
 
 		Double defPerWord;
-		if (glossary.size() == 0)
+		if (view.size() == 0)
 			defPerWord = 0.0;
 		else
-			defPerWord = (double) glossary.definitions() / glossary.size();
-
-		sb.append("\ndefinitions per word: ");
-		sb.append(String.format("%.3f", defPerWord));
-		sb.append("\nparts of speech: ");
-		sb.append(glossary.getPosCount());
-		sb.append("\nfirst word: ");
-		sb.append(glossary.getFirst());
-		sb.append("\nlast word: ");
-		sb.append(glossary.getLast());
-
-		System.out.println(sb.toString());
+			defPerWord = (double) view.definitions() / view.size();
+
+		out.print("\ndefinitions per word: ");
+		out.printf("%.3f", defPerWord);
+		out.print("\nparts of speech: ");
+		out.print(view.getPosCount());
+
+		int[] posCounts = view.getPosCounts();
+		for (int i = 0; i < posCounts.length; i++)
+			if (posCounts[i] > 0) {
+				out.print("\n\t");
+				out.print(Term.posOrder[i]);
+				out.print(": ");
+				out.print(posCounts[i]);
+			}
+		out.print("\nfirst word: ");
+		out.print(view.getFirst());
+		out.print("\nlast word: ");
+		out.print(view.getLast());
+		out.println();
 	}
 
 	/**
 	 * Prompts the user for a starting and ending word, then prints the words
-	 * between those two (in lexicographic order) that are in the glossary.
+	 * between those two (in lexicographic order) that are in the glossary, a page
+	 * at a time.
 	 */
 	private void getInRange() {
-		System.out.print("Starting word: ");
+		out.print("Starting word: ");
 		String startWord = getInput();
 
-		System.out.print("Ending word: ");
+		out.print("Ending word: ");
 		String endWord = getInput();
-		System.out.println();
+		out.println();
 
 		if (startWord.compareTo(endWord) > 0) {
-			System.out.println("Invalid selection");
+			out.println("Invalid selection");
 			return;
 		}
-		Set<String> words = glossary.getInRange(startWord, endWord);
-		System.out.println("The words between " + startWord + " and " + endWord + " are: ");
-		for (String word : words)
-			System.out.println("\t" + word);
+		out.println("The words between " + startWord + " and " + endWord + " are: ");
+		String cursor = null;
+
+		while (true) {
+			GlossaryPage page = view.getPage(startWord, endWord, RANGE_PAGE, cursor, false);
+
+			for (String word : page.getWords()) {
+				out.print("\t");
+				out.print(word);
+				out.print("\n");
+			}
+
+			cursor = page.getCursor();
+			if (cursor == null)
+				return;
+
+			out.print("Show more? (y/n): ");
+			if (getInput().trim().equalsIgnoreCase("n"))
+				return;
+		}
 	}
 
 	/**
-	 * Prints each given definition on a separate line.
+	 * Prints a word's formatted entries, or its parts of speech, each on a separate
+	 * line. They are rendered straight into the output buffer.
 	 * 
-	 * @param definitions - a string array of definitions
+	 * @param word - the word to print
+	 * @param pos  - true to print the parts of speech instead of the definitions
+	 * @return - false, having printed nothing, if the word is not in the glossary
 	 */
-	private void displayDefs(String[] definitions) {
-		StringBuilder sb = new StringBuilder();
-
-		for (String def : definitions) {
-			sb.append("\n");
-			sb.append(def);
+	private boolean printTerm(String word, boolean pos) {
+		try {
+			if (!(pos ? view.appendPOS(word, out) : view.appendMerged(word, out)))
+				return false;
+		} catch (IOException e) {
+			// PrintWriter reports errors through checkError rather than throwing.
+			throw new UncheckedIOException(e);
 		}
 
-		System.out.println(sb.toString());
+		out.println();
+		return true;
 	}
 
 	/**
@@ -178,89 +438,226 @@ public class Interface {
 	private int displayNumberedDefs(String word, String[][] definitions) {
 		int num = 1;
 
-		StringBuilder sb = new StringBuilder();
-		sb.append("\nDefinitions for ");
-		sb.append(word);
+		out.print("\nDefinitions for ");
+		out.print(word);
 
 		for (String[] pair : definitions) {
-			sb.append("\n");
-			sb.append(num++);
-			sb.append(". ");
-			sb.append(pair[0]);
-			sb.append(". \t");
-			sb.append(pair[1]);
+			out.print("\n");
+			out.print(num++);
+			out.print(". ");
+			out.print(pair[0]);
+			out.print(". \t");
+			out.print(pair[1]);
 		}
-		sb.append("\n");
-		sb.append(num);
-		sb.append(". Back to main menu\n");
-		System.out.print(sb.toString());
+		out.print("\n");
+		out.print(num);
+		out.print(". Back to main menu\n");
 		return num;
 	}
 
 	/**
 	 * Gets and displays the definitions for the given word. If the word is not
-	 * found in the glossary, prints "{word} not found."
+	 * found in the glossary, prints "{word} not found." and suggests close matches.
 	 */
 	private void getWord() {
-		System.out.print("Select a word: ");
+		out.print("Select a word: ");
 		String word = getInput();
 
-		String[] definitions = glossary.getMerged(word);
+		out.println();
+		if (!printTerm(word, false)) {
+			out.println(word + " not found");
+			suggest(word);
+		}
+	}
 
-		if (definitions == null) {
-			System.out.println("\n" + word + " not found");
+	/**
+	 * Prints the words closest to a word that was not found, if there are any.
+	 * 
+	 * @param word - the word that was not found
+	 */
+	private void suggest(String word) {
+		if (glossary == null)
+			return;
+
+		List<String> suggestions = glossary.getSuggestions(word, SUGGESTIONS);
+
+		if (!suggestions.isEmpty())
+			out.println("Did you mean: " + String.join(", ", suggestions) + "?");
+	}
+
+	/**
+	 * Prompts the user for the start of a word and prints the first words in the
+	 * glossary that begin with it.
+	 */
+	private void completeWord() {
+		out.print("Type the start of a word: ");
+		String prefix = getInput();
+
+		List<String> words = view.getCompletions(prefix, COMPLETIONS);
+
+		if (words.isEmpty()) {
+			out.println("\nNo words start with " + prefix);
+			return;
+		}
+
+		out.println("\nWords starting with " + prefix + ": ");
+		for (String word : words)
+			out.println("\t" + word);
+	}
+
+	/**
+	 * Prompts the user for some words and prints the best-matching definitions that
+	 * mention all (or any) of them.
+	 */
+	private void searchDefinitions() {
+		if (glossary == null) {
+			out.println("\nDefinition search needs the dictionary loaded into memory");
+			return;
+		}
+
+		out.print("Type words to search for: ");
+		String query = getInput();
+
+		out.print("Match all of them? (y/n): ");
+		boolean matchAll = !getInput().trim().equalsIgnoreCase("n");
+
+		String[][] results = glossary.findDefinitions(query, matchAll, SEARCH_RESULTS);
+
+		if (results.length == 0) {
+			out.println("\nNo definitions found");
 			return;
 		}
 
-		displayDefs(definitions);
+		for (String[] row : results) {
+			out.print("\n");
+			out.print(row[0]);
+			out.print("\t");
+			out.print(row[1]);
+			out.print(".\t");
+			out.print(row[2]);
+		}
+		out.println();
+	}
+
+	/**
+	 * Prints how often each glossary operation was called and how long it took, and the
+	 * bytes loaded and saved, if metrics are being kept.
+	 */
+	private void getMetrics() {
+		GlossaryMetrics metrics = view instanceof MeteredGlossary ? ((MeteredGlossary) view).getMetrics() : null;
+
+		if (metrics == null || !metrics.isEnabled()) {
+			out.println("\nMetrics are off");
+			return;
+		}
+
+		out.printf("%n%-20s %10s %10s %10s %10s %10s%n", "operation", "calls", "mean us", "p50 us", "p99 us",
+				"max us");
+		for (GlossaryMetrics.OperationStats stats : metrics.getOperations())
+			out.printf("%-20s %10d %10.1f %10.1f %10.1f %10.1f%n", stats.getName(), stats.getCount(),
+					stats.getMeanMicros(), stats.getP50Micros(), stats.getP99Micros(), stats.getMaxMicros());
+
+		out.print("bytes read: ");
+		out.print(metrics.getBytesRead());
+		out.print("\nbytes written: ");
+		out.print(metrics.getBytesWritten());
+		out.println();
+	}
+
+	/**
+	 * Prints the statistics the glossary keeps: how long definitions are, overall and
+	 * for each part of speech, how many definitions words have, and the words with the
+	 * most.
+	 */
+	private void getStatistics() {
+		if (glossary == null) {
+			out.println("\nStatistics need the dictionary loaded into memory");
+			return;
+		}
+
+		GlossaryStats stats = glossary.getStats();
+
+		out.printf("%nmean definition length: %.1f%n", stats.getMeanDefinitionLength());
+		double[] means = stats.getMeanDefinitionLengths();
+		int[] posCounts = glossary.getPosCounts();
+		for (int i = 0; i < means.length; i++)
+			if (posCounts[i] > 0)
+				out.printf("\t%s: %.1f%n", Term.posOrder[i], means[i]);
+
+		out.println("definitions by length:");
+		printHistogram(stats.getDefinitionLengthHistogram());
+
+		out.print("most definitions of a word: ");
+		out.println(stats.getMaxDefinitionsPerWord());
+		out.println("words by number of definitions:");
+		printHistogram(stats.getDefinitionsPerWordHistogram());
+
+		out.println("words with the most definitions:");
+		for (String[] row : stats.getTopWords(TOP_WORDS)) {
+			out.print("\t");
+			out.print(row[0]);
+			out.print(": ");
+			out.println(row[1]);
+		}
+	}
+
+	/**
+	 * Prints the non-empty buckets of a GlossaryStats histogram, one per line.
+	 * 
+	 * @param buckets - the count in each bucket
+	 */
+	private void printHistogram(int[] buckets) {
+		for (int i = 0; i < buckets.length; i++)
+			if (buckets[i] > 0) {
+				out.print("\t");
+				out.print(GlossaryStats.bucketLabel(i));
+				out.print(": ");
+				out.println(buckets[i]);
+			}
 	}
 
 	/**
 	 * Prints the first word in the glossary if it isn't empty.
 	 */
 	private void getFirstWord() {
-		if (glossary.size() == 0) {
-			System.out.println("This dictionary is empty");
+		if (view.size() == 0) {
+			out.println("This dictionary is empty");
 			return;
-		} else {
-			System.out.println();
 		}
 
-		String[] definitions = glossary.getMerged(glossary.getFirst());
-
-		displayDefs(definitions);
+		out.println();
+		out.println();
+		printTerm(view.getFirst(), false);
 	}
 
 	/**
 	 * Prints the last word in the glossary if it isn't empty.
 	 */
 	private void getLastWord() {
-		if (glossary.size() == 0) {
-			System.out.println("This dictionary is empty");
+		if (view.size() == 0) {
+			out.println("This dictionary is empty");
 			return;
-		} else {
-			System.out.println();
 		}
 
-		String[] definitions = glossary.getMerged(glossary.getLast());
-
-		displayDefs(definitions);
+		out.println();
+		out.println();
+		printTerm(view.getLast(), false);
 	}
 
 	/**
 	 * Prompts the user for a word and displays the parts of speech associated with
-	 * that word. If the word isn't in the glossary, prints "{word} not found."
+	 * that word. If the word isn't in the glossary, prints "{word} not found." and
+	 * suggests close matches.
 	 */
 	private void getPOS() {
-		System.out.print("Select a word: ");
+		out.print("Select a word: ");
 		String word = getInput();
 
-		String[] pos = glossary.getPOS(word);
-
-		if (pos != null) {
-			displayDefs(pos);
-		} else {
-			System.out.println("\n" + word + " not found\n");
+		out.println();
+		if (!printTerm(word, true)) {
+			out.println(word + " not found");
+			suggest(word);
+			out.println();
 		}
 	}
 
@@ -271,16 +668,19 @@ public class Interface {
 	 * update the definition and outputs whether the attempt was successful.
 	 */
 	private void updateDef() {
+		if (isReadOnly())
+			return;
+
 		String[][] definitions = new String[0][0];
 		String word = "";
 
-		System.out.print("Select a word: ");
+		out.print("Select a word: ");
 		word = getInput();
 
 		definitions = glossary.getSplit(word);
 
 		if (definitions == null) {
-			System.out.println("Invalid selection\n");
+			out.println("Invalid selection\n");
 			return;
 		}
 
@@ -288,25 +688,33 @@ public class Interface {
 		boolean validCommand = false;
 		while (!validCommand) {
 			int num = displayNumberedDefs(word, definitions);
-			System.out.print("\nSelect a definition to update: ");
+			out.print("\nSelect a definition to update: ");
 			command = getInt();
 
 			if (command == num)
 				return;
 
 			if (command < 1 || command > num)
-				System.out.println("Invalid selection\n");
+				out.println("Invalid selection\n");
 			else
 				validCommand = true;
 		}
 
-		System.out.print("Type a new definition: ");
+		out.print("Type a new definition: ");
 		String newDef = getInput();
 
-		if (glossary.updateDef(word, definitions[command - 1][0], definitions[command - 1][1], newDef))
-			System.out.println("\nDefinition updated");
+		boolean updated;
+		lock.writeLock().lock();
+		try {
+			updated = glossary.updateDef(word, definitions[command - 1][0], definitions[command - 1][1], newDef);
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		if (updated)
+			out.println("\nDefinition updated");
 		else
-			System.out.println("\nDefinition not updated");
+			out.println("\nDefinition not updated");
 
 	}
 
@@ -317,16 +725,19 @@ public class Interface {
 	 * whether the definition was removed and if the term itself was removed.
 	 */
 	private void deleteDef() {
+		if (isReadOnly())
+			return;
+
 		String[][] definitions = new String[0][0];
 		String word = "";
 
-		System.out.print("Select a word: ");
+		out.print("Select a word: ");
 		word = getInput();
 
 		definitions = glossary.getSplit(word);
 
 		if (definitions == null) {
-			System.out.println("Invalid selection\n");
+			out.println("Invalid selection\n");
 			return;
 		}
 
@@ -335,27 +746,33 @@ public class Interface {
 		int command = 0;
 		boolean validCommand = false;
 		while (!validCommand) {
-			System.out.print("\nSelect a definition to remove: ");
+			out.print("\nSelect a definition to remove: ");
 			command = getInt();
 
 			if (command == num)
 				return;
 
 			if (command < 1 || command > num)
-				System.out.println("Invalid selection");
+				out.println("Invalid selection");
 			else
 				validCommand = true;
 		}
 
-		boolean[] deleted = glossary.deleteDef(word, definitions[command - 1][0], definitions[command - 1][1]);
+		boolean[] deleted;
+		lock.writeLock().lock();
+		try {
+			deleted = glossary.deleteDef(word, definitions[command - 1][0], definitions[command - 1][1]);
+		} finally {
+			lock.writeLock().unlock();
+		}
 
 		if (deleted[0])
-			System.out.println("\nDefinition removed");
+			out.println("\nDefinition removed");
 		else
-			System.out.println("\nDefinition not removed");
+			out.println("\nDefinition not removed");
 
 		if (deleted[1])
-			System.out.println(word + " removed");
+			out.println(word + " removed");
 	}
 
 	/**
@@ -364,45 +781,76 @@ public class Interface {
 	 * adds the data as a new entry.
 	 */
 	private void addDef() {
-		System.out.print("Type a word: ");
+		if (isReadOnly())
+			return;
+
+		out.print("Type a word: ");
 		String word = getInput();
 
-		System.out.println("Valid parts of speech: [noun, verb, adj, adv, pron, prep, conj, interj]");
+		out.println("Valid parts of speech: [noun, verb, adj, adv, pron, prep, conj, interj]");
 
 		boolean isValidPOS = false;
 		String pos = "";
 
 		while (!isValidPOS) {
-			System.out.print("Type a valid part of speech: ");
+			out.print("Type a valid part of speech: ");
 			pos = getInput();
 
-			for (String validPOS : Term.posOrder)
-				if (validPOS.equals(pos)) {
-					isValidPOS = true;
-					break;
-				}
+			isValidPOS = PartOfSpeech.fromLabel(pos) != null;
 		}
 
-		System.out.print("Type a definition: ");
+		out.print("Type a definition: ");
+		String def = getInput();
+
+		boolean added;
+		lock.writeLock().lock();
+		try {
+			added = glossary.add(word, pos, def);
+		} finally {
+			lock.writeLock().unlock();
+		}
 
-		if (glossary.add(word, pos, getInput()))
-			System.out.println("\nSuccessfully added!");
+		if (added)
+			out.println("\nSuccessfully added!");
 		else
-			System.out.println("\nThis definition was already added.");
+			out.println("\nThis definition was already added.");
 	}
 
 	/**
-	 * Prompts the user for a file path. If the given directory is valid, saves the
-	 * glossary to that file.
+	 * Prompts the user for a file path and starts saving the glossary to that file in
+	 * the background, so the menu can be used meanwhile. The result is reported before
+	 * the menu is next shown once the save has finished. Shows the progress of any saves
+	 * still running first; the new save starts once they finish.
 	 */
 	private void saveToFile() {
-		System.out.print("Type a filename with path: ");
+		if (isReadOnly())
+			return;
+
+		for (GlossarySave save : saves)
+			if (!save.isDone())
+				out.printf("Still saving to %s: %d of %d words written%n", save.getFilePath(),
+						save.getWordsWritten(), save.getWords());
+
+		out.print("Type a filename with path: ");
 		String filePath = getInput();
-		System.out.println();
+		out.println();
 
-		if (glossary.saveToFile(filePath))
-			System.out.println("Successfully saved dictionary to " + filePath);
-		else
-			System.out.println("File not found");
+		saves.add(glossary.saveInBackground(filePath));
+		out.println("Saving dictionary to " + filePath + " in the background");
+	}
+
+	/**
+	 * Reports how each finished save went, in the order they were started, and forgets
+	 * them.
+	 */
+	private void reportSaves() {
+		while (!saves.isEmpty() && saves.peek().isDone()) {
+			GlossarySave save = saves.poll();
+			if (save.await())
+				out.println("Successfully saved dictionary to " + save.getFilePath());
+			else
+				out.println("Could not save dictionary to " + save.getFilePath());
+			out.println();
+		}
 	}
 }
@@ -0,0 +1,136 @@
+package comprehensive;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A distribution of latencies in nanoseconds, kept the way HdrHistogram keeps one: each
+ * power of two is split into 32 equal buckets, so any value is known to within about 3%
+ * however large it is, in a fixed 10 KB. Recording is a few atomic increments and never
+ * allocates, and threads can record and read at once.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+final class LatencyHistogram {
+	private static final int SUB_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	/** Values of 2^MAX_EXPONENT ns (about an hour and a quarter) and up share the top bucket. */
+	private static final int MAX_EXPONENT = 42;
+
+	private final AtomicLongArray buckets = new AtomicLongArray((MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param nanos - the latency; negative values count as 0
+	 */
+	void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(indexOf(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+
+		long seen;
+		while (value > (seen = max.get()) && !max.compareAndSet(seen, value))
+			;
+	}
+
+	/**
+	 * Gets the number of latencies recorded.
+	 *
+	 * @return - the count
+	 */
+	long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets the mean latency.
+	 *
+	 * @return - the mean in nanoseconds, or 0 if none were recorded
+	 */
+	double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) total.get() / n;
+	}
+
+	/**
+	 * Gets the largest latency recorded.
+	 *
+	 * @return - the largest in nanoseconds, or 0 if none were recorded
+	 */
+	long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the latency that a given percent of the recorded ones are at or below, to
+	 * within the precision of its bucket.
+	 *
+	 * @param percent - the percentile, from 0 to 100
+	 * @return - the latency in nanoseconds, or 0 if none were recorded
+	 */
+	long getPercentile(double percent) {
+		long[] counts = new long[buckets.length()];
+		long n = 0;
+		for (int i = 0; i < counts.length; i++)
+			n += counts[i] = buckets.get(i);
+
+		long rank = Math.max(1, (long) Math.ceil(percent / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(highestIn(i), max.get());
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Forgets every latency recorded. Latencies recorded meanwhile may be partly kept.
+	 */
+	void reset() {
+		for (int i = 0; i < buckets.length(); i++)
+			buckets.set(i, 0);
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Gets the bucket of a value. Values below SUB_BUCKETS get one each; above that, each
+	 * power of two gets SUB_BUCKETS, indexed by the bits after the highest.
+	 *
+	 * @param value - the value, not negative
+	 * @return - its bucket
+	 */
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+
+		int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+		int shift = exponent - SUB_BITS;
+		int sub = (int) Math.min(value >>> shift, 2 * SUB_BUCKETS - 1) - SUB_BUCKETS;
+		return (shift + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Gets the largest value in a bucket.
+	 *
+	 * @param index - the bucket
+	 * @return - its largest value
+	 */
+	private static long highestIn(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+
+		int shift = index / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,237 @@
+package comprehensive;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures a GlossaryServer under load. Each of several connections sends a command,
+ * waits for its response, and sends the next, for a set time. Most commands get a random
+ * word; a given share are edits, alternately adding a definition and deleting it again,
+ * so the glossary ends as it started. The latencies after a warm-up are reported as
+ * percentiles, along with the throughput.
+ * <p>
+ * Arguments: port [connections] [seconds] [percent of edits]
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class LoadGenerator {
+	/** Time spent running commands before latencies are recorded. */
+	private static final long WARMUP_NANOS = 2_000_000_000L;
+
+	private final int port;
+	private final String[] words;
+	private final int editPercent;
+
+	/**
+	 * A connection's recorded latencies, in nanoseconds.
+	 */
+	private static class Latencies {
+		long[] nanos = new long[1 << 16];
+		int size;
+
+		void add(long latency) {
+			if (size == nanos.length)
+				nanos = Arrays.copyOf(nanos, size * 2);
+			nanos[size++] = latency;
+		}
+	}
+
+	/**
+	 * Constructor for a LoadGenerator.
+	 *
+	 * @param port        - the server's loopback port
+	 * @param words       - the words to look up
+	 * @param editPercent - the percent of commands that are edits
+	 */
+	public LoadGenerator(int port, String[] words, int editPercent) {
+		this.port = port;
+		this.words = words;
+		this.editPercent = editPercent;
+	}
+
+	/**
+	 * Runs the load and prints the results.
+	 *
+	 * @param args - port [connections] [seconds] [percent of edits]
+	 * @throws Exception if the server can't be reached
+	 */
+	public static void main(String[] args) throws Exception {
+		int port = Integer.parseInt(args[0]);
+		int connections = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		int editPercent = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+		String[] words = fetchWords(port);
+		if (words.length == 0) {
+			System.err.println("The dictionary is empty");
+			return;
+		}
+
+		new LoadGenerator(port, words, editPercent).run(connections, seconds);
+	}
+
+	/**
+	 * Gets every word in the server's glossary.
+	 *
+	 * @param port - the server's loopback port
+	 * @return - the words
+	 * @throws IOException if the server can't be reached
+	 */
+	private static String[] fetchWords(int port) throws IOException {
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			BufferedReader in = reader(socket);
+			Writer out = writer(socket);
+
+			out.write("range\t\t\uffff\n");
+			out.flush();
+
+			List<String> words = new ArrayList<String>();
+			for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine())
+				words.add(line);
+			return words.toArray(new String[0]);
+		}
+	}
+
+	/**
+	 * Runs the connections for a while, then prints the throughput and latencies.
+	 *
+	 * @param connections - the number of connections
+	 * @param seconds     - how long to record latencies for, after the warm-up
+	 * @throws InterruptedException if interrupted while waiting for the connections
+	 */
+	public void run(int connections, int seconds) throws InterruptedException {
+		long start = System.nanoTime();
+		long recordFrom = start + WARMUP_NANOS;
+		long end = recordFrom + seconds * 1_000_000_000L;
+
+		Latencies[] results = new Latencies[connections];
+		Thread[] threads = new Thread[connections];
+		for (int i = 0; i < connections; i++) {
+			Latencies latencies = results[i] = new Latencies();
+			int id = i;
+			threads[i] = new Thread(() -> {
+				try {
+					load(id, recordFrom, end, latencies);
+				} catch (IOException e) {
+					System.err.println("Connection " + id + " failed: " + e);
+				}
+			});
+			threads[i].start();
+		}
+
+		for (Thread thread : threads)
+			thread.join();
+
+		int count = 0;
+		for (Latencies latencies : results)
+			count += latencies.size;
+
+		long[] all = new long[count];
+		int filled = 0;
+		for (Latencies latencies : results) {
+			System.arraycopy(latencies.nanos, 0, all, filled, latencies.size);
+			filled += latencies.size;
+		}
+		Arrays.sort(all);
+
+		System.out.printf("%d connections, %d%% edits, %d commands in %d s: %.0f commands/s%n", connections,
+				editPercent, count, seconds, count / (double) seconds);
+		if (count > 0)
+			System.out.printf("latency us: p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+					percentile(all, 50), percentile(all, 90), percentile(all, 99), percentile(all, 99.9),
+					all[count - 1] / 1e3);
+	}
+
+	/**
+	 * Sends commands over one connection until a deadline, recording the latency of
+	 * each one sent after a given time.
+	 *
+	 * @param id         - the connection's number, which keeps its edits apart
+	 * @param recordFrom - when to start recording, as System.nanoTime
+	 * @param end        - when to stop, as System.nanoTime
+	 * @param latencies  - where to record the latencies
+	 * @throws IOException if the connection fails
+	 */
+	private void load(int id, long recordFrom, long end, Latencies latencies) throws IOException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String added = null;
+
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			socket.setTcpNoDelay(true);
+			BufferedReader in = reader(socket);
+			Writer out = writer(socket);
+
+			// An add is always followed by its delete, even past the end.
+			for (long now = System.nanoTime(); now < end || added != null;) {
+				if (added != null) {
+					out.append("delete\t").append(added).append("\tnoun\tload generator edit\n");
+					added = null;
+				} else if (random.nextInt(100) < editPercent) {
+					added = "load-generator-" + id + "-" + words[random.nextInt(words.length)];
+					out.append("add\t").append(added).append("\tnoun\tload generator edit\n");
+				} else {
+					out.append("get\t").append(words[random.nextInt(words.length)]).append('\n');
+				}
+				out.flush();
+
+				String line;
+				do {
+					line = in.readLine();
+					if (line == null)
+						throw new IOException("The server closed the connection");
+				} while (!line.isEmpty());
+
+				long done = System.nanoTime();
+				if (now >= recordFrom)
+					latencies.add(done - now);
+				now = done;
+			}
+		}
+	}
+
+	/**
+	 * Gets a percentile of sorted latencies, in microseconds.
+	 *
+	 * @param sorted  - the latencies, in nanoseconds, sorted
+	 * @param percent - the percentile
+	 * @return - the latency below which that percent of them fall
+	 */
+	private static double percentile(long[] sorted, double percent) {
+		int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1e3;
+	}
+
+	/**
+	 * Gets a reader of a connection's responses.
+	 *
+	 * @param socket - the connection
+	 * @return - the reader
+	 * @throws IOException if the connection is closed
+	 */
+	private static BufferedReader reader(Socket socket) throws IOException {
+		return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Gets a writer of commands to a connection.
+	 *
+	 * @param socket - the connection
+	 * @return - the writer
+	 * @throws IOException if the connection is closed
+	 */
+	private static Writer writer(Socket socket) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+	}
+}
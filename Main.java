@@ -1,14 +1,82 @@
 package comprehensive;
 
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
 /**
- * Run the app in the console.
+ * Run the app in the console. The first argument is the glossary file. Passing
+ * "--log path" keeps a write-ahead log of edits at that path. Passing "--mapped"
+ * browses a snapshot file read-only, without loading it onto the heap. Passing
+ * "--batch script" runs the commands in the script, or on standard input if it is "-",
+ * instead of showing the menu; see ScriptRunner. Passing "--serve port" serves the
+ * glossary on that loopback port instead; see GlossaryServer and LoadGenerator. Calls to
+ * the glossary are timed and published over JMX unless "--no-metrics" is passed.
+ * Passing "--autosave seconds" saves the glossary back to its file once edits have
+ * stopped for that long, or after "--autosave-changes n" of them (1000 by default); see
+ * Autosaver. A write-ahead log already keeps every edit, so the two can't be combined.
  * 
  * @author Devin Santos and Tyler Christiansen
  * @version 2025-12-3
  */
 public class Main {
-	public static void main(String[] args) {
-		Interface app = new Interface(args[0]);
-		app.update();
+	/** The edits after which an autosave is made even if edits go on, unless set. */
+	private static final long AUTOSAVE_CHANGES = 1000;
+
+	public static void main(String[] args) throws IOException {
+		String logPath = null;
+		boolean mapped = false;
+		String scriptPath = null;
+		int port = -1;
+		boolean metered = true;
+		double autosaveSeconds = 0;
+		long autosaveChanges = AUTOSAVE_CHANGES;
+
+		for (int i = 1; i < args.length; i++)
+			if (args[i].equals("--log") && i + 1 < args.length)
+				logPath = args[++i];
+			else if (args[i].equals("--mapped"))
+				mapped = true;
+			else if (args[i].equals("--batch") && i + 1 < args.length)
+				scriptPath = args[++i];
+			else if (args[i].equals("--serve") && i + 1 < args.length)
+				port = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--no-metrics"))
+				metered = false;
+			else if (args[i].equals("--autosave") && i + 1 < args.length)
+				autosaveSeconds = Double.parseDouble(args[++i]);
+			else if (args[i].equals("--autosave-changes") && i + 1 < args.length)
+				autosaveChanges = Long.parseLong(args[++i]);
+
+		Interface app;
+		if (mapped)
+			app = new Interface(new MappedGlossary(args[0]));
+		else if (logPath != null)
+			app = new Interface(args[0], logPath, metered);
+		else
+			app = new Interface(args[0], metered);
+
+		if (autosaveSeconds > 0) {
+			if (mapped || logPath != null)
+				System.err.println("--autosave can't be combined with " + (mapped ? "--mapped" : "--log"));
+			else
+				app.autosave(args[0], Math.max(1, Math.round(autosaveSeconds * 1000)), autosaveChanges);
+		}
+
+		if (port >= 0) {
+			app.serve(port);
+			return;
+		}
+
+		if (scriptPath == null) {
+			app.update();
+			return;
+		}
+
+		try (BufferedReader script = new BufferedReader(
+				scriptPath.equals("-") ? new InputStreamReader(System.in) : new FileReader(scriptPath))) {
+			app.runScript(script);
+		}
 	}
-}
\ No newline at end of file
+}
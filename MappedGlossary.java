@@ -0,0 +1,472 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A read-only glossary that is never loaded onto the heap. It memory-maps a snapshot
+ * written by Glossary.saveSnapshot and answers lookups by binary searching the snapshot's
+ * offsets table, comparing the search word against the mapped UTF-8 bytes directly. Only
+ * the entries a lookup returns are decoded, so the heap cost is independent of the
+ * glossary's size and the operating system pages the file in and out as needed. Lookups
+ * don't modify any shared state and are safe to make from several threads.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class MappedGlossary implements GlossaryView {
+	/** Each mapping covers at most this many bytes, since a buffer is indexed by int. */
+	private static final int SEGMENT_BITS = 30;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+	private final MappedByteBuffer[] segments;
+	private final int words;
+	private final int definitions;
+	private final int[] posCounts;
+	private final long table;
+
+	/**
+	 * Constructor for MappedGlossary. The header and offsets table are checked, but the
+	 * checksum is not, so opening a file doesn't read all of it.
+	 *
+	 * @param filePath - the snapshot to map
+	 * @throws IOException if the file can't be mapped or is not a version 2 snapshot
+	 */
+	public MappedGlossary(String filePath) throws IOException {
+		this(filePath, false);
+	}
+
+	/**
+	 * Constructor for MappedGlossary.
+	 *
+	 * @param filePath - the snapshot to map
+	 * @param verify   - whether to read the whole file once to check its checksum
+	 * @throws IOException if the file can't be mapped or is not a version 2 snapshot
+	 */
+	public MappedGlossary(String filePath, boolean verify) throws IOException {
+		long fileSize;
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			fileSize = channel.size();
+			segments = new MappedByteBuffer[(int) ((fileSize + SEGMENT_MASK) >>> SEGMENT_BITS)];
+
+			for (int i = 0; i < segments.length; i++) {
+				long start = (long) i << SEGMENT_BITS;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+						Math.min(SEGMENT_MASK + 1, fileSize - start));
+			}
+		}
+
+		if (fileSize < GlossarySnapshot.HEADER + GlossarySnapshot.FOOTER)
+			throw new IOException(filePath + " is not a glossary snapshot");
+
+		for (int i = 0; i < GlossarySnapshot.MAGIC.length; i++)
+			if (get(i) != GlossarySnapshot.MAGIC[i])
+				throw new IOException(filePath + " is not a glossary snapshot");
+
+		long pos = GlossarySnapshot.MAGIC.length;
+		int version = getInt(pos);
+		if (version < GlossarySnapshot.MAPPABLE_VERSION)
+			throw new IOException(filePath + " is a version " + version
+					+ " snapshot without an offsets table; load and save it again to map it");
+		if (version > GlossarySnapshot.VERSION)
+			throw new IOException("Unsupported snapshot version " + version);
+
+		words = getInt(pos += 4);
+		definitions = getInt(pos += 4);
+		posCounts = new int[Term.posOrder.length];
+		for (int i = 0; i < posCounts.length; i++)
+			posCounts[i] = getInt(pos += 4);
+
+		table = getLong(fileSize - GlossarySnapshot.FOOTER);
+		if (words < 0 || table < GlossarySnapshot.HEADER || table + 8L * words != fileSize - GlossarySnapshot.FOOTER)
+			throw new IOException("Snapshot offsets table is damaged in " + filePath);
+
+		if (verify) {
+			CRC32 crc = new CRC32();
+			long checked = fileSize - 8;
+			for (MappedByteBuffer segment : segments) {
+				int length = (int) Math.min(segment.capacity(), checked);
+				crc.update(segment.slice(0, length));
+				checked -= length;
+			}
+
+			if (getLong(fileSize - 8) != crc.getValue())
+				throw new IOException("Snapshot checksum mismatch in " + filePath);
+		}
+	}
+
+	@Override
+	public int size() {
+		return words;
+	}
+
+	@Override
+	public int definitions() {
+		return definitions;
+	}
+
+	@Override
+	public int getPosCount() {
+		int count = 0;
+		for (int posCount : posCounts)
+			if (posCount > 0)
+				count++;
+
+		return count;
+	}
+
+	@Override
+	public int[] getPosCounts() {
+		return posCounts.clone();
+	}
+
+	@Override
+	public String getFirst() {
+		return words == 0 ? "" : wordAt(0);
+	}
+
+	@Override
+	public String getLast() {
+		return words == 0 ? "" : wordAt(words - 1);
+	}
+
+	/**
+	 * Gets all words in the glossary between two words, inclusive. The Set reads its
+	 * words from the file as it is iterated; its size is known without reading any.
+	 *
+	 * @param start - the starting word
+	 * @param end   - the ending word
+	 * @return - a Set of words within the specified range; can be empty
+	 */
+	@Override
+	public Set<String> getInRange(String start, String end) {
+		int from = search(start, false);
+		int to = Math.max(from, search(end, true));
+
+		return new AbstractSet<String>() {
+			@Override
+			public Iterator<String> iterator() {
+				return new Iterator<String>() {
+					private int next = from;
+
+					@Override
+					public boolean hasNext() {
+						return next < to;
+					}
+
+					@Override
+					public String next() {
+						if (next >= to)
+							throw new NoSuchElementException();
+
+						return wordAt(next++);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return to - from;
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof String))
+					return false;
+
+				int index = indexOf((String) o);
+				return index >= from && index < to;
+			}
+		};
+	}
+
+	@Override
+	public List<String> getCompletions(String prefix, int limit) {
+		List<String> completions = new ArrayList<String>(Math.min(limit, 16));
+
+		for (int i = search(prefix, false); i < words && completions.size() < limit; i++) {
+			String word = wordAt(i);
+			if (!word.startsWith(prefix))
+				break;
+
+			completions.add(word);
+		}
+
+		return completions;
+	}
+
+	@Override
+	public String[] getMerged(String word) {
+		Term term = find(word, true);
+
+		return term != null ? term.getMerged() : null;
+	}
+
+	@Override
+	public String[] getPOS(String word) {
+		Term term = find(word, false);
+
+		return term != null ? term.getPOS() : null;
+	}
+
+	@Override
+	public String[][] getSplit(String word) {
+		Term term = find(word, true);
+
+		return term != null ? term.getSplit() : null;
+	}
+
+	/**
+	 * Looks a word up and decodes its entry.
+	 *
+	 * @param word     - the word to search for
+	 * @param withDefs - whether to decode the definitions; if not, only their parts of
+	 *                 speech are read and the Term can only be used for getPOS
+	 * @return - the word's Term, or null if the word is not present
+	 */
+	private Term find(String word, boolean withDefs) {
+		int index = indexOf(word);
+		if (index < 0)
+			return null;
+
+		Cursor in = new Cursor(offsetAt(index));
+		in.skipString();
+
+		int count = in.readVarInt();
+		byte[] posOrdinals = new byte[count];
+		String[] defs = withDefs ? new String[count] : null;
+		for (int i = 0; i < count; i++) {
+			posOrdinals[i] = get(in.pos++);
+			if (withDefs)
+				defs[i] = in.readString();
+			else
+				in.skipString();
+		}
+
+		return new Term(word, posOrdinals, defs, count);
+	}
+
+	/**
+	 * Binary searches for a word.
+	 *
+	 * @param word - the word to search for
+	 * @return - the word's index, or -1 if it is not present
+	 */
+	private int indexOf(String word) {
+		int index = search(word, false);
+
+		return index < words && compareAt(index, word) == 0 ? index : -1;
+	}
+
+	/**
+	 * Finds where a word falls among the sorted words.
+	 *
+	 * @param word  - the word to search for
+	 * @param after - whether to skip past the word if it is present
+	 * @return - the index of the first word that is greater than (or, if after is false,
+	 * not less than) the given one
+	 */
+	private int search(String word, boolean after) {
+		int low = 0;
+		int high = words - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compareAt(mid, word);
+
+			if (cmp < 0 || after && cmp == 0)
+				low = mid + 1;
+			else
+				high = mid - 1;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Compares the word at an index with a String, in String.compareTo order. The stored
+	 * UTF-8 is decoded one character at a time instead of into a new String.
+	 *
+	 * @param index - the stored word's index
+	 * @param word  - the word to compare against
+	 * @return - negative, zero or positive as the stored word is less than, equal to or
+	 * greater than the given one
+	 */
+	private int compareAt(int index, String word) {
+		Cursor in = new Cursor(offsetAt(index));
+		int length = in.readVarInt();
+		long end = in.pos + length;
+		int k = 0;
+
+		while (in.pos < end) {
+			int b = get(in.pos++) & 0xFF;
+			int codePoint;
+			if (b < 0x80)
+				codePoint = b;
+			else if (b < 0xE0)
+				codePoint = (b & 0x1F) << 6 | get(in.pos++) & 0x3F;
+			else if (b < 0xF0)
+				codePoint = (b & 0x0F) << 12 | (get(in.pos++) & 0x3F) << 6 | get(in.pos++) & 0x3F;
+			else
+				codePoint = (b & 0x07) << 18 | (get(in.pos++) & 0x3F) << 12 | (get(in.pos++) & 0x3F) << 6
+						| get(in.pos++) & 0x3F;
+
+			boolean pair = Character.isSupplementaryCodePoint(codePoint);
+			for (int unit = 0; unit < (pair ? 2 : 1); unit++) {
+				if (k == word.length())
+					return 1;
+
+				char c = !pair ? (char) codePoint
+						: unit == 0 ? Character.highSurrogate(codePoint) : Character.lowSurrogate(codePoint);
+				int cmp = c - word.charAt(k++);
+				if (cmp != 0)
+					return cmp;
+			}
+		}
+
+		return k - word.length();
+	}
+
+	/**
+	 * Decodes the word at an index.
+	 *
+	 * @param index - the word's index
+	 * @return - the word
+	 */
+	private String wordAt(int index) {
+		return new Cursor(offsetAt(index)).readString();
+	}
+
+	/**
+	 * Gets the file position of a word's entry from the offsets table.
+	 *
+	 * @param index - the word's index
+	 * @return - the position of the entry
+	 */
+	private long offsetAt(int index) {
+		return getLong(table + 8L * index);
+	}
+
+	/**
+	 * Reads one byte of the file.
+	 *
+	 * @param pos - the position to read
+	 * @return - the byte
+	 */
+	private byte get(long pos) {
+		return segments[(int) (pos >>> SEGMENT_BITS)].get((int) (pos & SEGMENT_MASK));
+	}
+
+	/**
+	 * Reads a big-endian int.
+	 *
+	 * @param pos - the position of its first byte
+	 * @return - the int
+	 */
+	private int getInt(long pos) {
+		int value = 0;
+		for (int i = 0; i < 4; i++)
+			value = value << 8 | get(pos + i) & 0xFF;
+
+		return value;
+	}
+
+	/**
+	 * Reads a big-endian long.
+	 *
+	 * @param pos - the position of its first byte
+	 * @return - the long
+	 */
+	private long getLong(long pos) {
+		long value = 0;
+		for (int i = 0; i < 8; i++)
+			value = value << 8 | get(pos + i) & 0xFF;
+
+		return value;
+	}
+
+	/**
+	 * Copies bytes out of the file, which may span two mappings.
+	 *
+	 * @param pos    - the position of the first byte
+	 * @param dst    - where to copy the bytes
+	 * @param length - the number of bytes to copy
+	 */
+	private void get(long pos, byte[] dst, int length) {
+		int copied = 0;
+		while (copied < length) {
+			MappedByteBuffer segment = segments[(int) (pos >>> SEGMENT_BITS)];
+			int offset = (int) (pos & SEGMENT_MASK);
+			int n = Math.min(length - copied, segment.capacity() - offset);
+
+			segment.get(offset, dst, copied, n);
+			copied += n;
+			pos += n;
+		}
+	}
+
+	/**
+	 * A read position in the file. Each lookup makes its own, so concurrent lookups don't
+	 * share any state.
+	 */
+	private class Cursor {
+		long pos;
+
+		/**
+		 * Constructor for Cursor.
+		 *
+		 * @param pos - the starting position
+		 */
+		Cursor(long pos) {
+			this.pos = pos;
+		}
+
+		/**
+		 * Reads an int written in 7-bit groups, low group first.
+		 *
+		 * @return - the value
+		 */
+		int readVarInt() {
+			int value = 0;
+			for (int shift = 0;; shift += 7) {
+				byte b = get(pos++);
+				value |= (b & 0x7F) << shift;
+
+				if (b >= 0)
+					return value;
+			}
+		}
+
+		/**
+		 * Reads a String written as its UTF-8 byte length followed by its bytes.
+		 *
+		 * @return - the String
+		 */
+		String readString() {
+			byte[] bytes = new byte[readVarInt()];
+			get(pos, bytes, bytes.length);
+			pos += bytes.length;
+
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Moves past a String without decoding it.
+		 */
+		void skipString() {
+			int length = readVarInt();
+			pos += length;
+		}
+	}
+}
@@ -0,0 +1,384 @@
+package comprehensive;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import comprehensive.GlossaryMetrics.Operation;
+
+/**
+ * A Glossary that counts and times every call to its public methods in a
+ * GlossaryMetrics, along with how long loading took and how many bytes were loaded and
+ * saved. Each call costs two reads of the clock and a few atomic increments; switching
+ * the metrics off leaves one check per call. A plain Glossary has no instrumentation at
+ * all, so programs that don't want metrics pay nothing.
+ * <p>
+ * Edits replayed from a log by attachLog are counted as calls too. getWordsWithPos(pos)
+ * is counted as a call to getWordsWithPos(pos, start, end), which it makes. getPage is
+ * counted once, not as the getInRange and getMerged calls a GlossaryView page makes.
+ * saveInBackground is timed until the glossary has been captured, and its bytes are
+ * counted once the file has been written.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class MeteredGlossary extends Glossary {
+	/** Null only while Glossary's constructor is loading the file. */
+	private final GlossaryMetrics metrics;
+
+	/**
+	 * Constructor for a MeteredGlossary. Use load, which also times loading.
+	 *
+	 * @param filePath    - the file path to read from
+	 * @param parallelism - the number of threads to parse with; 1 reads sequentially
+	 * @param metrics     - where to count calls
+	 */
+	private MeteredGlossary(String filePath, int parallelism, GlossaryMetrics metrics) {
+		super(filePath, parallelism);
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Loads a MeteredGlossary from a file, as the Glossary constructor does, counting the
+	 * time taken and the file's size as a load.
+	 *
+	 * @param filePath    - the file path to read from
+	 * @param parallelism - the number of threads to parse with; 1 reads sequentially
+	 * @return - the glossary, with new metrics
+	 */
+	public static MeteredGlossary load(String filePath, int parallelism) {
+		GlossaryMetrics metrics = new GlossaryMetrics();
+		long began = metrics.start();
+		MeteredGlossary glossary = new MeteredGlossary(filePath, parallelism, metrics);
+		metrics.record(Operation.LOAD, began);
+		metrics.addBytesRead(new File(filePath).length());
+
+		return glossary;
+	}
+
+	/**
+	 * Gets the metrics this glossary counts calls in.
+	 *
+	 * @return - the metrics
+	 */
+	public GlossaryMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public boolean add(String word, String pos, String def) {
+		// Glossary's constructor adds each loaded line through here, before metrics is set;
+		// those adds are part of the load.
+		if (metrics == null)
+			return super.add(word, pos, def);
+
+		long began = metrics.start();
+		boolean result = super.add(word, pos, def);
+		metrics.record(Operation.ADD, began);
+		return result;
+	}
+
+	@Override
+	public boolean saveToFile(String filePath) {
+		long began = metrics.start();
+		boolean result = super.saveToFile(filePath);
+		metrics.record(Operation.SAVE_TO_FILE, began);
+		if (result)
+			metrics.addBytesWritten(new File(filePath).length());
+		return result;
+	}
+
+	@Override
+	public GlossarySave saveInBackground(String filePath) {
+		long began = metrics.start();
+		GlossarySave result = super.saveInBackground(filePath);
+		metrics.record(Operation.SAVE_IN_BACKGROUND, began);
+		result.whenDone(() -> {
+			if (result.await())
+				metrics.addBytesWritten(new File(filePath).length());
+		});
+		return result;
+	}
+
+	@Override
+	public long getChangeCount() {
+		long began = metrics.start();
+		long result = super.getChangeCount();
+		metrics.record(Operation.GET_CHANGE_COUNT, began);
+		return result;
+	}
+
+	@Override
+	public boolean isDirty() {
+		long began = metrics.start();
+		boolean result = super.isDirty();
+		metrics.record(Operation.IS_DIRTY, began);
+		return result;
+	}
+
+	@Override
+	public long getUnsavedChanges() {
+		long began = metrics.start();
+		long result = super.getUnsavedChanges();
+		metrics.record(Operation.GET_UNSAVED_CHANGES, began);
+		return result;
+	}
+
+	@Override
+	public void setHomeFile(String filePath) {
+		long began = metrics.start();
+		super.setHomeFile(filePath);
+		metrics.record(Operation.SET_HOME_FILE, began);
+	}
+
+	@Override
+	public boolean saveSnapshot(String filePath) {
+		long began = metrics.start();
+		boolean result = super.saveSnapshot(filePath);
+		metrics.record(Operation.SAVE_SNAPSHOT, began);
+		if (result)
+			metrics.addBytesWritten(new File(filePath).length());
+		return result;
+	}
+
+	@Override
+	public boolean loadSnapshot(String filePath) {
+		long began = metrics.start();
+		boolean result = super.loadSnapshot(filePath);
+		metrics.record(Operation.LOAD_SNAPSHOT, began);
+		if (result)
+			metrics.addBytesRead(new File(filePath).length());
+		return result;
+	}
+
+	@Override
+	public int size() {
+		long began = metrics.start();
+		int result = super.size();
+		metrics.record(Operation.SIZE, began);
+		return result;
+	}
+
+	@Override
+	public int definitions() {
+		long began = metrics.start();
+		int result = super.definitions();
+		metrics.record(Operation.DEFINITIONS, began);
+		return result;
+	}
+
+	@Override
+	public int getPosCount() {
+		long began = metrics.start();
+		int result = super.getPosCount();
+		metrics.record(Operation.GET_POS_COUNT, began);
+		return result;
+	}
+
+	@Override
+	public int[] getPosCounts() {
+		long began = metrics.start();
+		int[] result = super.getPosCounts();
+		metrics.record(Operation.GET_POS_COUNTS, began);
+		return result;
+	}
+
+	@Override
+	public Set<String> getWordsWithPos(String pos, String start, String end) {
+		long began = metrics.start();
+		Set<String> result = super.getWordsWithPos(pos, start, end);
+		metrics.record(Operation.GET_WORDS_WITH_POS, began);
+		return result;
+	}
+
+	@Override
+	public List<String> getWordsWithAllPos(String[] pos, String start, String end) {
+		long began = metrics.start();
+		List<String> result = super.getWordsWithAllPos(pos, start, end);
+		metrics.record(Operation.GET_WORDS_WITH_ALL_POS, began);
+		return result;
+	}
+
+	@Override
+	public String[][] findDefinitions(String query, boolean matchAll, int limit) {
+		long began = metrics.start();
+		String[][] result = super.findDefinitions(query, matchAll, limit);
+		metrics.record(Operation.FIND_DEFINITIONS, began);
+		return result;
+	}
+
+	@Override
+	public List<String> getSuggestions(String word, int limit) {
+		long began = metrics.start();
+		List<String> result = super.getSuggestions(word, limit);
+		metrics.record(Operation.GET_SUGGESTIONS, began);
+		return result;
+	}
+
+	@Override
+	public String getFirst() {
+		long began = metrics.start();
+		String result = super.getFirst();
+		metrics.record(Operation.GET_FIRST, began);
+		return result;
+	}
+
+	@Override
+	public String getLast() {
+		long began = metrics.start();
+		String result = super.getLast();
+		metrics.record(Operation.GET_LAST, began);
+		return result;
+	}
+
+	@Override
+	public Set<String> getInRange(String start, String end) {
+		long began = metrics.start();
+		Set<String> result = super.getInRange(start, end);
+		metrics.record(Operation.GET_IN_RANGE, began);
+		return result;
+	}
+
+	@Override
+	public int rank(String word) {
+		long began = metrics.start();
+		int result = super.rank(word);
+		metrics.record(Operation.RANK, began);
+		return result;
+	}
+
+	@Override
+	public String select(int index) {
+		long began = metrics.start();
+		String result = super.select(index);
+		metrics.record(Operation.SELECT, began);
+		return result;
+	}
+
+	@Override
+	public int countInRange(String start, String end) {
+		long began = metrics.start();
+		int result = super.countInRange(start, end);
+		metrics.record(Operation.COUNT_IN_RANGE, began);
+		return result;
+	}
+
+	@Override
+	public List<String> getCompletions(String prefix, int limit) {
+		long began = metrics.start();
+		List<String> result = super.getCompletions(prefix, limit);
+		metrics.record(Operation.GET_COMPLETIONS, began);
+		return result;
+	}
+
+	@Override
+	public GlossaryPage getPage(String start, String end, int limit, String cursor, boolean withDefinitions) {
+		long began = metrics.start();
+		GlossaryPage result = super.getPage(start, end, limit, cursor, withDefinitions);
+		metrics.record(Operation.GET_PAGE, began);
+		return result;
+	}
+
+	@Override
+	public String[] getMerged(String word) {
+		long began = metrics.start();
+		String[] result = super.getMerged(word);
+		metrics.record(Operation.GET_MERGED, began);
+		return result;
+	}
+
+	@Override
+	public String[] getPOS(String word) {
+		long began = metrics.start();
+		String[] result = super.getPOS(word);
+		metrics.record(Operation.GET_POS, began);
+		return result;
+	}
+
+	@Override
+	public String[][] getSplit(String word) {
+		long began = metrics.start();
+		String[][] result = super.getSplit(word);
+		metrics.record(Operation.GET_SPLIT, began);
+		return result;
+	}
+
+	@Override
+	public boolean appendMerged(String word, Appendable out) throws IOException {
+		long began = metrics.start();
+		boolean result = super.appendMerged(word, out);
+		metrics.record(Operation.APPEND_MERGED, began);
+		return result;
+	}
+
+	@Override
+	public boolean appendPOS(String word, Appendable out) throws IOException {
+		long began = metrics.start();
+		boolean result = super.appendPOS(word, out);
+		metrics.record(Operation.APPEND_POS, began);
+		return result;
+	}
+
+	@Override
+	public void setRenderCacheSize(int words) {
+		long began = metrics.start();
+		super.setRenderCacheSize(words);
+		metrics.record(Operation.SET_RENDER_CACHE_SIZE, began);
+	}
+
+	@Override
+	public long[] getRenderCacheStats() {
+		long began = metrics.start();
+		long[] result = super.getRenderCacheStats();
+		metrics.record(Operation.GET_RENDER_CACHE_STATS, began);
+		return result;
+	}
+
+	@Override
+	public GlossaryStats getStats() {
+		long began = metrics.start();
+		GlossaryStats result = super.getStats();
+		metrics.record(Operation.GET_STATS, began);
+		return result;
+	}
+
+	@Override
+	public boolean updateDef(String word, String pos, String oldDef, String newDef) {
+		long began = metrics.start();
+		boolean result = super.updateDef(word, pos, oldDef, newDef);
+		metrics.record(Operation.UPDATE_DEF, began);
+		return result;
+	}
+
+	@Override
+	public boolean[] deleteDef(String word, String pos, String def) {
+		long began = metrics.start();
+		boolean[] result = super.deleteDef(word, pos, def);
+		metrics.record(Operation.DELETE_DEF, began);
+		return result;
+	}
+
+	@Override
+	public boolean[] applyBatch(GlossaryBatch batch) {
+		long began = metrics.start();
+		boolean[] result = super.applyBatch(batch);
+		metrics.record(Operation.APPLY_BATCH, began);
+		return result;
+	}
+
+	@Override
+	public boolean closeLog() {
+		long began = metrics.start();
+		boolean result = super.closeLog();
+		metrics.record(Operation.CLOSE_LOG, began);
+		return result;
+	}
+
+	@Override
+	public void attachLog(MutationLog log) throws IOException {
+		long began = metrics.start();
+		super.attachLog(log);
+		metrics.record(Operation.ATTACH_LOG, began);
+	}
+}
@@ -0,0 +1,543 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only write-ahead log of glossary edits. Every add, update, and delete is
+ * appended as a small checksummed record, so persisting an edit costs one write instead
+ * of rewriting the whole glossary. On startup the log is replayed on top of the last full
+ * save (the base file).
+ * <p>
+ * The log is split into numbered segment files: "log.1", "log.2", and so on. Once the
+ * active segment grows past the compaction threshold it is sealed and a new one is
+ * started. A background thread then folds the sealed segments into the base file by
+ * loading a private copy of the base, replaying the segments onto it, and saving it, after
+ * which the segments are deleted. The live glossary is never touched by that thread.
+ * Replaying a segment that was already folded in is harmless, so a crash between saving
+ * the base and deleting a segment loses nothing.
+ * <p>
+ * Each record is laid out as: int length, op byte, varint-prefixed UTF-8 fields, int
+ * CRC32 of the op and fields. A batch of edits is one record holding a varint count and
+ * then each edit's op byte and fields, so it is replayed whole or not at all. A torn
+ * record at the end of a segment (from a crash mid write) ends replay of that segment.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public class MutationLog {
+	private static final byte ADD = 1;
+	private static final byte UPDATE = 2;
+	private static final byte DELETE = 3;
+	private static final byte BATCH = 4;
+
+	private final Path logPath;
+	private final String basePath;
+	private final long compactBytes;
+	private final long syncMillis;
+	private final ExecutorService compactor;
+	private final ScheduledExecutorService syncer;
+	private final CRC32 crc;
+
+	private ByteBuffer record;
+	private FileChannel active;
+	private long activeSeq;
+	private long activeBytes;
+	private boolean unsynced;
+
+	/**
+	 * Opens the log, starting a new active segment after any existing ones. Existing
+	 * segments are left in place until {@link #replay(Glossary)} has applied them.
+	 *
+	 * @param logPath      - the path of the log; segments are named logPath.N
+	 * @param basePath     - the full save the log applies to; compaction rewrites it in
+	 *                     the same format (text or snapshot) it already has
+	 * @param compactBytes - the segment size at which the log is rotated and compacted
+	 * @param syncMillis   - 0 to force every record to disk before returning, a positive
+	 *                     interval to force batches of records to disk together (group
+	 *                     commit), or negative to leave flushing to the operating system
+	 * @throws IOException if the log can't be opened
+	 */
+	public MutationLog(String logPath, String basePath, long compactBytes, long syncMillis) throws IOException {
+		this.logPath = Paths.get(logPath).toAbsolutePath();
+		this.basePath = basePath;
+		this.compactBytes = compactBytes;
+		this.syncMillis = syncMillis;
+		crc = new CRC32();
+		record = ByteBuffer.allocate(256);
+
+		compactor = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "glossary-log-compactor"));
+
+		if (syncMillis > 0) {
+			syncer = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "glossary-log-sync"));
+			syncer.scheduleWithFixedDelay(this::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+		} else {
+			syncer = null;
+		}
+
+		List<Long> existing = segments();
+		activeSeq = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+		active = openSegment(activeSeq);
+	}
+
+	/**
+	 * Applies every existing segment, oldest first, to a glossary that was loaded from the
+	 * base file, then schedules them to be folded into the base. The glossary must not
+	 * have this log attached yet, or the replayed edits would be logged again.
+	 *
+	 * @param glossary - the glossary to apply the edits to
+	 * @throws IOException if a segment can't be read
+	 */
+	public void replay(Glossary glossary) throws IOException {
+		boolean any = false;
+
+		for (long seq : segments())
+			if (seq < activeSeq) {
+				replaySegment(segmentPath(seq), glossary);
+				any = true;
+			}
+
+		if (any)
+			compactor.execute(this::compact);
+	}
+
+	/**
+	 * Records that a definition was added.
+	 *
+	 * @param word - the word
+	 * @param pos  - the part of speech
+	 * @param def  - the definition
+	 */
+	public synchronized void add(String word, String pos, String def) {
+		append(ADD, word, pos, def, null);
+	}
+
+	/**
+	 * Records that a definition was updated.
+	 *
+	 * @param word   - the word
+	 * @param pos    - the part of speech
+	 * @param oldDef - the definition that was replaced
+	 * @param newDef - the new definition
+	 */
+	public synchronized void update(String word, String pos, String oldDef, String newDef) {
+		append(UPDATE, word, pos, oldDef, newDef);
+	}
+
+	/**
+	 * Records that a definition was deleted.
+	 *
+	 * @param word - the word
+	 * @param pos  - the part of speech
+	 * @param def  - the definition
+	 */
+	public synchronized void delete(String word, String pos, String def) {
+		append(DELETE, word, pos, def, null);
+	}
+
+	/**
+	 * Records a batch of edits as a single record, so a crash part way through writing it
+	 * loses the whole batch rather than part of it. Like the other edits, a batch is
+	 * logged after it has been applied, and only its edits that changed the glossary. If
+	 * the record can't be written, the failure is rethrown unchecked and the batch stays
+	 * applied in memory without being in the log.
+	 *
+	 * @param batch - the edits
+	 */
+	public synchronized void batch(GlossaryBatch batch) {
+		startRecord(BATCH);
+		putVarint(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			ensureRoom(1);
+			record.put(batch.op(i));
+			putFields(batch.word(i), batch.label(i), batch.def(i), batch.newDef(i));
+		}
+
+		writeRecord();
+	}
+
+	/**
+	 * Forces everything logged so far to disk and stops the background threads, waiting
+	 * for a running compaction to finish.
+	 *
+	 * @throws IOException if the log can't be flushed
+	 */
+	public void close() throws IOException {
+		if (syncer != null)
+			syncer.shutdown();
+
+		compactor.shutdown();
+		try {
+			compactor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized (this) {
+			active.force(false);
+			active.close();
+		}
+	}
+
+	/**
+	 * Encodes and writes one record, rotating the active segment if it has grown past the
+	 * compaction threshold. Write failures are rethrown unchecked: the edit has already
+	 * been applied in memory and can't be made durable.
+	 *
+	 * @param op     - the operation code
+	 * @param word   - the word
+	 * @param pos    - the part of speech
+	 * @param def    - the (old) definition
+	 * @param newDef - the new definition for updates, otherwise null
+	 */
+	private void append(byte op, String word, String pos, String def, String newDef) {
+		startRecord(op);
+		putFields(word, pos, def, newDef);
+		writeRecord();
+	}
+
+	/**
+	 * Starts encoding a record.
+	 *
+	 * @param op - the operation code
+	 */
+	private void startRecord(byte op) {
+		record.clear();
+		record.putInt(0);
+		record.put(op);
+	}
+
+	/**
+	 * Appends the fields of one edit to the record.
+	 *
+	 * @param word   - the word
+	 * @param pos    - the part of speech
+	 * @param def    - the (old) definition
+	 * @param newDef - the new definition for updates, otherwise null
+	 */
+	private void putFields(String word, String pos, String def, String newDef) {
+		putString(word);
+		putString(pos);
+		putString(def);
+		if (newDef != null)
+			putString(newDef);
+	}
+
+	/**
+	 * Finishes the record with its length and checksum and writes it, rotating the active
+	 * segment if it has grown past the compaction threshold. Write failures are rethrown
+	 * unchecked.
+	 */
+	private void writeRecord() {
+		crc.reset();
+		crc.update(record.array(), 4, record.position() - 4);
+		ensureRoom(4);
+		record.putInt(0, record.position() - 4);
+		record.putInt((int) crc.getValue());
+		record.flip();
+
+		try {
+			activeBytes += record.remaining();
+			while (record.hasRemaining())
+				active.write(record);
+
+			if (syncMillis == 0)
+				active.force(false);
+			else
+				unsynced = true;
+
+			if (activeBytes >= compactBytes)
+				rotate();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not append to " + logPath, e);
+		}
+	}
+
+	/**
+	 * Seals the active segment, starts the next one, and schedules compaction.
+	 *
+	 * @throws IOException if the segments can't be switched
+	 */
+	private void rotate() throws IOException {
+		active.force(false);
+		active.close();
+
+		active = openSegment(++activeSeq);
+		activeBytes = 0;
+		unsynced = false;
+
+		compactor.execute(this::compact);
+	}
+
+	/**
+	 * Folds every sealed segment into the base file and deletes the segments. The base is
+	 * read without indexes, since it is only rewritten; if it can't be read, nothing is
+	 * written and the segments are kept. Runs on the compactor thread.
+	 */
+	private void compact() {
+		try {
+			long sealedBefore;
+			synchronized (this) {
+				sealedBefore = activeSeq;
+			}
+
+			List<Path> sealed = new ArrayList<Path>();
+			for (long seq : segments())
+				if (seq < sealedBefore)
+					sealed.add(segmentPath(seq));
+
+			if (sealed.isEmpty())
+				return;
+
+			// If the base can't be read, the segments are kept rather than folded into nothing.
+			Glossary base = Glossary.readBare(basePath);
+			boolean snapshot = Files.exists(Paths.get(basePath)) && GlossarySnapshot.isSnapshot(basePath);
+			for (Path segment : sealed)
+				replaySegment(segment, base);
+
+			if (!(snapshot ? base.saveSnapshot(basePath) : base.saveToFile(basePath)))
+				throw new IOException("Could not save " + basePath);
+
+			for (Path segment : sealed)
+				Files.deleteIfExists(segment);
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Forces outstanding records to disk. Runs on the group commit thread.
+	 */
+	private synchronized void syncQuietly() {
+		if (!unsynced)
+			return;
+
+		try {
+			active.force(false);
+			unsynced = false;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Applies the records of one segment to a glossary.
+	 *
+	 * @param segment  - the segment to read
+	 * @param glossary - the glossary to apply the records to
+	 * @throws IOException if the segment can't be read
+	 */
+	private static void replaySegment(Path segment, Glossary glossary) throws IOException {
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+		CRC32 check = new CRC32();
+
+		while (data.remaining() >= 4) {
+			int length = data.getInt();
+			if (length <= 0 || length + 4 > data.remaining())
+				return;
+
+			int start = data.position();
+			check.reset();
+			check.update(data.array(), start, length);
+			if (data.getInt(start + length) != (int) check.getValue())
+				return;
+
+			byte op = data.get();
+			if (op == BATCH) {
+				glossary.applyBatch(getBatch(data, segment));
+				data.position(start + length + 4);
+				continue;
+			}
+
+			String word = getString(data);
+			String pos = getString(data);
+			String def = getString(data);
+
+			switch (op) {
+				case ADD -> glossary.add(word, pos, def);
+				case UPDATE -> glossary.updateDef(word, pos, def, getString(data));
+				case DELETE -> glossary.deleteDef(word, pos, def);
+				default -> throw new IOException("Unknown log record " + op + " in " + segment);
+			}
+
+			data.position(start + length + 4);
+		}
+	}
+
+	/**
+	 * Appends a String to the record as a varint length and its UTF-8 bytes.
+	 *
+	 * @param s - the String to append
+	 */
+	private void putString(String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		putVarint(bytes.length);
+		ensureRoom(bytes.length);
+		record.put(bytes);
+	}
+
+	/**
+	 * Appends a non-negative int to the record in 7-bit groups, low group first.
+	 *
+	 * @param value - the int to append
+	 */
+	private void putVarint(int value) {
+		ensureRoom(5);
+		while ((value & ~0x7F) != 0) {
+			record.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		record.put((byte) value);
+	}
+
+	/**
+	 * Reads a batch written by {@link #batch(GlossaryBatch)}, after its op byte.
+	 *
+	 * @param data    - the record data
+	 * @param segment - the segment being read, for errors
+	 * @return - the batch
+	 * @throws IOException if the batch holds an unknown edit
+	 */
+	private static GlossaryBatch getBatch(ByteBuffer data, Path segment) throws IOException {
+		GlossaryBatch batch = new GlossaryBatch();
+		int count = getVarint(data);
+
+		for (int i = 0; i < count; i++) {
+			byte op = data.get();
+			String word = getString(data);
+			String pos = getString(data);
+			String def = getString(data);
+
+			switch (op) {
+				case ADD -> batch.add(word, pos, def);
+				case UPDATE -> batch.updateDef(word, pos, def, getString(data));
+				case DELETE -> batch.deleteDef(word, pos, def);
+				default -> throw new IOException("Unknown batch edit " + op + " in " + segment);
+			}
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Reads a String written by {@link #putString(String)}.
+	 *
+	 * @param data - the record data
+	 * @return - the String
+	 */
+	private static String getString(ByteBuffer data) {
+		int length = getVarint(data);
+		String s = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+		data.position(data.position() + length);
+		return s;
+	}
+
+	/**
+	 * Reads an int written by {@link #putVarint(int)}.
+	 *
+	 * @param data - the record data
+	 * @return - the int
+	 */
+	private static int getVarint(ByteBuffer data) {
+		int value = 0;
+		for (int shift = 0;; shift += 7) {
+			byte b = data.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				break;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Grows the record buffer if it can't hold the given number of additional bytes.
+	 *
+	 * @param bytes - the number of bytes about to be added
+	 */
+	private void ensureRoom(int bytes) {
+		if (record.remaining() >= bytes)
+			return;
+
+		ByteBuffer larger = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes));
+		record.flip();
+		larger.put(record);
+		record = larger;
+	}
+
+	/**
+	 * Lists the sequence numbers of the segments on disk, in ascending order.
+	 *
+	 * @return - the sequence numbers
+	 * @throws IOException if the directory can't be listed
+	 */
+	private List<Long> segments() throws IOException {
+		List<Long> seqs = new ArrayList<Long>();
+		String prefix = logPath.getFileName() + ".";
+
+		try (DirectoryStream<Path> dir = Files.newDirectoryStream(logPath.getParent(), prefix + "*")) {
+			for (Path path : dir) {
+				String suffix = path.getFileName().toString().substring(prefix.length());
+				try {
+					seqs.add(Long.parseLong(suffix));
+				} catch (NumberFormatException e) {
+					// Not a segment, e.g. a temporary file.
+				}
+			}
+		}
+
+		Collections.sort(seqs);
+		return seqs;
+	}
+
+	/**
+	 * Gets the path of a segment.
+	 *
+	 * @param seq - the segment's sequence number
+	 * @return - the path of the segment
+	 */
+	private Path segmentPath(long seq) {
+		return logPath.resolveSibling(logPath.getFileName() + "." + seq);
+	}
+
+	/**
+	 * Opens a segment for appending.
+	 *
+	 * @param seq - the segment's sequence number
+	 * @return - the open segment
+	 * @throws IOException if the segment can't be opened
+	 */
+	private FileChannel openSegment(long seq) throws IOException {
+		return FileChannel.open(segmentPath(seq), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Creates a daemon thread so that the log never keeps the application running.
+	 *
+	 * @param runnable - the thread's task
+	 * @param name     - the thread's name
+	 * @return - the thread
+	 */
+	private static Thread daemon(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,66 @@
+package comprehensive;
+
+/**
+ * The parts of speech a definition can have, in the order they are displayed and saved.
+ * Each constant's ordinal is its index in Term.posOrder and its code in binary formats.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public enum PartOfSpeech {
+	ADJ("adj"), ADV("adv"), CONJ("conj"), INTERJ("interj"), NOUN("noun"), PREP("prep"), PRON("pron"), VERB("verb");
+
+	private static final PartOfSpeech[] VALUES = values();
+
+	private final String label;
+
+	private PartOfSpeech(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * Gets the abbreviation used for this part of speech in glossary files and output.
+	 *
+	 * @return - the label, e.g. "noun"
+	 */
+	public String label() {
+		return label;
+	}
+
+	/**
+	 * Gets the part of speech with the given label.
+	 *
+	 * @param label - the label, e.g. "noun"
+	 * @return - the matching part of speech, or null if there is none
+	 */
+	public static PartOfSpeech fromLabel(String label) {
+		for (PartOfSpeech pos : VALUES)
+			if (pos.label.equals(label))
+				return pos;
+
+		return null;
+	}
+
+	/**
+	 * Gets the part of speech with the given ordinal without copying values().
+	 *
+	 * @param ordinal - the ordinal
+	 * @return - the matching part of speech
+	 */
+	public static PartOfSpeech fromOrdinal(int ordinal) {
+		return VALUES[ordinal];
+	}
+
+	/**
+	 * Gets the labels of every part of speech, in order.
+	 *
+	 * @return - a new array of labels
+	 */
+	public static String[] labels() {
+		String[] labels = new String[VALUES.length];
+		for (int i = 0; i < VALUES.length; i++)
+			labels[i] = VALUES[i].label;
+
+		return labels;
+	}
+}
@@ -0,0 +1,488 @@
+package comprehensive;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed sorted set of non-negative ints, used for the postings of the definition
+ * index. The ints are stored in blocks of at most {@link #BLOCK}. Each block keeps its
+ * first int as is and the rest as variable-length gaps from the previous int, so a dense
+ * list costs about a byte per entry. A lookup binary searches the blocks' first ints and
+ * then decodes one block; an insert or removal re-encodes one block, and an int larger
+ * than all the others is simply written onto the end of the last block.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+class PostingList {
+	/** The maximum number of ints in a block. */
+	private static final int BLOCK = 128;
+	private static final byte[] EMPTY = new byte[0];
+
+	private int[] firsts;
+	private byte[][] gaps;
+	private int[] gapBytes;
+	private int[] counts;
+	private int blockCount;
+	private int size;
+	private int last;
+	/**
+	 * An upper bound, kept by DefinitionIndex, on the share of a listed definition's tokens
+	 * that are this list's token. It is raised as postings are added and never lowered.
+	 */
+	float bound;
+
+	/**
+	 * Constructor for a PostingList holding one int. Most lists never grow past a few
+	 * entries, so the block table starts with room for one block.
+	 *
+	 * @param value - the first int
+	 */
+	PostingList(int value) {
+		firsts = new int[] { value };
+		gaps = new byte[][] { EMPTY };
+		gapBytes = new int[1];
+		counts = new int[] { 1 };
+		blockCount = 1;
+		size = 1;
+		last = value;
+	}
+
+	/**
+	 * Gets the number of ints in the list.
+	 *
+	 * @return - the number of ints
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Adds an int.
+	 *
+	 * @param value - the int to add
+	 * @return - true if the int was not already present
+	 */
+	boolean add(int value) {
+		if (blockCount == 0 || value > last) {
+			append(value);
+			return true;
+		}
+		if (value == last)
+			return false;
+
+		int b = Math.max(0, findBlock(value));
+		int[] block = decode(b, 1);
+		int index = Arrays.binarySearch(block, 0, counts[b], value);
+		if (index >= 0)
+			return false;
+
+		index = -index - 1;
+		System.arraycopy(block, index, block, index + 1, counts[b] - index);
+		block[index] = value;
+		size++;
+
+		if (counts[b] < BLOCK) {
+			encode(b, block, 0, counts[b] + 1);
+		} else {
+			int half = (BLOCK + 1) / 2;
+			encode(b, block, 0, half);
+			insertBlock(b + 1, Arrays.copyOfRange(block, half, BLOCK + 1), BLOCK + 1 - half);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Removes an int.
+	 *
+	 * @param value - the int to remove
+	 * @return - true if the int was present
+	 */
+	boolean remove(int value) {
+		int b = findBlock(value);
+		if (b < 0)
+			return false;
+
+		int[] block = decode(b, 0);
+		int index = Arrays.binarySearch(block, 0, counts[b], value);
+		if (index < 0)
+			return false;
+
+		System.arraycopy(block, index + 1, block, index, counts[b] - index - 1);
+		size--;
+		if (value == last && size > 0)
+			last = counts[b] > 1 ? block[counts[b] - 2] : lastOfBlock(b - 1);
+
+		if (counts[b] == 1)
+			removeBlock(b);
+		else
+			encode(b, block, 0, counts[b] - 1);
+
+		return true;
+	}
+
+	/**
+	 * Adds several ints, decoding and re-encoding each block they fall in once rather than
+	 * once per int. Ints larger than all the others are appended as add would.
+	 *
+	 * @param values - the ints to add, in increasing order without repeats
+	 * @param count  - the number of ints
+	 */
+	void addAll(int[] values, int count) {
+		int i = 0;
+		while (i < count && blockCount > 0 && values[i] <= last) {
+			int b = Math.max(0, findBlock(values[i]));
+			int end = i;
+			while (end < count && values[end] <= last && (b + 1 == blockCount || values[end] < firsts[b + 1]))
+				end++;
+
+			int[] block = decode(b, end - i);
+			int merged = merge(block, counts[b], values, i, end);
+			size += merged - counts[b];
+			i = end;
+
+			int pieces = (merged + BLOCK - 1) / BLOCK;
+			int from = merged;
+			for (int p = pieces - 1; p > 0; p--) {
+				int start = merged * p / pieces;
+				insertBlock(b + 1, Arrays.copyOfRange(block, start, from), from - start);
+				from = start;
+			}
+			encode(b, block, 0, from);
+		}
+
+		for (; i < count; i++)
+			if (blockCount == 0 || values[i] > last)
+				append(values[i]);
+	}
+
+	/**
+	 * Removes several ints, decoding and re-encoding each block they fall in once rather
+	 * than once per int.
+	 *
+	 * @param values - the ints to remove, in increasing order without repeats
+	 * @param count  - the number of ints
+	 */
+	void removeAll(int[] values, int count) {
+		int i = 0;
+		while (i < count && blockCount > 0 && values[i] <= last) {
+			int b = findBlock(values[i]);
+			if (b < 0) {
+				i++;
+				continue;
+			}
+
+			int[] block = decode(b, 0);
+			int kept = 0;
+			for (int k = 0; k < counts[b]; k++) {
+				while (i < count && values[i] < block[k])
+					i++;
+				if (i < count && values[i] == block[k])
+					i++;
+				else
+					block[kept++] = block[k];
+			}
+			while (i < count && (b + 1 == blockCount || values[i] < firsts[b + 1]))
+				i++;
+
+			size -= counts[b] - kept;
+			if (kept == 0) {
+				removeBlock(b);
+			} else {
+				encode(b, block, 0, kept);
+			}
+		}
+
+		if (size > 0)
+			last = lastOfBlock(blockCount - 1);
+	}
+
+	/**
+	 * Merges sorted ints into the start of a block array that has room for them, skipping
+	 * ints already present.
+	 *
+	 * @param block  - the block's ints, followed by free room
+	 * @param size   - the number of ints in the block
+	 * @param values - the sorted ints to merge in
+	 * @param from   - the first of them
+	 * @param to     - the end of them
+	 * @return - the number of ints in the block afterwards
+	 */
+	private static int merge(int[] block, int size, int[] values, int from, int to) {
+		int[] old = Arrays.copyOf(block, size);
+		int n = 0;
+		int a = 0;
+		int v = from;
+
+		while (a < size || v < to) {
+			if (v == to || (a < size && old[a] < values[v])) {
+				block[n++] = old[a++];
+			} else {
+				if (a < size && old[a] == values[v])
+					a++;
+				block[n++] = values[v++];
+			}
+		}
+
+		return n;
+	}
+
+	/**
+	 * Checks whether an int is in the list.
+	 *
+	 * @param value - the int to look for
+	 * @return - true if the int is present
+	 */
+	boolean contains(int value) {
+		int b = findBlock(value);
+		if (b < 0)
+			return false;
+		if (firsts[b] == value)
+			return true;
+
+		int current = firsts[b];
+		byte[] bytes = gaps[b];
+		int pos = 0;
+		for (int i = 1; i < counts[b] && current < value; i++) {
+			int gap = 0;
+			for (int shift = 0;; shift += 7) {
+				byte next = bytes[pos++];
+				gap |= (next & 0x7F) << shift;
+				if (next >= 0)
+					break;
+			}
+			current += gap;
+		}
+
+		return current == value;
+	}
+
+	/**
+	 * Passes every int in the list to an action, in increasing order.
+	 *
+	 * @param action - what to do with each int
+	 */
+	void forEach(IntConsumer action) {
+		for (int b = 0; b < blockCount; b++) {
+			int[] block = decode(b, 0);
+			for (int i = 0; i < counts[b]; i++)
+				action.accept(block[i]);
+		}
+	}
+
+	/**
+	 * Gets a Cursor positioned before the first int of the list.
+	 *
+	 * @return - a new Cursor
+	 */
+	Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Moves forward through the list, skipping whole blocks where it can. Used to
+	 * intersect lists without looking up every int of one in the others. The list must
+	 * not change while a Cursor is in use.
+	 */
+	class Cursor {
+		private int block = -1;
+		private int[] ints;
+		private int index;
+
+		/**
+		 * Moves to the first int not less than a target. Targets must not decrease.
+		 *
+		 * @param target - the smallest int to stop at
+		 * @return - that int, or -1 if there is none
+		 */
+		int advance(int target) {
+			if (blockCount == 0 || target > last)
+				return -1;
+
+			if (block < 0 || target > ints[counts[block] - 1]) {
+				int low = Math.max(block, 0);
+				int high = blockCount - 1;
+				while (low < high) {
+					int mid = (low + high + 1) >>> 1;
+					if (firsts[mid] <= target)
+						low = mid;
+					else
+						high = mid - 1;
+				}
+
+				if (low != block) {
+					block = low;
+					ints = decode(block, 0);
+					index = 0;
+				}
+
+				if (target > ints[counts[block] - 1]) {
+					block++;
+					ints = decode(block, 0);
+					index = 0;
+				}
+			}
+
+			while (ints[index] < target)
+				index++;
+
+			return ints[index];
+		}
+	}
+
+	/**
+	 * Adds an int greater than every int in the list by writing its gap onto the end of the
+	 * last block, without decoding it. Lists built in increasing order only take this path.
+	 *
+	 * @param value - the int to add
+	 */
+	private void append(int value) {
+		int gap = value - last;
+		size++;
+		last = value;
+
+		int b = blockCount - 1;
+		if (b < 0 || counts[b] == BLOCK) {
+			if (b >= 0 && gaps[b].length > gapBytes[b])
+				gaps[b] = Arrays.copyOf(gaps[b], gapBytes[b]);
+			insertBlock(blockCount, new int[] { value }, 1);
+			return;
+		}
+
+		if (gaps[b].length - gapBytes[b] < 5)
+			gaps[b] = Arrays.copyOf(gaps[b], Math.max(8, gaps[b].length * 2));
+
+		byte[] bytes = gaps[b];
+		while ((gap & ~0x7F) != 0) {
+			bytes[gapBytes[b]++] = (byte) ((gap & 0x7F) | 0x80);
+			gap >>>= 7;
+		}
+		bytes[gapBytes[b]++] = (byte) gap;
+		counts[b]++;
+	}
+
+	/**
+	 * Gets the largest int in a block.
+	 *
+	 * @param b - the block
+	 * @return - its last int
+	 */
+	private int lastOfBlock(int b) {
+		return decode(b, 0)[counts[b] - 1];
+	}
+
+	/**
+	 * Finds the block that would contain an int: the last block whose first int is not
+	 * greater than it.
+	 *
+	 * @param value - the int to look for
+	 * @return - the block index, or -1 if the int is below every block
+	 */
+	private int findBlock(int value) {
+		int low = 0;
+		int high = blockCount - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (firsts[mid] <= value)
+				low = mid + 1;
+			else
+				high = mid - 1;
+		}
+
+		return high;
+	}
+
+	/**
+	 * Decodes a block into a new array.
+	 *
+	 * @param b     - the block
+	 * @param extra - how much room to leave after the block's ints
+	 * @return - the block's ints
+	 */
+	private int[] decode(int b, int extra) {
+		int[] block = new int[counts[b] + extra];
+		byte[] bytes = gaps[b];
+		int pos = 0;
+
+		block[0] = firsts[b];
+		for (int i = 1; i < counts[b]; i++) {
+			int gap = 0;
+			for (int shift = 0;; shift += 7) {
+				byte next = bytes[pos++];
+				gap |= (next & 0x7F) << shift;
+				if (next >= 0)
+					break;
+			}
+			block[i] = block[i - 1] + gap;
+		}
+
+		return block;
+	}
+
+	/**
+	 * Replaces the contents of a block.
+	 *
+	 * @param b     - the block
+	 * @param block - the sorted ints to store
+	 * @param from  - the position of the first int to store
+	 * @param count - the number of ints to store
+	 */
+	private void encode(int b, int[] block, int from, int count) {
+		byte[] bytes = new byte[(count - 1) * 5];
+		int pos = 0;
+
+		for (int i = from + 1; i < from + count; i++) {
+			int gap = block[i] - block[i - 1];
+			while ((gap & ~0x7F) != 0) {
+				bytes[pos++] = (byte) ((gap & 0x7F) | 0x80);
+				gap >>>= 7;
+			}
+			bytes[pos++] = (byte) gap;
+		}
+
+		firsts[b] = block[from];
+		gaps[b] = pos == 0 ? EMPTY : Arrays.copyOf(bytes, pos);
+		gapBytes[b] = pos;
+		counts[b] = count;
+	}
+
+	/**
+	 * Inserts a block into the block table.
+	 *
+	 * @param b     - the position of the new block
+	 * @param block - the sorted ints of the new block
+	 * @param count - the number of ints in the block
+	 */
+	private void insertBlock(int b, int[] block, int count) {
+		if (blockCount == firsts.length) {
+			int capacity = blockCount * 2;
+			firsts = Arrays.copyOf(firsts, capacity);
+			gaps = Arrays.copyOf(gaps, capacity);
+			gapBytes = Arrays.copyOf(gapBytes, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+		}
+
+		System.arraycopy(firsts, b, firsts, b + 1, blockCount - b);
+		System.arraycopy(gaps, b, gaps, b + 1, blockCount - b);
+		System.arraycopy(gapBytes, b, gapBytes, b + 1, blockCount - b);
+		System.arraycopy(counts, b, counts, b + 1, blockCount - b);
+		blockCount++;
+		encode(b, block, 0, count);
+	}
+
+	/**
+	 * Removes an empty block from the block table.
+	 *
+	 * @param b - the block to remove
+	 */
+	private void removeBlock(int b) {
+		blockCount--;
+		System.arraycopy(firsts, b + 1, firsts, b, blockCount - b);
+		System.arraycopy(gaps, b + 1, gaps, b, blockCount - b);
+		System.arraycopy(gapBytes, b + 1, gapBytes, b, blockCount - b);
+		System.arraycopy(counts, b + 1, counts, b, blockCount - b);
+		gaps[blockCount] = null;
+	}
+}
@@ -0,0 +1,94 @@
+package comprehensive;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * A read-only SortedMap over a list of entries that are already in ascending key order.
+ * Handing one to the TreeMap(SortedMap) constructor makes TreeMap build its tree directly
+ * from the sorted entries in linear time instead of inserting them one by one. Only the
+ * operations that constructor uses are supported.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+class PresortedMap<K, V> extends AbstractMap<K, V> implements SortedMap<K, V> {
+	private final List<? extends Map.Entry<K, V>> entries;
+
+	/**
+	 * Constructor for PresortedMap. The caller guarantees that the keys are unique and in
+	 * ascending natural order.
+	 *
+	 * @param entries - the sorted entries
+	 */
+	PresortedMap(List<? extends Map.Entry<K, V>> entries) {
+		this.entries = entries;
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<Map.Entry<K, V>>() {
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator() {
+				Iterator<? extends Map.Entry<K, V>> it = entries.iterator();
+				return new Iterator<Map.Entry<K, V>>() {
+					@Override
+					public boolean hasNext() {
+						return it.hasNext();
+					}
+
+					@Override
+					public Map.Entry<K, V> next() {
+						return it.next();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return entries.size();
+			}
+		};
+	}
+
+	@Override
+	public Comparator<? super K> comparator() {
+		return null;
+	}
+
+	@Override
+	public K firstKey() {
+		return entries.get(0).getKey();
+	}
+
+	@Override
+	public K lastKey() {
+		return entries.get(entries.size() - 1).getKey();
+	}
+
+	@Override
+	public SortedMap<K, V> subMap(K fromKey, K toKey) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public SortedMap<K, V> headMap(K toKey) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public SortedMap<K, V> tailMap(K fromKey) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,290 @@
+package comprehensive;
+
+import java.util.HashMap;
+
+/**
+ * A bounded cache of the arrays Glossary renders for a word (getMerged, getPOS and
+ * getSplit), so that looking up the same words again doesn't rebuild them. Entries are
+ * kept by W-TinyLFU:
+ * <ul>
+ * <li>New words enter a small LRU window, 1% of the cache.</li>
+ * <li>A word leaving the window only displaces a word of the main area if it has been
+ * asked for more often recently. Frequencies come from a count-min sketch of 4-bit
+ * counters that are halved every 10 * capacity lookups, so old popularity fades.</li>
+ * <li>The main area is a segmented LRU: a word asked for again while on probation moves
+ * to the protected segment, 80% of the main area.</li>
+ * </ul>
+ * A scan over many words that are each read once therefore passes through the window
+ * without evicting the hot words. Methods are synchronized, so readers on several threads
+ * can share the cache.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+class RenderCache {
+	/** The kinds of rendering kept for each word. */
+	static final int MERGED = 0;
+	static final int POS = 1;
+	static final int SPLIT = 2;
+
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+	private static final int[] SEEDS = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+
+	/**
+	 * A cached word, linked into the list of its segment.
+	 */
+	private static class Node {
+		final String word;
+		final Object[] renderings = new Object[3];
+		int segment;
+		Node prev;
+		Node next;
+
+		Node(String word) {
+			this.word = word;
+			prev = this;
+			next = this;
+		}
+	}
+
+	private final HashMap<String, Node> nodes;
+	/** The sentinel of each segment's list, most recently used first. */
+	private final Node[] lists;
+	private final int[] sizes;
+	private final int windowCapacity;
+	private final int mainCapacity;
+	private final int protectedCapacity;
+	private final long[] sketch;
+	private final int sampleSize;
+	private int additions;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Constructor for an empty RenderCache.
+	 *
+	 * @param capacity - the most words to keep; must be positive
+	 */
+	RenderCache(int capacity) {
+		nodes = new HashMap<String, Node>();
+		lists = new Node[] { new Node(null), new Node(null), new Node(null) };
+		sizes = new int[3];
+		windowCapacity = Math.max(1, capacity / 100);
+		mainCapacity = capacity - windowCapacity;
+		protectedCapacity = mainCapacity * 4 / 5;
+		sketch = new long[Math.max(8, Integer.highestOneBit(capacity - 1) << 1)];
+		sampleSize = 10 * capacity;
+	}
+
+	/**
+	 * Gets a cached rendering of a word, counting a hit or a miss.
+	 *
+	 * @param word - the word
+	 * @param kind - MERGED, POS or SPLIT
+	 * @return - the rendering, or null if it isn't cached
+	 */
+	synchronized Object get(String word, int kind) {
+		increment(word);
+
+		Node node = nodes.get(word);
+		if (node == null || node.renderings[kind] == null) {
+			misses++;
+			return null;
+		}
+
+		hits++;
+		if (node.segment == PROBATION) {
+			move(node, PROTECTED);
+			if (sizes[PROTECTED] > protectedCapacity)
+				move(lists[PROTECTED].prev, PROBATION);
+		} else {
+			move(node, node.segment);
+		}
+
+		return node.renderings[kind];
+	}
+
+	/**
+	 * Caches a rendering of a word, which may evict another word.
+	 *
+	 * @param word      - the word
+	 * @param kind      - MERGED, POS or SPLIT
+	 * @param rendering - the rendering; must not be changed afterwards
+	 */
+	synchronized void put(String word, int kind, Object rendering) {
+		Node node = nodes.get(word);
+		if (node != null) {
+			node.renderings[kind] = rendering;
+			return;
+		}
+
+		node = new Node(word);
+		node.renderings[kind] = rendering;
+		nodes.put(word, node);
+		link(node, WINDOW);
+
+		if (sizes[WINDOW] > windowCapacity)
+			leaveWindow(lists[WINDOW].prev);
+	}
+
+	/**
+	 * Drops every rendering of a word, after the word's definitions change.
+	 *
+	 * @param word - the word
+	 */
+	synchronized void invalidate(String word) {
+		Node node = nodes.remove(word);
+		if (node != null)
+			unlink(node);
+	}
+
+	/**
+	 * Drops every word's renderings, after the glossary's contents are replaced. The
+	 * lookup frequencies and statistics are kept.
+	 */
+	synchronized void clear() {
+		nodes.clear();
+		for (int segment = 0; segment < lists.length; segment++) {
+			lists[segment].prev = lists[segment];
+			lists[segment].next = lists[segment];
+			sizes[segment] = 0;
+		}
+	}
+
+	/**
+	 * Gets the number of lookups that were answered from the cache, that were not, and
+	 * the number of words evicted to make room.
+	 *
+	 * @return - the hits, misses, and evictions, in that order
+	 */
+	synchronized long[] stats() {
+		return new long[] { hits, misses, evictions };
+	}
+
+	/**
+	 * Moves the least recently used word out of the window. It joins the main area if
+	 * there is room or if it is used more often than the word the main area would evict
+	 * next; otherwise it is evicted itself.
+	 *
+	 * @param candidate - the window's least recently used word
+	 */
+	private void leaveWindow(Node candidate) {
+		if (sizes[PROBATION] + sizes[PROTECTED] < mainCapacity) {
+			move(candidate, PROBATION);
+			return;
+		}
+
+		Node victim = sizes[PROBATION] > 0 ? lists[PROBATION].prev : lists[PROTECTED].prev;
+		if (victim != lists[PROTECTED] && frequency(candidate.word) > frequency(victim.word)) {
+			evict(victim);
+			move(candidate, PROBATION);
+		} else {
+			evict(candidate);
+		}
+	}
+
+	/**
+	 * Removes a word to make room.
+	 *
+	 * @param node - the word's node
+	 */
+	private void evict(Node node) {
+		unlink(node);
+		nodes.remove(node.word);
+		evictions++;
+	}
+
+	/**
+	 * Moves a node to the front of a segment's list.
+	 *
+	 * @param node    - the node
+	 * @param segment - the segment
+	 */
+	private void move(Node node, int segment) {
+		unlink(node);
+		link(node, segment);
+	}
+
+	/**
+	 * Adds a node to the front of a segment's list.
+	 *
+	 * @param node    - the node
+	 * @param segment - the segment
+	 */
+	private void link(Node node, int segment) {
+		Node head = lists[segment];
+		node.segment = segment;
+		node.prev = head;
+		node.next = head.next;
+		head.next.prev = node;
+		head.next = node;
+		sizes[segment]++;
+	}
+
+	/**
+	 * Removes a node from its segment's list.
+	 *
+	 * @param node - the node
+	 */
+	private void unlink(Node node) {
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		sizes[node.segment]--;
+	}
+
+	/**
+	 * Counts a lookup of a word in the sketch, halving every counter once enough lookups
+	 * have been counted.
+	 *
+	 * @param word - the word
+	 */
+	private void increment(String word) {
+		int hash = word.hashCode();
+		for (int seed : SEEDS) {
+			int h = spread(hash, seed);
+			int index = (h >>> 4) & (sketch.length - 1);
+			int shift = (h & 15) << 2;
+			if (((sketch[index] >>> shift) & 15) < 15)
+				sketch[index] += 1L << shift;
+		}
+
+		if (++additions >= sampleSize) {
+			for (int i = 0; i < sketch.length; i++)
+				sketch[i] = (sketch[i] >>> 1) & 0x7777777777777777L;
+			additions /= 2;
+		}
+	}
+
+	/**
+	 * Estimates how often a word was looked up recently: the smallest of its counters.
+	 *
+	 * @param word - the word
+	 * @return - the estimate, from 0 to 15
+	 */
+	private int frequency(String word) {
+		int hash = word.hashCode();
+		int frequency = 15;
+		for (int seed : SEEDS) {
+			int h = spread(hash, seed);
+			int index = (h >>> 4) & (sketch.length - 1);
+			frequency = Math.min(frequency, (int) (sketch[index] >>> ((h & 15) << 2)) & 15);
+		}
+
+		return frequency;
+	}
+
+	/**
+	 * Derives one of the sketch's hash functions from a hash code.
+	 *
+	 * @param hash - the hash code
+	 * @param seed - the hash function's seed
+	 * @return - the mixed hash
+	 */
+	private static int spread(int hash, int seed) {
+		int h = (hash ^ seed) * seed;
+		return h ^ (h >>> 15);
+	}
+}
@@ -0,0 +1,439 @@
+package comprehensive;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Runs a script of glossary commands, one per line, writing each command's response
+ * followed by an empty line. Fields are separated by tabs, since words and definitions
+ * can contain spaces. Empty lines and lines starting with '#' are skipped.
+ *
+ * <pre>
+ * get       word                        the word's entries, or "word not found"
+ * range     start  end                  the words between start and end, one per line
+ * pos       word                        the word's parts of speech, or "word not found"
+ * first                                 the first word, or "dictionary is empty"
+ * last                                  the last word, or "dictionary is empty"
+ * metadata                              the counts of words, definitions, and parts of
+ *                                       speech, and the first and last words
+ * stats                                 definition lengths, definitions per word, and
+ *                                       the most-defined words
+ * add       word   pos  def             "added" or "not added"
+ * update    word   pos  oldDef  newDef  "updated" or "not updated"
+ * delete    word   pos  def             "deleted" or "not deleted"
+ * save      path                        "saved" or "not saved"
+ * </pre>
+ *
+ * A malformed command gets a response starting with "error: ". Consecutive edits are
+ * queued and applied together with Glossary.applyBatch when the next other command
+ * comes, so the responses are the same as applying them one at a time.
+ * <p>
+ * Several ScriptRunners can share a glossary through a ReadWriteLock: lookups and saves
+ * hold the read lock and edits the write lock. A range holds it a page at a time, and a
+ * save only while the glossary is captured, so neither holds up edits for long.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class ScriptRunner {
+	/** The most edits queued before they are applied. */
+	private static final int MAX_PENDING = 4096;
+	/** The most words of a range read under the lock at once. */
+	private static final int RANGE_PAGE = 256;
+	/** The most-defined words a stats command lists. */
+	private static final int TOP_WORDS = 10;
+
+	private final GlossaryView view;
+	/** The editable glossary behind view, or null if view is read-only. */
+	private final Glossary glossary;
+	private final Writer out;
+	private final ReadWriteLock lock;
+
+	/** Edits queued but not yet applied, with their commands' names. */
+	private GlossaryBatch pending = new GlossaryBatch();
+	private String[] pendingCommands = new String[MAX_PENDING];
+
+	private int commands;
+	private int lookups;
+
+	/**
+	 * Constructor for a ScriptRunner that has the glossary to itself. If view is not a
+	 * Glossary, such as a MappedGlossary, edits and saves are refused.
+	 *
+	 * @param view - the glossary to run commands against
+	 * @param out  - where to write the responses; should be buffered
+	 */
+	public ScriptRunner(GlossaryView view, Writer out) {
+		this(view, out, new ReentrantReadWriteLock());
+	}
+
+	/**
+	 * Constructor for a ScriptRunner that shares the glossary with other threads.
+	 *
+	 * @param view - the glossary to run commands against
+	 * @param out  - where to write the responses; should be buffered
+	 * @param lock - the lock every thread using the glossary goes through
+	 */
+	public ScriptRunner(GlossaryView view, Writer out, ReadWriteLock lock) {
+		this.view = view;
+		this.glossary = view instanceof Glossary ? (Glossary) view : null;
+		this.out = out;
+		this.lock = lock;
+	}
+
+	/**
+	 * Runs every command in a script, then applies any edits still queued. Whenever the
+	 * script has no more input ready, the responses so far are flushed, so a client that
+	 * waits for each response before sending more gets it.
+	 *
+	 * @param script - the commands
+	 * @return - the number of commands run
+	 * @throws IOException if the script can't be read or the responses can't be written
+	 */
+	public int run(BufferedReader script) throws IOException {
+		while (true) {
+			if (!script.ready()) {
+				applyPending();
+				out.flush();
+			}
+
+			String line = script.readLine();
+			if (line == null)
+				break;
+			if (!line.isEmpty() && line.charAt(0) != '#')
+				runCommand(line.split("\t", -1));
+		}
+
+		applyPending();
+		out.flush();
+		return commands;
+	}
+
+	/**
+	 * Gets the number of commands run so far that only look the glossary up.
+	 *
+	 * @return - the number of lookups
+	 */
+	public int getLookups() {
+		return lookups;
+	}
+
+	/**
+	 * Runs one command.
+	 *
+	 * @param fields - the command's name followed by its arguments
+	 * @throws IOException if the response can't be written
+	 */
+	private void runCommand(String[] fields) throws IOException {
+		commands++;
+		String command = fields[0];
+
+		switch (command) {
+			case "add" -> {
+				if (checkEdit(fields, 4)) {
+					if (PartOfSpeech.fromLabel(fields[2]) == null) {
+						applyPending();
+						respond("error: unknown part of speech " + fields[2]);
+					} else {
+						queue(command, pending.add(fields[1], fields[2], fields[3]));
+					}
+				}
+			}
+			case "update" -> {
+				if (checkEdit(fields, 5))
+					queue(command, pending.updateDef(fields[1], fields[2], fields[3], fields[4]));
+			}
+			case "delete" -> {
+				if (checkEdit(fields, 4))
+					queue(command, pending.deleteDef(fields[1], fields[2], fields[3]));
+			}
+			default -> {
+				applyPending();
+				runLookupOrSave(fields);
+			}
+		}
+	}
+
+	/**
+	 * Runs a command that is not an edit.
+	 *
+	 * @param fields - the command's name followed by its arguments
+	 * @throws IOException if the response can't be written
+	 */
+	private void runLookupOrSave(String[] fields) throws IOException {
+		String command = fields[0];
+		int count = switch (command) {
+			case "first", "last", "metadata", "stats" -> 1;
+			case "get", "pos", "save" -> 2;
+			case "range" -> 3;
+			default -> 0;
+		};
+
+		if (count == 0) {
+			respond("error: unknown command " + command);
+			return;
+		}
+		if (!checkFields(fields, count) || (command.equals("save") || command.equals("stats")) && isReadOnly())
+			return;
+
+		if (command.equals("range")) {
+			lookups++;
+			getRange(fields[1], fields[2]);
+			return;
+		}
+		if (command.equals("save")) {
+			save(fields[1]);
+			return;
+		}
+
+		lock.readLock().lock();
+		try {
+			switch (command) {
+				case "get", "pos" -> {
+					lookups++;
+					boolean found = command.equals("get") ? view.appendMerged(fields[1], out)
+							: view.appendPOS(fields[1], out);
+					if (found)
+						out.write("\n\n");
+					else
+						respond(fields[1] + " not found");
+				}
+				case "first", "last" -> {
+					lookups++;
+					if (view.size() == 0)
+						respond("dictionary is empty");
+					else
+						respond(command.equals("first") ? view.getFirst() : view.getLast());
+				}
+				case "metadata" -> {
+					lookups++;
+					getMetadata();
+				}
+				default -> {
+					lookups++;
+					getStats();
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Saves the glossary in the background and waits for it. The read lock is held only
+	 * while the glossary is captured, so edits go on while the file is written.
+	 *
+	 * @param filePath - the path of the file to save to
+	 * @throws IOException if the response can't be written
+	 */
+	private void save(String filePath) throws IOException {
+		GlossarySave save;
+		lock.readLock().lock();
+		try {
+			save = glossary.saveInBackground(filePath);
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		respond(save.await() ? "saved" : "not saved");
+	}
+
+	/**
+	 * Writes the words between two words, one per line, a page at a time.
+	 *
+	 * @param start - the starting word
+	 * @param end   - the ending word
+	 * @throws IOException if the response can't be written
+	 */
+	private void getRange(String start, String end) throws IOException {
+		String cursor = null;
+
+		do {
+			GlossaryPage page;
+			lock.readLock().lock();
+			try {
+				page = view.getPage(start, end, RANGE_PAGE, cursor, false);
+			} finally {
+				lock.readLock().unlock();
+			}
+
+			for (String word : page.getWords())
+				out.append(word).append('\n');
+			cursor = page.getCursor();
+		} while (cursor != null);
+
+		out.write('\n');
+	}
+
+	/**
+	 * Writes the counts of words, definitions, and each part of speech, and the first and
+	 * last words, one per line.
+	 *
+	 * @throws IOException if the response can't be written
+	 */
+	private void getMetadata() throws IOException {
+		int words = view.size();
+		int definitions = view.definitions();
+
+		out.append("words: ").append(Integer.toString(words));
+		out.append("\ndefinitions: ").append(Integer.toString(definitions));
+		out.append("\ndefinitions per word: ")
+				.append(String.format("%.3f", words == 0 ? 0.0 : (double) definitions / words));
+		out.append("\nparts of speech: ").append(Integer.toString(view.getPosCount()));
+
+		int[] posCounts = view.getPosCounts();
+		for (int i = 0; i < posCounts.length; i++)
+			if (posCounts[i] > 0)
+				out.append("\n\t").append(Term.posOrder[i]).append(": ").append(Integer.toString(posCounts[i]));
+
+		out.append("\nfirst word: ").append(view.getFirst());
+		out.append("\nlast word: ").append(view.getLast());
+		out.write("\n\n");
+	}
+
+	/**
+	 * Writes the glossary's statistics: the mean definition length overall and for each
+	 * part of speech, the definitions by length, the words by number of definitions, and
+	 * the most-defined words.
+	 *
+	 * @throws IOException if the response can't be written
+	 */
+	private void getStats() throws IOException {
+		GlossaryStats stats = glossary.getStats();
+
+		out.append("mean definition length: ").append(String.format("%.1f", stats.getMeanDefinitionLength()));
+		double[] means = stats.getMeanDefinitionLengths();
+		int[] posCounts = glossary.getPosCounts();
+		for (int i = 0; i < means.length; i++)
+			if (posCounts[i] > 0)
+				out.append("\n\t").append(Term.posOrder[i]).append(": ").append(String.format("%.1f", means[i]));
+
+		out.append("\ndefinitions by length:");
+		appendHistogram(stats.getDefinitionLengthHistogram());
+		out.append("\nmost definitions of a word: ").append(Integer.toString(stats.getMaxDefinitionsPerWord()));
+		out.append("\nwords by number of definitions:");
+		appendHistogram(stats.getDefinitionsPerWordHistogram());
+
+		out.append("\nwords with the most definitions:");
+		for (String[] row : stats.getTopWords(TOP_WORDS))
+			out.append("\n\t").append(row[0]).append(": ").append(row[1]);
+		out.write("\n\n");
+	}
+
+	/**
+	 * Writes the non-empty buckets of a GlossaryStats histogram, one per line.
+	 *
+	 * @param buckets - the count in each bucket
+	 * @throws IOException if the response can't be written
+	 */
+	private void appendHistogram(int[] buckets) throws IOException {
+		for (int i = 0; i < buckets.length; i++)
+			if (buckets[i] > 0)
+				out.append("\n\t").append(GlossaryStats.bucketLabel(i)).append(": ")
+						.append(Integer.toString(buckets[i]));
+	}
+
+	/**
+	 * Checks that an edit has the right number of fields and that the glossary can be
+	 * edited, responding with an error if not. Queued edits are applied first, so
+	 * responses stay in order.
+	 *
+	 * @param fields - the command's name followed by its arguments
+	 * @param count  - the number of fields it takes
+	 * @return - true if the edit can be queued
+	 * @throws IOException if the response can't be written
+	 */
+	private boolean checkEdit(String[] fields, int count) throws IOException {
+		if (fields.length == count && glossary != null)
+			return true;
+
+		applyPending();
+		if (checkFields(fields, count))
+			isReadOnly();
+		return false;
+	}
+
+	/**
+	 * Checks that a command has the right number of fields, responding with an error if
+	 * not.
+	 *
+	 * @param fields - the command's name followed by its arguments
+	 * @param count  - the number of fields it takes
+	 * @return - true if it has the right number
+	 * @throws IOException if the response can't be written
+	 */
+	private boolean checkFields(String[] fields, int count) throws IOException {
+		if (fields.length == count)
+			return true;
+
+		respond("error: " + fields[0] + " takes " + (count - 1) + (count == 2 ? " argument" : " arguments")
+				+ ", separated by tabs");
+		return false;
+	}
+
+	/**
+	 * Checks whether the glossary can be edited, responding with an error if it can't.
+	 *
+	 * @return - true if the glossary is read-only
+	 * @throws IOException if the response can't be written
+	 */
+	private boolean isReadOnly() throws IOException {
+		if (glossary == null)
+			respond("error: this dictionary is read-only");
+
+		return glossary == null;
+	}
+
+	/**
+	 * Notes the command of a queued edit, applying the queue once it is full.
+	 *
+	 * @param command  - the edit's command name
+	 * @param position - the edit's position in the queue
+	 * @throws IOException if the responses can't be written
+	 */
+	private void queue(String command, int position) throws IOException {
+		pendingCommands[position] = command;
+		if (pending.size() == MAX_PENDING)
+			applyPending();
+	}
+
+	/**
+	 * Applies the queued edits and writes their responses.
+	 *
+	 * @throws IOException if the responses can't be written
+	 */
+	private void applyPending() throws IOException {
+		if (pending.size() == 0)
+			return;
+
+		boolean[] results;
+		lock.writeLock().lock();
+		try {
+			results = glossary.applyBatch(pending);
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		for (int i = 0; i < results.length; i++)
+			switch (pendingCommands[i]) {
+				case "add" -> respond(results[i] ? "added" : "not added");
+				case "update" -> respond(results[i] ? "updated" : "not updated");
+				default -> respond(results[i] ? "deleted" : "not deleted");
+			}
+
+		pending = new GlossaryBatch();
+	}
+
+	/**
+	 * Writes a one-line response.
+	 *
+	 * @param response - the response
+	 * @throws IOException if it can't be written
+	 */
+	private void respond(String response) throws IOException {
+		out.append(response).append("\n\n");
+	}
+}
@@ -0,0 +1,413 @@
+package comprehensive;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compact sorted set of words. Words are stored in sorted String arrays ("blocks") of
+ * at most {@link #BLOCK} entries, so the set costs a few bytes per word instead of a tree
+ * node per word. A word is located by binary searching the first word of each block and
+ * then the block itself. Inserting shifts at most one block, and a full block is split in
+ * two.
+ * <p>
+ * A Fenwick tree over the block sizes counts the words before any block in O(log n), so
+ * a word's rank, the word at a rank, and the number of words in a range are found
+ * without walking the words. Adding or removing a word updates the tree in O(log n).
+ * Splitting or removing a block shifts the later blocks, so the tree is then rebuilt in
+ * O(n / BLOCK) when it is next used; a block only splits after about BLOCK / 2 inserts.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+class SortedWordList {
+	/** The maximum number of words in a block. */
+	private static final int BLOCK = 512;
+	/** Blocks built in bulk are filled to this size, leaving room for later inserts. */
+	private static final int BULK_FILL = BLOCK * 3 / 4;
+
+	private String[][] blocks;
+	private int[] blockSizes;
+	private int blockCount;
+	private int size;
+	/** The Fenwick tree of block sizes, indexed from 1, or null until it is rebuilt. */
+	private int[] prefixTree;
+
+	/**
+	 * Constructor for an empty SortedWordList.
+	 */
+	SortedWordList() {
+		blocks = new String[4][];
+		blockSizes = new int[4];
+		blockCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of words in the list.
+	 *
+	 * @return - the number of words
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Adds a word that sorts after every word already in the list. Used to build a list
+	 * from words that arrive in sorted order.
+	 *
+	 * @param word - the word to append
+	 */
+	void append(String word) {
+		if (blockCount == 0 || blockSizes[blockCount - 1] >= BULK_FILL)
+			insertBlock(blockCount, new String[BLOCK], 0);
+
+		blocks[blockCount - 1][blockSizes[blockCount - 1]++] = word;
+		size++;
+		addToTree(blockCount - 1, 1);
+	}
+
+	/**
+	 * Adds a word in its sorted position.
+	 *
+	 * @param word - the word to add
+	 * @return - true if the word was not already present
+	 */
+	boolean add(String word) {
+		if (blockCount == 0) {
+			append(word);
+			return true;
+		}
+
+		int b = Math.max(0, findBlock(word));
+		String[] block = blocks[b];
+		int index = Arrays.binarySearch(block, 0, blockSizes[b], word);
+		if (index >= 0)
+			return false;
+
+		index = -index - 1;
+
+		if (blockSizes[b] == BLOCK) {
+			split(b);
+			if (index > blockSizes[b]) {
+				index -= blockSizes[b];
+				b++;
+			}
+			block = blocks[b];
+		}
+
+		System.arraycopy(block, index, block, index + 1, blockSizes[b] - index);
+		block[index] = word;
+		blockSizes[b]++;
+		size++;
+		addToTree(b, 1);
+
+		return true;
+	}
+
+	/**
+	 * Removes a word.
+	 *
+	 * @param word - the word to remove
+	 * @return - true if the word was present
+	 */
+	boolean remove(String word) {
+		int b = findBlock(word);
+		if (b < 0)
+			return false;
+
+		String[] block = blocks[b];
+		int index = Arrays.binarySearch(block, 0, blockSizes[b], word);
+		if (index < 0)
+			return false;
+
+		System.arraycopy(block, index + 1, block, index, blockSizes[b] - index - 1);
+		block[--blockSizes[b]] = null;
+		size--;
+
+		if (blockSizes[b] == 0)
+			removeBlock(b);
+		else
+			addToTree(b, -1);
+
+		return true;
+	}
+
+	/**
+	 * Checks whether a word is in the list.
+	 *
+	 * @param word - the word to look for
+	 * @return - true if the word is present
+	 */
+	boolean contains(String word) {
+		int b = findBlock(word);
+		return b >= 0 && Arrays.binarySearch(blocks[b], 0, blockSizes[b], word) >= 0;
+	}
+
+	/**
+	 * Counts the words that sort before a word. The word need not be in the list.
+	 *
+	 * @param word - the word
+	 * @return - the number of smaller words, which is the word's index if it is present
+	 */
+	int rank(String word) {
+		int b = findBlock(word);
+		if (b < 0)
+			return 0;
+
+		int index = Arrays.binarySearch(blocks[b], 0, blockSizes[b], word);
+		return countBefore(b) + (index >= 0 ? index : -index - 1);
+	}
+
+	/**
+	 * Gets the word at an index, in sorted order.
+	 *
+	 * @param index - the index, from 0
+	 * @return - the word
+	 * @throws IndexOutOfBoundsException if index is negative or not less than size()
+	 */
+	String get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+
+		int[] tree = prefixTree();
+		int b = 0;
+		for (int step = Integer.highestOneBit(blockCount); step > 0; step >>= 1)
+			if (b + step <= blockCount && tree[b + step] <= index) {
+				b += step;
+				index -= tree[b];
+			}
+
+		return blocks[b][index];
+	}
+
+	/**
+	 * Counts the words between two bounds, inclusive. Either bound may be null to leave
+	 * that end open.
+	 *
+	 * @param start - the smallest word to count, or null
+	 * @param end   - the largest word to count, or null
+	 * @return - the number of words in the range; 0 if start is after end
+	 */
+	int count(String start, String end) {
+		int from = start == null ? 0 : rank(start);
+		int to = end == null ? size : rank(end) + (contains(end) ? 1 : 0);
+		return Math.max(0, to - from);
+	}
+
+	/**
+	 * Gets a live, read-only view of the words between two bounds, inclusive. Either bound
+	 * may be null to leave that end open.
+	 *
+	 * @param start - the smallest word to include, or null
+	 * @param end   - the largest word to include, or null
+	 * @return - the words in the range, in order
+	 */
+	AbstractSet<String> range(String start, String end) {
+		return new AbstractSet<String>() {
+			@Override
+			public Iterator<String> iterator() {
+				return new RangeIterator(start, end);
+			}
+
+			@Override
+			public int size() {
+				return count(start, end);
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof String))
+					return false;
+
+				String word = (String) o;
+				return (start == null || word.compareTo(start) >= 0) && (end == null || word.compareTo(end) <= 0)
+						&& SortedWordList.this.contains(word);
+			}
+		};
+	}
+
+	/**
+	 * Walks the words between two bounds in order.
+	 */
+	private class RangeIterator implements Iterator<String> {
+		private final String end;
+		private int block;
+		private int index;
+		private String next;
+
+		/**
+		 * Constructor for RangeIterator, positioned at the first word not below the start.
+		 *
+		 * @param start - the smallest word to include, or null
+		 * @param end   - the largest word to include, or null
+		 */
+		RangeIterator(String start, String end) {
+			this.end = end;
+
+			if (start == null || blockCount == 0) {
+				block = 0;
+				index = 0;
+			} else {
+				block = Math.max(0, findBlock(start));
+				index = Arrays.binarySearch(blocks[block], 0, blockSizes[block], start);
+				if (index < 0)
+					index = -index - 1;
+			}
+
+			advance();
+		}
+
+		/**
+		 * Loads the word at the current position into next, or null past the end.
+		 */
+		private void advance() {
+			while (block < blockCount && index >= blockSizes[block]) {
+				block++;
+				index = 0;
+			}
+
+			next = block < blockCount ? blocks[block][index] : null;
+			if (next != null && end != null && next.compareTo(end) > 0)
+				next = null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public String next() {
+			if (next == null)
+				throw new NoSuchElementException();
+
+			String word = next;
+			index++;
+			advance();
+			return word;
+		}
+	}
+
+	/**
+	 * Finds the block that would contain a word: the last block whose first word is not
+	 * greater than it.
+	 *
+	 * @param word - the word to look for
+	 * @return - the block index, or -1 if the word sorts before every block
+	 */
+	private int findBlock(String word) {
+		int low = 0;
+		int high = blockCount - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (blocks[mid][0].compareTo(word) <= 0)
+				low = mid + 1;
+			else
+				high = mid - 1;
+		}
+
+		return high;
+	}
+
+	/**
+	 * Counts the words in the blocks before a block.
+	 *
+	 * @param b - the block
+	 * @return - the number of words before it
+	 */
+	private int countBefore(int b) {
+		int[] tree = prefixTree();
+		int count = 0;
+		for (int i = b; i > 0; i -= i & -i)
+			count += tree[i];
+
+		return count;
+	}
+
+	/**
+	 * Adds to the size of a block in the Fenwick tree, unless the tree is waiting to be
+	 * rebuilt.
+	 *
+	 * @param b     - the block
+	 * @param delta - the change in its size
+	 */
+	private void addToTree(int b, int delta) {
+		if (prefixTree == null)
+			return;
+
+		for (int i = b + 1; i <= blockCount; i += i & -i)
+			prefixTree[i] += delta;
+	}
+
+	/**
+	 * Gets the Fenwick tree of block sizes, rebuilding it in one pass if blocks were added
+	 * or removed since it was last used.
+	 *
+	 * @return - the tree
+	 */
+	private int[] prefixTree() {
+		if (prefixTree == null) {
+			prefixTree = new int[blocks.length + 1];
+			for (int i = 1; i <= blockCount; i++) {
+				prefixTree[i] += blockSizes[i - 1];
+				int parent = i + (i & -i);
+				if (parent <= blockCount)
+					prefixTree[parent] += prefixTree[i];
+			}
+		}
+
+		return prefixTree;
+	}
+
+	/**
+	 * Splits a full block into two halves.
+	 *
+	 * @param b - the block to split
+	 */
+	private void split(int b) {
+		int half = blockSizes[b] / 2;
+		String[] upper = new String[BLOCK];
+		System.arraycopy(blocks[b], half, upper, 0, blockSizes[b] - half);
+		Arrays.fill(blocks[b], half, blockSizes[b], null);
+
+		insertBlock(b + 1, upper, blockSizes[b] - half);
+		blockSizes[b] = half;
+	}
+
+	/**
+	 * Inserts a block into the block table.
+	 *
+	 * @param b         - the position of the new block
+	 * @param block     - the block
+	 * @param blockSize - the number of words in the block
+	 */
+	private void insertBlock(int b, String[] block, int blockSize) {
+		if (blockCount == blocks.length) {
+			blocks = Arrays.copyOf(blocks, blockCount * 2);
+			blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+		}
+
+		System.arraycopy(blocks, b, blocks, b + 1, blockCount - b);
+		System.arraycopy(blockSizes, b, blockSizes, b + 1, blockCount - b);
+		blocks[b] = block;
+		blockSizes[b] = blockSize;
+		blockCount++;
+		prefixTree = null;
+	}
+
+	/**
+	 * Removes an empty block from the block table.
+	 *
+	 * @param b - the block to remove
+	 */
+	private void removeBlock(int b) {
+		blockCount--;
+		System.arraycopy(blocks, b + 1, blocks, b, blockCount - b);
+		System.arraycopy(blockSizes, b + 1, blockSizes, b, blockCount - b);
+		blocks[blockCount] = null;
+		prefixTree = null;
+	}
+}
@@ -1,177 +1,435 @@
 package comprehensive;
 
-import java.util.HashMap;
-import java.util.TreeSet;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
- * Stores the definitions for a word in the glossary.
- * 
+ * Stores the definitions for a word in the glossary. Definitions are kept in two parallel
+ * arrays, one holding each definition's part of speech ordinal and the other the
+ * definition itself, sorted by part of speech and then by definition. The arrays start
+ * out sized for a single definition, which is the common case, and grow as needed.
+ *
  * @author Devin Santos and Tyler Christiansen
  * @version 2025-12-3
  */
 public class Term {
 	private int size;
 	private String word;
-	private HashMap<String, TreeSet<String>> definitions;
-	public static final String[] posOrder = new String[] { "adj", "adv", "conj", "interj", "noun", "prep", "pron",
-			"verb" };
+	private byte[] posOrdinals;
+	private String[] defs;
+	/** Whether the arrays are shared with a copy made by share, so must be copied before they change. */
+	private boolean shared;
+	/** The Term's id in the glossary's definition index, or -1 if it has none. */
+	int indexId = -1;
+	public static final String[] posOrder = PartOfSpeech.labels();
 
 	/**
 	 * Constructor for Term: every term must have at least one definition, which is associated
 	 * with a part of speech.
-	 * 
+	 *
 	 * @param word	- the word this term is associated with
 	 * @param pos	- the first part of speech to add
 	 * @param def	- the first definition to add
+	 * @throws IllegalArgumentException if the part of speech is not one of posOrder
 	 */
 	public Term(String word, String pos, String def) {
+		this(word, valueOf(pos), def);
+	}
+
+	/**
+	 * Constructor for Term with its first definition.
+	 *
+	 * @param word	- the word this term is associated with
+	 * @param pos	- the first part of speech to add
+	 * @param def	- the first definition to add
+	 */
+	Term(String word, PartOfSpeech pos, String def) {
 		this.word = word;
-		size = 0;
-		definitions = new HashMap<String, TreeSet<String>>();
-		add(pos, def);
+		size = 1;
+		posOrdinals = new byte[] { (byte) pos.ordinal() };
+		defs = new String[] { def };
 	}
 
 	/**
-	 * Adds a definition to the tree for its corresponding part of speech, creating a new
-	 * tree if needed (i.e. when this part of speech doesn't yet exist for this Term).
-	 * 
+	 * Constructor for Term from definitions that are already sorted by part of speech
+	 * ordinal and then by definition, with no duplicates. The arrays are used as-is.
+	 *
+	 * @param word			- the word this term is associated with
+	 * @param posOrdinals	- the part of speech ordinal of each definition
+	 * @param defs			- the definitions
+	 * @param size			- the number of definitions in the arrays
+	 */
+	Term(String word, byte[] posOrdinals, String[] defs, int size) {
+		this.word = word;
+		this.posOrdinals = posOrdinals;
+		this.defs = defs;
+		this.size = size;
+	}
+
+	/**
+	 * Adds a definition in its sorted position among the definitions for its part of
+	 * speech.
+	 *
 	 * @param pos	- the part of speech associated with the definition
 	 * @param def	- the definition to add
 	 * @return - true if the definition was successfully added
+	 * @throws IllegalArgumentException if the part of speech is not one of posOrder
 	 */
 	public boolean add(String pos, String def) {
-		if (!definitions.containsKey(pos))
-			definitions.put(pos, new TreeSet<String>());
+		return add(valueOf(pos), def);
+	}
+
+	/**
+	 * Adds a definition in its sorted position among the definitions for its part of
+	 * speech.
+	 *
+	 * @param pos	- the part of speech associated with the definition
+	 * @param def	- the definition to add
+	 * @return - true if the definition was successfully added
+	 */
+	boolean add(PartOfSpeech pos, String def) {
+		return add(pos.ordinal(), def);
+	}
+
+	/**
+	 * Adds a definition in its sorted position.
+	 *
+	 * @param ordinal	- the part of speech ordinal of the definition
+	 * @param def		- the definition to add
+	 * @return - true if the definition was successfully added
+	 */
+	private boolean add(int ordinal, String def) {
+		int index = indexOf(ordinal, def);
+		if (index >= 0)
+			return false;
+
+		index = -index - 1;
+
+		if (size == defs.length || shared) {
+			int capacity = size == defs.length ? size + (size >> 1) + 1 : defs.length;
+			posOrdinals = Arrays.copyOf(posOrdinals, capacity);
+			defs = Arrays.copyOf(defs, capacity);
+			shared = false;
+		}
+
+		System.arraycopy(posOrdinals, index, posOrdinals, index + 1, size - index);
+		System.arraycopy(defs, index, defs, index + 1, size - index);
+		posOrdinals[index] = (byte) ordinal;
+		defs[index] = def;
+		size++;
 
-		boolean added = definitions.get(pos).add(def);
-		if (added)
-			size++;
+		return true;
+	}
+
+	/**
+	 * Adds every definition of another Term for the same word to this one. The other Term
+	 * should not be used afterwards.
+	 *
+	 * @param other	- the Term to merge into this one
+	 * @return - the number of definitions this Term already had, indexed by part of speech
+	 * ordinal, or null if every definition was new
+	 */
+	public int[] merge(Term other) {
+		int[] duplicates = null;
+
+		for (int i = 0; i < other.size; i++)
+			if (!add(other.posOrdinals[i], other.defs[i])) {
+				if (duplicates == null)
+					duplicates = new int[posOrder.length];
+				duplicates[other.posOrdinals[i]]++;
+			}
 
-		return added;
+		return duplicates;
 	}
 
-	/** 
-	 * Gets the Term's definitions and their parts of speech as an array of Strings. The 
-	 * entry at index 0 is the word itself. Each subsequent entry is an indented line with 
+	/**
+	 * Gets the Term's definitions and their parts of speech as an array of Strings. The
+	 * entry at index 0 is the word itself. Each subsequent entry is an indented line with
 	 * the part of speech and definition.
-	 * 
+	 *
 	 * @return - the definitions of the Term
 	 */
 	public String[] getMerged() {
-		int i = 1;
 		String[] returnArr = new String[size + 1];
-		TreeSet<String> posDef;
 
 		returnArr[0] = word;
 
-		for (String pos : posOrder) {
-			if (!definitions.containsKey(pos))
-				continue;
+		for (int i = 0; i < size; i++)
+			returnArr[i + 1] = "\t" + posOrder[posOrdinals[i]] + ".\t" + defs[i];
 
-			posDef = definitions.get(pos);
+		return returnArr;
+	}
 
-			for (String def : posDef)
-				returnArr[i++] = "\t" + pos + ".\t" + def;
-		}
+	/**
+	 * Writes the Term as getMerged renders it, with the entries separated by newlines and
+	 * no trailing newline. Nothing is copied into intermediate arrays or Strings.
+	 *
+	 * @param out	- where to write the Term
+	 * @throws IOException if the Term can't be written
+	 */
+	public void appendMerged(Appendable out) throws IOException {
+		out.append(word);
 
-		return returnArr;
+		for (int i = 0; i < size; i++)
+			out.append("\n\t").append(posOrder[posOrdinals[i]]).append(".\t").append(defs[i]);
 	}
 
-	/** 
-	 * Gets the definitions of the Term as a 2D array of Strings. Each row represents a 
-	 * single entry for this Term. The first column contains the part of speech and 
+	/**
+	 * Gets the definitions of the Term as a 2D array of Strings. Each row represents a
+	 * single entry for this Term. The first column contains the part of speech and
 	 * the second column contains the definition.
-	 * 
+	 *
 	 * @return - a 2D array of split definitions of the Term, with parts of speech in one
 	 * column and definitions in the other
 	 */
 	public String[][] getSplit() {
-		int i = 0;
 		String[][] returnArr = new String[size][2];
-		TreeSet<String> posDef;
 
-		for (String pos : posOrder) {
-			if (!definitions.containsKey(pos))
-				continue;
-
-			posDef = definitions.get(pos);
-
-			for (String def : posDef) {
-				returnArr[i][0] = pos;
-				returnArr[i++][1] = def;
-			}
+		for (int i = 0; i < size; i++) {
+			returnArr[i][0] = posOrder[posOrdinals[i]];
+			returnArr[i][1] = defs[i];
 		}
 
 		return returnArr;
 	}
 
 	/**
-	 * Returns an array containing the parts of speech used by this Term's definitions in 
+	 * Writes the Term's definitions in the glossary file format: one
+	 * "word::pos::definition" entry per definition, separated by newlines, with no
+	 * trailing newline. Nothing is copied into intermediate arrays.
+	 *
+	 * @param out	- where to write the entries
+	 * @throws IOException if the entries can't be written
+	 */
+	public void appendEntries(Appendable out) throws IOException {
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				out.append('\n');
+
+			out.append(word).append("::").append(posOrder[posOrdinals[i]]).append("::").append(defs[i]);
+		}
+	}
+
+	/**
+	 * Returns an array containing the parts of speech used by this Term's definitions in
 	 * lexicographic order.
-	 * 
+	 *
 	 * @return - the parts of speech used by this Term's definitions
 	 */
 	public String[] getPOS() {
-		int i = 1;
-		String[] returnArr = new String[definitions.size() + 1];
+		int distinct = 0;
+		for (int i = 0; i < size; i++)
+			if (i == 0 || posOrdinals[i] != posOrdinals[i - 1])
+				distinct++;
 
+		String[] returnArr = new String[distinct + 1];
 		returnArr[0] = word;
 
-		for (String pos : posOrder)
-			if (definitions.containsKey(pos))
-				returnArr[i++] = "\t" + pos;
+		int j = 1;
+		for (int i = 0; i < size; i++)
+			if (i == 0 || posOrdinals[i] != posOrdinals[i - 1])
+				returnArr[j++] = "\t" + posOrder[posOrdinals[i]];
 
 		return returnArr;
 	}
 
 	/**
-	 * Replaces a given definition.
-	 * 
+	 * Writes the Term as getPOS renders it, with the entries separated by newlines and no
+	 * trailing newline. Nothing is copied into intermediate arrays or Strings.
+	 *
+	 * @param out	- where to write the word and its parts of speech
+	 * @throws IOException if they can't be written
+	 */
+	public void appendPOS(Appendable out) throws IOException {
+		out.append(word);
+
+		for (int i = 0; i < size; i++)
+			if (i == 0 || posOrdinals[i] != posOrdinals[i - 1])
+				out.append("\n\t").append(posOrder[posOrdinals[i]]);
+	}
+
+	/**
+	 * Replaces a given definition. If the new definition was already present, the old one
+	 * is still removed, leaving the Term one definition smaller.
+	 *
 	 * @param pos		- the part of speech associated with the definition to update
 	 * @param oldDef		- the definition to update
 	 * @param newDef		- the updated definition
-	 * @return - true if the old definition was successfully removed and the new definition 
+	 * @return - true if the old definition was successfully removed and the new definition
 	 * was successfully added
 	 */
 	public boolean updateDef(String pos, String oldDef, String newDef) {
-		TreeSet<String> target = definitions.get(pos);
-		if (!target.remove(oldDef)) {
-			System.out.println("Old definition could not be removed.");
+		return updateDef(PartOfSpeech.fromLabel(pos), oldDef, newDef);
+	}
+
+	/**
+	 * Replaces a given definition.
+	 *
+	 * @param pos		- the part of speech associated with the definition to update, or null
+	 * @param oldDef		- the definition to update
+	 * @param newDef		- the updated definition
+	 * @return - true if the old definition was successfully removed and the new definition
+	 * was successfully added
+	 */
+	boolean updateDef(PartOfSpeech pos, String oldDef, String newDef) {
+		int index = pos == null ? -1 : indexOf(pos.ordinal(), oldDef);
+
+		if (index < 0)
 			return false;
-		}
 
-		return target.add(newDef);
+		removeAt(index);
+		return add(pos.ordinal(), newDef);
 	}
 
 	/**
-	 * Deletes a given definition. Removes the associated part of speech's backing TreeSet
-	 * if needed.
-	 * 
+	 * Deletes a given definition.
+	 *
 	 * @param pos	- the part of speech associated with the definition
 	 * @param def	- the definition to delete
 	 * @return - true if the definition was successfully removed
 	 */
 	public boolean deleteDef(String pos, String def) {
-		TreeSet<String> target = definitions.get(pos);
+		return deleteDef(PartOfSpeech.fromLabel(pos), def);
+	}
 
-		if (!target.remove(def))
+	/**
+	 * Deletes a given definition.
+	 *
+	 * @param pos	- the part of speech associated with the definition, or null
+	 * @param def	- the definition to delete
+	 * @return - true if the definition was successfully removed
+	 */
+	boolean deleteDef(PartOfSpeech pos, String def) {
+		int index = pos == null ? -1 : indexOf(pos.ordinal(), def);
+
+		if (index < 0)
 			return false;
 
-		size--;
+		removeAt(index);
+		return true;
+	}
 
-		if (target.size() == 0)
-			definitions.remove(pos);
+	/**
+	 * Checks whether any of this Term's definitions has the given part of speech.
+	 *
+	 * @param pos	- the part of speech
+	 * @return - true if a definition has that part of speech
+	 */
+	boolean hasPos(PartOfSpeech pos) {
+		for (int i = 0; i < size; i++)
+			if (posOrdinals[i] == pos.ordinal())
+				return true;
 
-		return true;
+		return false;
 	}
 
 	/**
 	 * Gets the amount of definitions stored in this Term.
-	 * 
+	 *
 	 * @return - the number of definitions associated with this Term
 	 */
 	public int getSize() {
 		return size;
 	}
 
+	/**
+	 * Gets the word this Term is associated with.
+	 *
+	 * @return - the word
+	 */
+	String getWord() {
+		return word;
+	}
+
+	/**
+	 * Makes a copy of this Term that shares its arrays, for reading on another thread.
+	 * The next change to this Term copies the arrays first, so the copy keeps the
+	 * definitions as they are now. Taking a copy costs the same however many definitions
+	 * there are; the cost of copying the arrays falls on the next change, if any.
+	 *
+	 * @return - the copy, which must not be changed
+	 */
+	Term share() {
+		shared = true;
+		return new Term(word, posOrdinals, defs, size);
+	}
+
+	/**
+	 * Gets the part of speech ordinal of a definition.
+	 *
+	 * @param index	- the definition's position, from 0 to getSize() - 1
+	 * @return - the part of speech ordinal
+	 */
+	int posOrdinalAt(int index) {
+		return posOrdinals[index];
+	}
+
+	/**
+	 * Gets a definition by position.
+	 *
+	 * @param index	- the definition's position, from 0 to getSize() - 1
+	 * @return - the definition
+	 */
+	String defAt(int index) {
+		return defs[index];
+	}
+
+	/**
+	 * Removes the definition at a position, shifting later definitions down.
+	 *
+	 * @param index	- the position of the definition to remove
+	 */
+	private void removeAt(int index) {
+		if (shared) {
+			posOrdinals = posOrdinals.clone();
+			defs = defs.clone();
+			shared = false;
+		}
+
+		size--;
+		System.arraycopy(posOrdinals, index + 1, posOrdinals, index, size - index);
+		System.arraycopy(defs, index + 1, defs, index, size - index);
+		defs[size] = null;
+	}
+
+	/**
+	 * Binary searches for a definition.
+	 *
+	 * @param ordinal	- the part of speech ordinal of the definition
+	 * @param def		- the definition
+	 * @return - the definition's position if present, otherwise (-(insertion point) - 1)
+	 */
+	private int indexOf(int ordinal, String def) {
+		int low = 0;
+		int high = size - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = posOrdinals[mid] != ordinal ? posOrdinals[mid] - ordinal : defs[mid].compareTo(def);
+
+			if (cmp < 0)
+				low = mid + 1;
+			else if (cmp > 0)
+				high = mid - 1;
+			else
+				return mid;
+		}
+
+		return -(low + 1);
+	}
+
+	/**
+	 * Gets the part of speech with a given label.
+	 *
+	 * @param pos	- the part of speech label
+	 * @return - the part of speech
+	 * @throws IllegalArgumentException if the part of speech is not one of posOrder
+	 */
+	private static PartOfSpeech valueOf(String pos) {
+		PartOfSpeech target = PartOfSpeech.fromLabel(pos);
+		if (target == null)
+			throw new IllegalArgumentException("Unknown part of speech: " + pos);
+
+		return target;
+	}
 }
@@ -0,0 +1,147 @@
+package comprehensive;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * An Appendable that encodes what is appended as UTF-8 straight into a ByteBuffer, so
+ * that Terms can be rendered into a network or file buffer without building Strings or
+ * going through a CharsetEncoder. A surrogate pair split across two appends is encoded
+ * as one character; an unpaired surrogate is written as '?', as String.getBytes does.
+ * <p>
+ * If the buffer fills up, append throws BufferOverflowException and the buffer holds the
+ * characters written before it. The caller can drain the buffer, or reset it and render
+ * again into a larger one.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+public final class Utf8Sink implements Appendable {
+	private ByteBuffer buffer;
+	private char highSurrogate;
+
+	/**
+	 * Constructor for a Utf8Sink.
+	 *
+	 * @param buffer - the buffer to write into, from its position
+	 */
+	public Utf8Sink(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Gets the buffer being written into.
+	 *
+	 * @return - the buffer
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Writes into another buffer from now on, such as after the current one was drained
+	 * or replaced by a larger one. A pending high surrogate is kept.
+	 *
+	 * @param buffer - the buffer to write into, from its position
+	 */
+	public void setBuffer(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public Utf8Sink append(CharSequence csq) {
+		return append(csq, 0, csq == null ? 4 : csq.length());
+	}
+
+	@Override
+	public Utf8Sink append(CharSequence csq, int start, int end) {
+		if (csq == null)
+			csq = "null";
+
+		int i = start;
+		if (highSurrogate == 0) {
+			// Most text is ASCII, a byte per char, so copy it without checking for room
+			// each time while it surely fits.
+			int fits = Math.min(end, start + buffer.remaining());
+			for (char c; i < fits && (c = csq.charAt(i)) < 0x80; i++)
+				buffer.put((byte) c);
+		}
+
+		for (; i < end; i++)
+			append(csq.charAt(i));
+
+		return this;
+	}
+
+	@Override
+	public Utf8Sink append(char c) {
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(c)) {
+				int codePoint = Character.toCodePoint(high, c);
+				require(4, high);
+				buffer.put((byte) (0xF0 | codePoint >>> 18));
+				buffer.put((byte) (0x80 | (codePoint >>> 12 & 0x3F)));
+				buffer.put((byte) (0x80 | (codePoint >>> 6 & 0x3F)));
+				buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+				return this;
+			}
+
+			require(1, high);
+			buffer.put((byte) '?');
+		}
+
+		if (c < 0x80) {
+			require(1, (char) 0);
+			buffer.put((byte) c);
+		} else if (c < 0x800) {
+			require(2, (char) 0);
+			buffer.put((byte) (0xC0 | c >>> 6));
+			buffer.put((byte) (0x80 | (c & 0x3F)));
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			require(1, (char) 0);
+			buffer.put((byte) '?');
+		} else {
+			require(3, (char) 0);
+			buffer.put((byte) (0xE0 | c >>> 12));
+			buffer.put((byte) (0x80 | (c >>> 6 & 0x3F)));
+			buffer.put((byte) (0x80 | (c & 0x3F)));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Ends the text, writing '?' for a high surrogate that was never followed by its low
+	 * surrogate.
+	 *
+	 * @return - this Utf8Sink
+	 */
+	public Utf8Sink finish() {
+		if (highSurrogate != 0) {
+			require(1, highSurrogate);
+			highSurrogate = 0;
+			buffer.put((byte) '?');
+		}
+
+		return this;
+	}
+
+	/**
+	 * Makes sure a character's bytes fit before any of them are written, so a character is
+	 * never left half-written.
+	 *
+	 * @param bytes   - the number of bytes about to be written
+	 * @param pending - the high surrogate to keep pending if they don't fit, or 0
+	 * @throws BufferOverflowException if the buffer has too little room
+	 */
+	private void require(int bytes, char pending) {
+		if (buffer.remaining() < bytes) {
+			highSurrogate = pending;
+			throw new BufferOverflowException();
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package comprehensive;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Glossary files for the benchmarks, made by GlossaryGenerator with a fixed seed. A file
+ * is generated the first time it is asked for and reused by later runs, so every run
+ * with the same parameters reads the same data.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+final class BenchmarkFiles {
+	/** The seed of every generated file. */
+	static final long SEED = 2420;
+
+	private BenchmarkFiles() {
+	}
+
+	/**
+	 * Gets a generated glossary file, generating it if it doesn't exist yet.
+	 *
+	 * @param lines    - the number of lines
+	 * @param skew     - how unevenly lines are spread over words
+	 * @param repeated - the share of lines that repeat a recent line
+	 * @return - the file's path
+	 * @throws IOException if the file can't be written
+	 */
+	static String glossary(int lines, double skew, double repeated) throws IOException {
+		File file = new File(System.getProperty("java.io.tmpdir"),
+				"glossary-bench-" + SEED + "-" + lines + "-" + skew + "-" + repeated + ".txt");
+
+		if (!file.exists()) {
+			GlossaryGenerator generator = new GlossaryGenerator(SEED);
+			generator.setSkew(skew);
+			generator.setRepeatedFraction(repeated);
+
+			// Written whole and then renamed, so an interrupted run never leaves a partial file.
+			AtomicFile.write(file.getPath(), channel -> {
+				Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 1 << 16);
+				generator.write(writer, lines);
+				writer.flush();
+			});
+		}
+
+		return file.getPath();
+	}
+
+	/**
+	 * Picks words of a glossary at random, with a fixed seed.
+	 *
+	 * @param glossary - the glossary
+	 * @param count    - the number of words to pick
+	 * @return - the words, which can repeat
+	 */
+	static String[] randomWords(Glossary glossary, int count) {
+		Random random = new Random(SEED);
+		String[] words = new String[count];
+
+		for (int i = 0; i < count; i++)
+			words[i] = glossary.select(random.nextInt(glossary.size()));
+
+		return words;
+	}
+}
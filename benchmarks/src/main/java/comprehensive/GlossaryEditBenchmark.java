@@ -0,0 +1,80 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures edits to a loaded Glossary. Each call makes an edit and then undoes it, so
+ * the glossary stays the same size however long the benchmark runs, and the time
+ * reported is for the pair.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class GlossaryEditBenchmark {
+	/** The number of words in the sequence edited; a power of 2. */
+	private static final int WORDS = 1 << 16;
+	private static final String DEFINITION = "A definition added by the benchmark.";
+
+	@Param({ "1000", "100000", "1000000" })
+	int lines;
+
+	/** How unevenly lines are spread over words; see GlossaryGenerator. */
+	@Param({ "1.0" })
+	double skew;
+
+	private Glossary glossary;
+	private String[] words;
+	/** The part of speech and text of each word's first definition. */
+	private String[][] firstDefs;
+	private int next;
+
+	@Setup
+	public void load() throws IOException {
+		glossary = new Glossary(BenchmarkFiles.glossary(lines, skew, 0.0), 1);
+		words = BenchmarkFiles.randomWords(glossary, WORDS);
+
+		firstDefs = new String[WORDS][];
+		for (int i = 0; i < WORDS; i++)
+			firstDefs[i] = glossary.getSplit(words[i])[0];
+	}
+
+	@Benchmark
+	public boolean addThenDelete() {
+		String word = words[next++ & WORDS - 1];
+		glossary.add(word, "noun", DEFINITION);
+		return glossary.deleteDef(word, "noun", DEFINITION)[0];
+	}
+
+	@Benchmark
+	public boolean deleteThenAdd() {
+		int i = next++ & WORDS - 1;
+		glossary.deleteDef(words[i], firstDefs[i][0], firstDefs[i][1]);
+		return glossary.add(words[i], firstDefs[i][0], firstDefs[i][1]);
+	}
+
+	@Benchmark
+	public boolean updateDefAndBack() {
+		int i = next++ & WORDS - 1;
+		glossary.updateDef(words[i], firstDefs[i][0], firstDefs[i][1], DEFINITION);
+		return glossary.updateDef(words[i], firstDefs[i][0], DEFINITION, firstDefs[i][1]);
+	}
+}
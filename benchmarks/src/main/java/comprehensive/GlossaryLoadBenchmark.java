@@ -0,0 +1,57 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building a Glossary from a file.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class GlossaryLoadBenchmark {
+	@Param({ "1000", "100000", "1000000" })
+	int lines;
+
+	/** How unevenly lines are spread over words; see GlossaryGenerator. */
+	@Param({ "1.0" })
+	double skew;
+
+	/** The share of lines that repeat a recent line. */
+	@Param({ "0.0" })
+	double repeated;
+
+	/** The threads that parse the file. */
+	@Param({ "1", "4" })
+	int parallelism;
+
+	private String file;
+
+	@Setup
+	public void generate() throws IOException {
+		file = BenchmarkFiles.glossary(lines, skew, repeated);
+	}
+
+	@Benchmark
+	public Glossary load() {
+		return new Glossary(file, parallelism);
+	}
+}
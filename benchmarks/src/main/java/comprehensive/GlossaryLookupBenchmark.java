@@ -0,0 +1,66 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures looking words up in a loaded Glossary. Each call looks up the next of a fixed
+ * sequence of random words, so the render cache sees the same traffic in every run.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class GlossaryLookupBenchmark {
+	/** The number of words in the sequence looked up; a power of 2. */
+	private static final int WORDS = 1 << 16;
+
+	@Param({ "1000", "100000", "1000000" })
+	int lines;
+
+	/** How unevenly lines are spread over words; see GlossaryGenerator. */
+	@Param({ "1.0" })
+	double skew;
+
+	private Glossary glossary;
+	private String[] words;
+	private int next;
+
+	@Setup
+	public void load() throws IOException {
+		glossary = new Glossary(BenchmarkFiles.glossary(lines, skew, 0.0), 1);
+		words = BenchmarkFiles.randomWords(glossary, WORDS);
+	}
+
+	@Benchmark
+	public String[] getMerged() {
+		return glossary.getMerged(words[next++ & WORDS - 1]);
+	}
+
+	@Benchmark
+	public String[] getPOS() {
+		return glossary.getPOS(words[next++ & WORDS - 1]);
+	}
+
+	@Benchmark
+	public String[][] getSplit() {
+		return glossary.getSplit(words[next++ & WORDS - 1]);
+	}
+}
@@ -0,0 +1,68 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures walking ranges of words in a loaded Glossary. Each call walks the range
+ * starting at the next of a fixed sequence of random words.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class GlossaryRangeBenchmark {
+	/** The number of ranges in the sequence walked; a power of 2. */
+	private static final int WORDS = 1 << 16;
+
+	@Param({ "1000", "100000", "1000000" })
+	int lines;
+
+	/** How unevenly lines are spread over words; see GlossaryGenerator. */
+	@Param({ "1.0" })
+	double skew;
+
+	/** The number of words in each range. */
+	@Param({ "10", "10000" })
+	int span;
+
+	private Glossary glossary;
+	private String[] words;
+	private String[] rangeEnds;
+	private int next;
+
+	@Setup
+	public void load() throws IOException {
+		glossary = new Glossary(BenchmarkFiles.glossary(lines, skew, 0.0), 1);
+		words = BenchmarkFiles.randomWords(glossary, WORDS);
+
+		rangeEnds = new String[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			rangeEnds[i] = glossary.select(Math.min(glossary.size() - 1, glossary.rank(words[i]) + span - 1));
+	}
+
+	@Benchmark
+	public void getInRange(Blackhole blackhole) {
+		int i = next++ & WORDS - 1;
+		for (String word : glossary.getInRange(words[i], rangeEnds[i]))
+			blackhole.consume(word);
+	}
+}
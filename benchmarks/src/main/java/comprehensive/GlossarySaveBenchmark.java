@@ -0,0 +1,58 @@
+package comprehensive;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures saving a loaded Glossary to a text file.
+ *
+ * @author Devin Santos and Tyler Christiansen
+ * @version 2025-12-3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class GlossarySaveBenchmark {
+	@Param({ "1000", "100000", "1000000" })
+	int lines;
+
+	/** How unevenly lines are spread over words; see GlossaryGenerator. */
+	@Param({ "1.0" })
+	double skew;
+
+	private Glossary glossary;
+	private File target;
+
+	@Setup
+	public void load() throws IOException {
+		glossary = new Glossary(BenchmarkFiles.glossary(lines, skew, 0.0), 1);
+		target = File.createTempFile("glossary-bench-save", ".txt");
+	}
+
+	@TearDown
+	public void delete() {
+		target.delete();
+	}
+
+	@Benchmark
+	public boolean saveToFile() {
+		return glossary.saveToFile(target.getPath());
+	}
+}